@@ -8,6 +8,9 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+
+    // Apply the JMH plugin, which adds the `jmh` source set (src/jmh/java) and the `jmh` task.
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -21,8 +24,7 @@ dependencies {
 
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
-    // This dependency is used by the application.
-    implementation(libs.guava)
+    // @note: The application has no runtime dependency, the JDK is all it needs (see `runtimeModules` below).
 }
 
 // Apply a specific Java toolchain to ease working on different environments.
@@ -50,3 +52,93 @@ tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
 }
+
+// Run the benchmarks with `./gradlew jmh`, or a subset with `./gradlew jmh -PjmhIncludes=Escape`.
+jmh {
+    jmhVersion = libs.versions.jmh
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+    // Report the allocation rate next to the throughput.
+    profilers = listOf("gc")
+    // Keep the results as JSON, so that runs can be compared (e.g. with https://jmh.morethan.io).
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+// Generate synthetic MMD inputs, e.g. `./gradlew generateCorpus --args="document build/huge.txt 1G --seed 7"`.
+tasks.register<JavaExec>("generateCorpus") {
+    description = "Generates synthetic MMD documents for benchmarks and stress tests."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "dev.madpang.bench.CorpusGenerator"
+}
+
+// Measure the heap retained by the AST per MB of input, list vs compact mode: `./gradlew retainedHeap [--args="<paragraphs>"]`.
+tasks.register<JavaExec>("retainedHeap") {
+    description = "Measures the heap retained by the AST, per MB of input."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "dev.madpang.bench.RetainedHeap"
+}
+
+// Fast-start distribution: a trimmed runtime image, with an AppCDS archive of the classes loaded by a conversion.
+// `./gradlew appCdsArchive` builds both into build/image; run it with `build/image/bin/mmd2html <input-file> <output-file>`.
+// The modules are those reported by `jdeps --print-module-deps build/libs/mmd2html.jar`.
+val runtimeModules = listOf("java.base", "jdk.httpserver", "jdk.jfr", "jdk.management")
+val imageDir = layout.buildDirectory.dir("image")
+val toolchainHome = javaToolchains.launcherFor(java.toolchain).map { it.metadata.installationPath.asFile }
+
+tasks.register<Exec>("jlinkImage") {
+    description = "Builds a trimmed Java runtime image holding the converter jar and its launcher."
+    group = "distribution"
+    val jar = tasks.named<Jar>("jar")
+    dependsOn(jar)
+    inputs.files(jar)
+    outputs.dir(imageDir)
+    doFirst {
+        // jlink refuses to write into an existing directory
+        delete(imageDir)
+        commandLine(
+            toolchainHome.get().resolve("bin/jlink").absolutePath,
+            "--add-modules", runtimeModules.joinToString(","),
+            "--strip-debug", "--no-header-files", "--no-man-pages", "--compress=zip-6",
+            // Also dump the default CDS archive of the JDK classes into the image
+            "--generate-cds-archive",
+            "--output", imageDir.get().asFile.absolutePath
+        )
+    }
+    doLast {
+        val image = imageDir.get().asFile
+        jar.get().archiveFile.get().asFile.copyTo(image.resolve("lib/mmd2html.jar"), overwrite = true)
+        // The launcher uses the application archive when there is one, and silently runs without it otherwise
+        val launcher = image.resolve("bin/mmd2html")
+        launcher.writeText(
+            """
+            |#!/bin/sh
+            |DIR="${'$'}(cd "${'$'}(dirname "${'$'}0")/.." && pwd)"
+            |CDS=""
+            |if [ -f "${'$'}DIR/lib/mmd2html.jsa" ]; then CDS="-XX:SharedArchiveFile=${'$'}DIR/lib/mmd2html.jsa"; fi
+            |exec "${'$'}DIR/bin/java" ${'$'}CDS -Xshare:auto ${'$'}JAVA_OPTS -cp "${'$'}DIR/lib/mmd2html.jar" MmdConverter "${'$'}@"
+            |""".trimMargin()
+        )
+        launcher.setExecutable(true)
+    }
+}
+
+tasks.register<Exec>("appCdsArchive") {
+    description = "Creates the AppCDS archive of the runtime image, from a training conversion of example-mmd-doc.txt."
+    group = "distribution"
+    dependsOn("jlinkImage")
+    val trainingInput = rootProject.layout.projectDirectory.file("example-mmd-doc.txt")
+    val trainingOutput = layout.buildDirectory.file("tmp/appcds/training.html")
+    inputs.file(trainingInput)
+    outputs.file(imageDir.map { it.file("lib/mmd2html.jsa") })
+    doFirst {
+        val image = imageDir.get().asFile
+        trainingOutput.get().asFile.parentFile.mkdirs()
+        // The archive is only valid for the exact same runtime and class path, i.e. the image's java and its jar
+        commandLine(
+            image.resolve("bin/java").absolutePath,
+            "-XX:ArchiveClassesAtExit=" + image.resolve("lib/mmd2html.jsa").absolutePath,
+            "-cp", image.resolve("lib/mmd2html.jar").absolutePath,
+            "MmdConverter", trainingInput.asFile.absolutePath, trainingOutput.get().asFile.absolutePath
+        )
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * @file: BinaryAstBenchmark.java
+ * @brief: Loading a document from its binary AST vs parsing it from its text, alone and followed by the rendering.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.BinaryAst;
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+
+/**
+ * @note:
+ * `parseText` and `readBinary` both start from bytes in memory; `parseFile` and `loadFile` from files in the page cache, memory-mapped.
+ * The `*AndRender` variants render the document into a null writer, as loading lazily only moves the decoding of the lines to the rendering.
+ * Run it with `./gradlew jmh -PjmhIncludes=BinaryAst`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BinaryAstBenchmark {
+	@Param({"64k", "1M", "16M"})
+	public String size;
+
+	private SourceBuffer text;
+	private SourceBuffer binary;
+	private Path textFile;
+	private Path binaryFile;
+
+	@Setup
+	public void setUp() throws IOException {
+		CorpusGenerator.Options options = new CorpusGenerator.Options();
+		StringBuilder sb = new StringBuilder();
+		new CorpusGenerator(options).writeDocument(sb, CorpusGenerator.parseSize(size), options.seed);
+		byte[] bytes = SampleDocuments.bytes(sb.toString());
+		text = SourceBuffer.wrap(bytes);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryAst.write(MmdDocument.parse(new ByteLineSource(text)), out);
+		binary = SourceBuffer.wrap(out.toByteArray());
+		textFile = Files.createTempFile("binary-ast", ".txt");
+		Files.write(textFile, bytes);
+		binaryFile = Files.createTempFile("binary-ast", BinaryAst.EXTENSION);
+		Files.write(binaryFile, out.toByteArray());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(textFile);
+		Files.deleteIfExists(binaryFile);
+	}
+
+	@Benchmark
+	public MmdDocument parseText() throws IOException {
+		return MmdDocument.parse(new ByteLineSource(text));
+	}
+
+	@Benchmark
+	public MmdDocument readBinary() throws IOException {
+		return BinaryAst.read(binary);
+	}
+
+	@Benchmark
+	public MmdDocument parseFile() throws IOException {
+		return MmdDocument.parse(LineSource.open(textFile));
+	}
+
+	@Benchmark
+	public MmdDocument loadFile() throws IOException {
+		return BinaryAst.load(binaryFile);
+	}
+
+	@Benchmark
+	public MmdDocument parseTextAndRender() throws IOException {
+		MmdDocument doc = MmdDocument.parse(new ByteLineSource(text));
+		doc.toHTML(Writer.nullWriter());
+		return doc;
+	}
+
+	@Benchmark
+	public MmdDocument readBinaryAndRender() throws IOException {
+		MmdDocument doc = BinaryAst.read(binary);
+		doc.toHTML(Writer.nullWriter());
+		return doc;
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * @file: BlockDispatchBenchmark.java
+ * @brief: Cost of finding the block parser of a line, by linear scan or by prefix dispatch, as block types are added.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.madpang.ast.blocks.BlockDispatcher;
+import dev.madpang.ast.blocks.BlockParser;
+import dev.madpang.ast.blocks.CodeBlock;
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.io.LineSource;
+
+/**
+ * The registered parsers are CodeBlock plus synthetic block types (lists, tables, equations, ...) which
+ * each match their first line with a regex, the way CodeBlock does; none of them accepts an ordinary prose line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockDispatchBenchmark {
+	private static final String[] PREFIXES = {
+		"- ", "* ", "+ ", "1. ", "| ", "$$ ", "> ", "!! ", "[^", "::: ", "@@ ", "%% "
+	};
+	private static final LineSource EMPTY = () -> null;
+
+	@Param({"1", "4", "12"})
+	public int extraTypes;
+
+	private List<BlockParser> parsers;
+	private BlockDispatcher dispatcher;
+	private String[] lines;
+
+	@Setup
+	public void setUp() {
+		parsers = new ArrayList<>();
+		parsers.add(CodeBlock.PARSER);
+		for (int i = 0; i < extraTypes; i++) {
+			String prefix = PREFIXES[i];
+			Pattern start = Pattern.compile("^" + Pattern.quote(prefix) + "(\\S.*)$");
+			parsers.add(BlockParser.withPrefix(prefix, (source, line) -> {
+				// matching is all we measure: the synthetic types never consume a line
+				start.matcher(line).matches();
+				return Optional.empty();
+			}));
+		}
+		dispatcher = new BlockDispatcher(parsers);
+		String[] prose = SampleDocuments.paragraph(64, 0, 0).split("\n");
+		lines = new String[prose.length + 2];
+		System.arraycopy(prose, 0, lines, 0, prose.length);
+		lines[prose.length] = "- an item of a list";
+		lines[prose.length + 1] = "| a | table | row |";
+	}
+
+	@Benchmark
+	public void linearScan(Blackhole bh) throws IOException {
+		for (String line : lines) {
+			for (BlockParser parser : parsers) {
+				Optional<IBlock> block = parser.tryParse(EMPTY, line);
+				if (block.isPresent()) {
+					bh.consume(block);
+					break;
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void prefixDispatch(Blackhole bh) throws IOException {
+		for (String line : lines) {
+			bh.consume(dispatcher.tryParse(EMPTY, line));
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * @file: CorpusGenerator.java
+ * @brief: Generates synthetic, valid MMD documents for benchmarks, scale and stress tests.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * @note:
+ * Every generated document is valid MMD: a "``` header" block, a single level-1 heading, then a tree of sections holding semantic paragraphs and fenced code blocks.
+ * The output only depends on the seed and the options, so a run can always be reproduced.
+ *
+ * @details:
+ * Usage (through `./gradlew generateCorpus --args="..."`):
+ * - `document <file> <size> [options]`           one document of about <size> bytes, e.g. `1G`, streamed to disk;
+ * - `corpus <dir> <count> <size> [options]`      <count> documents of about <size> bytes each, named doc-00000.txt...
+ * with the options `--seed <n>`, `--depth <1-5>`, `--fuzzy-ratio <0-1>`, `--paragraph-lines <n>`, `--code-ratio <0-1>` and `--special-density <0-1>`.
+ */
+public final class CorpusGenerator {
+	private static final String[] WORDS = {
+		"the", "parser", "reads", "a", "line", "of", "text", "and", "builds", "section", "tree", "with",
+		"paragraphs", "blocks", "each", "node", "renders", "itself", "to", "HTML", "document", "header",
+		"value", "is", "not", "only", "fast", "but", "also", "simple", "enough", "for", "review", "in",
+		"naïve", "café", "数据", "über",
+	};
+	private static final String[] SPECIALS = { "<tag>", "a&b", "x > y", "\"quoted\"", "it's", "</p>", "&amp;" };
+	private static final String[] CODE = {
+		"int total = 0;", "for (int i = 0; i < count; i++) {", "\ttotal += values[i];", "}",
+		"# a comment, not a heading", "if (a < b && b > c) { return; }", "", "return total;",
+	};
+	private static final String[] TAGS = { "java", "python", "bash", "console", "text" };
+
+	/**
+	 * Tunable shape of the generated documents.
+	 */
+	public static final class Options {
+		public long seed = 42;
+		public int maxDepth = 3;             // deepest heading level, 1 to 5 (levels 4 and 5 are fuzzy headings)
+		public double fuzzyRatio = 0.0;      // probability for a heading to be a fuzzy one ("===" / "---") where it can
+		public int paragraphLines = 4;       // mean number of prose lines per paragraph block
+		public double codeBlockRatio = 0.3;  // probability for a semantic paragraph to hold a code block
+		public double specialDensity = 0.05; // probability for a word to be one needing HTML escaping
+		public int wordsPerLine = 12;
+	}
+
+	private final Options options;
+
+	public CorpusGenerator(Options options) {
+		this.options = options;
+	}
+
+	/**
+	 * @brief: Writes one document of about `targetBytes` characters (bytes for ASCII text), generated from the given seed.
+	 */
+	public void writeDocument(Appendable out, long targetBytes, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		Counter counter = new Counter(out);
+		counter.append("``` header\n@file: generated-").append(Long.toString(seed)).append(".txt\n")
+			.append("@brief: A synthetic document for benchmarking.\n")
+			.append("@title: Generated document ").append(Long.toString(seed)).append('\n')
+			.append("@author: generator\n")
+			.append("@date: [created: 2025-01-01, updated: 2025-01-02]\n")
+			.append("@version: 1.0.0\n```\n\n")
+			.append("# Generated document ").append(Long.toString(seed)).append("\n\n");
+		int level = 1;
+		int explicitLevel = 1; // fuzzy headings are relative to the preceding explicit heading
+		int sectionCount = 0;
+		while (counter.count < targetBytes) {
+			writeSemanticParagraph(counter, random);
+			// Now and then, open a new section; it may go one level deeper, or back up to any level
+			if (options.maxDepth > 1 && random.nextInt(4) == 0) {
+				int next = 2 + random.nextInt(Math.min(level, options.maxDepth - 1));
+				if (next > 3 || (next > explicitLevel && options.fuzzyRatio > 0 && random.nextDouble() < options.fuzzyRatio)) {
+					// a fuzzy heading only reaches one or two levels below the preceding explicit heading
+					next = Math.min(next, explicitLevel + 2);
+					counter.append((next == explicitLevel + 1) ? "===" : "---");
+				} else {
+					explicitLevel = next;
+					counter.append("#".repeat(next));
+				}
+				level = next;
+				counter.append(" Section ").append(Integer.toString(++sectionCount));
+				writeWords(counter, random, 3);
+				counter.append("\n\n");
+			}
+		}
+	}
+
+	/**
+	 * @brief: Writes one document to a file, streaming, so that GB-scale documents need no memory.
+	 */
+	public void writeDocument(Path file, long targetBytes, long seed) throws IOException {
+		try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+			writeDocument(writer, targetBytes, seed);
+		}
+	}
+
+	/**
+	 * @brief: Writes `count` documents into the directory, in parallel; document i is generated from seed + i.
+	 */
+	public void writeCorpus(Path dir, int count, long bytesPerDocument) throws IOException {
+		Files.createDirectories(dir);
+		try {
+			IntStream.range(0, count).parallel().forEach(i -> {
+				try {
+					writeDocument(dir.resolve(String.format("doc-%05d.txt", i)), bytesPerDocument, options.seed + i);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void writeSemanticParagraph(Counter out, SplittableRandom random) throws IOException {
+		writeProse(out, random);
+		if (random.nextDouble() < options.codeBlockRatio) {
+			out.append("``` ").append(TAGS[random.nextInt(TAGS.length)]).append('\n');
+			int lines = 2 + random.nextInt(12);
+			for (int i = 0; i < lines; i++) {
+				out.append(CODE[random.nextInt(CODE.length)]).append('\n');
+			}
+			out.append("```\n");
+			if (random.nextBoolean()) {
+				writeProse(out, random);
+			}
+		}
+		out.append('\n');
+	}
+
+	private void writeProse(Counter out, SplittableRandom random) throws IOException {
+		int lines = 1 + random.nextInt(2 * options.paragraphLines);
+		for (int i = 0; i < lines; i++) {
+			// Start with a capitalized plain word, so that a line never looks like a heading or a fence
+			out.append("Line");
+			writeWords(out, random, 1 + random.nextInt(2 * options.wordsPerLine));
+			out.append(".\n");
+		}
+	}
+
+	private void writeWords(Counter out, SplittableRandom random, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			out.append(' ');
+			if (random.nextDouble() < options.specialDensity) {
+				out.append(SPECIALS[random.nextInt(SPECIALS.length)]);
+			} else {
+				out.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+		}
+	}
+
+	/**
+	 * Counts the characters written, to know when the target size is reached.
+	 */
+	private static final class Counter {
+		private final Appendable out;
+		private long count;
+
+		Counter(Appendable out) {
+			this.out = out;
+		}
+
+		Counter append(CharSequence text) throws IOException {
+			out.append(text);
+			count += text.length();
+			return this;
+		}
+
+		Counter append(char c) throws IOException {
+			out.append(c);
+			count++;
+			return this;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: CorpusGenerator document <file> <size> [options]");
+			System.err.println("       CorpusGenerator corpus <dir> <count> <size> [options]");
+			System.err.println("Options: --seed <n> --depth <1-5> --fuzzy-ratio <0-1> --paragraph-lines <n> --code-ratio <0-1> --special-density <0-1>");
+			System.exit(1);
+		}
+		boolean corpus = args[0].equals("corpus");
+		int firstOption = corpus ? 4 : 3;
+		Options options = new Options();
+		for (int i = firstOption; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "--seed":
+					options.seed = Long.parseLong(args[i + 1]);
+					break;
+				case "--depth":
+					options.maxDepth = Integer.parseInt(args[i + 1]);
+					break;
+				case "--paragraph-lines":
+					options.paragraphLines = Integer.parseInt(args[i + 1]);
+					break;
+				case "--fuzzy-ratio":
+					options.fuzzyRatio = Double.parseDouble(args[i + 1]);
+					break;
+				case "--code-ratio":
+					options.codeBlockRatio = Double.parseDouble(args[i + 1]);
+					break;
+				case "--special-density":
+					options.specialDensity = Double.parseDouble(args[i + 1]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		CorpusGenerator generator = new CorpusGenerator(options);
+		long start = System.nanoTime();
+		if (corpus) {
+			generator.writeCorpus(Path.of(args[1]), Integer.parseInt(args[2]), parseSize(args[3]));
+		} else {
+			generator.writeDocument(Path.of(args[1]), parseSize(args[2]), options.seed);
+		}
+		System.out.printf("Generated %s in %.1f s%n", args[1], (System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * @brief: Parses a size such as `512`, `64k`, `200M` or `2G`.
+	 */
+	static long parseSize(String size) {
+		char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+		int shift = (unit == 'K') ? 10 : (unit == 'M') ? 20 : (unit == 'G') ? 30 : 0;
+		String digits = (shift == 0) ? size : size.substring(0, size.length() - 1);
+		return Long.parseLong(digits) << shift;
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * @file: EscapeBenchmark.java
+ * @brief: Throughput and allocations of the HTML escaping, against the former chained `String.replace`.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.io.SourceLine;
+import dev.madpang.util.CommonUtil;
+
+/**
+ * @note:
+ * The allocations per escaped line are the `gc.alloc.rate.norm` of the gc profiler: the chained replace allocates up to 3 Strings per line,
+ * the escaping into a sink nothing, whether the line is a String or a view of the source (`*ToWriter`, the path of the renderers).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeBenchmark {
+	@Param({"plain", "special"})
+	public String line;
+
+	private String text;
+	private CharSequence view; // the same line, as the parser hands it to the renderers
+	private final StringBuilder sink = new StringBuilder(256);
+	private final Writer writer = Writer.nullWriter();
+
+	@Setup
+	public void setUp() {
+		text = line.equals("plain")
+			? "A plain sentence, with no special characters at all, as most lines are."
+			: "if (count < limit && value > 0) { return \"<tag>\" + value; } // a & b";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		view = SourceLine.of(SourceBuffer.wrap(bytes), 0, bytes.length, true);
+	}
+
+	@Benchmark
+	public String chainedReplace() {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	@Benchmark
+	public String escapeToString() throws IOException {
+		return CommonUtil.escapeHTML(text);
+	}
+
+	@Benchmark
+	public int escapeToSink() throws IOException {
+		sink.setLength(0);
+		CommonUtil.escapeHTML(text, sink);
+		return sink.length();
+	}
+
+	@Benchmark
+	public void escapeStringToWriter() throws IOException {
+		CommonUtil.escapeHTML(text, writer);
+	}
+
+	@Benchmark
+	public void escapeViewToWriter() throws IOException {
+		CommonUtil.escapeHTML(view, writer);
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * @file: FragmentCacheBenchmark.java
+ * @brief: Rendering of a document made of repeated paragraphs, without and with the fragment cache.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.FragmentCache;
+import dev.madpang.ast.MmdDocument;
+
+/**
+ * @note:
+ * `cached` measures the steady state of a batch or a service, where the cache is warm: hashing the lines instead of escaping them.
+ * The cache is only installed around `cached`, so that `uncached` shows the plain rendering path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FragmentCacheBenchmark {
+	@Param({"4", "40"})
+	public int paragraphLines;
+
+	private MmdDocument document;
+	private FragmentCache cache;
+
+	@Setup
+	public void setUp() throws IOException {
+		StringBuilder sb = new StringBuilder(SampleDocuments.HEADER).append("\n# Boilerplate Benchmark\n\n");
+		String para = SampleDocuments.paragraph(paragraphLines, 1, paragraphLines);
+		for (int s = 0; s < 50; s++) {
+			sb.append("## Section ").append(s).append("\n\n");
+			for (int p = 0; p < 20; p++) {
+				sb.append(para);
+			}
+		}
+		document = MmdDocument.parse(SampleDocuments.source(SampleDocuments.bytes(sb.toString())));
+		cache = new FragmentCache(64L << 20);
+	}
+
+	@Benchmark
+	public void uncached() throws IOException {
+		document.toHTML(Writer.nullWriter());
+	}
+
+	@Benchmark
+	public void cached() throws IOException {
+		FragmentCache.setShared(cache);
+		try {
+			document.toHTML(Writer.nullWriter());
+		} finally {
+			FragmentCache.setShared(null);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * @file: GeneratedDocumentBenchmark.java
+ * @brief: Parse throughput over generated documents, far larger than the hand-written examples.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdDocument;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GeneratedDocumentBenchmark {
+	@Param({"1M", "16M", "128M"})
+	public String size;
+
+	@Param({"0.3"})
+	public double codeBlockRatio;
+
+	private byte[] document;
+
+	@Setup
+	public void setUp() throws IOException {
+		CorpusGenerator.Options options = new CorpusGenerator.Options();
+		options.codeBlockRatio = codeBlockRatio;
+		StringBuilder sb = new StringBuilder();
+		new CorpusGenerator(options).writeDocument(sb, CorpusGenerator.parseSize(size), options.seed);
+		document = SampleDocuments.bytes(sb.toString());
+	}
+
+	@Benchmark
+	public MmdDocument parse() throws IOException {
+		return MmdDocument.parse(SampleDocuments.source(document));
+	}
+}
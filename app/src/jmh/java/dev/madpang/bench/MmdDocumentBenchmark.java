@@ -0,0 +1,42 @@
+/**
+ * @file: MmdDocumentBenchmark.java
+ * @brief: End-to-end throughput: parse a whole document and render it to HTML.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdDocument;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MmdDocumentBenchmark {
+	private byte[] document;
+
+	@Setup
+	public void setUp() {
+		document = SampleDocuments.bytes(SampleDocuments.HEADER + "\n" + SampleDocuments.flatBody(100, 5));
+	}
+
+	@Benchmark
+	public List<String> parseAndRenderToList() throws IOException {
+		return MmdDocument.parse(SampleDocuments.source(document)).toHTML();
+	}
+
+	@Benchmark
+	public void parseAndRenderToSink() throws IOException {
+		MmdDocument.parse(SampleDocuments.source(document)).toHTML(Writer.nullWriter());
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * @file: MmdHeaderBenchmark.java
+ * @brief: Throughput of the header parser.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdHeader;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MmdHeaderBenchmark {
+	private byte[] header;
+
+	@Setup
+	public void setUp() {
+		header = SampleDocuments.bytes(SampleDocuments.HEADER);
+	}
+
+	@Benchmark
+	public MmdHeader parse() throws IOException {
+		return MmdHeader.parse(SampleDocuments.source(header), null);
+	}
+}
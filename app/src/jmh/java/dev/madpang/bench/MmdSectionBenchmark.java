@@ -0,0 +1,48 @@
+/**
+ * @file: MmdSectionBenchmark.java
+ * @brief: Throughput of the section parser, over flat, nested and pathologically alternating section trees.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdSection;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MmdSectionBenchmark {
+	@Param({"flat", "nested", "alternating"})
+	public String shape;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() {
+		switch (shape) {
+			case "flat":
+				body = SampleDocuments.bytes(SampleDocuments.flatBody(200, 5));
+				break;
+			case "nested":
+				body = SampleDocuments.bytes(SampleDocuments.nestedBody(50, 7));
+				break;
+			default:
+				body = SampleDocuments.bytes(SampleDocuments.alternatingBody(100_000));
+				break;
+		}
+	}
+
+	@Benchmark
+	public MmdSection parse() throws IOException {
+		return MmdSection.parse(SampleDocuments.source(body), null);
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * @file: ParallelParseBenchmark.java
+ * @brief: Speedup of the parallel parse of one large document, per number of cores.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.ast.ParallelParser;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+
+/**
+ * @note:
+ * The speedup for `cores` = n is `sequential / parallel`; with `cores` = 1, ParallelParser falls back to the sequential parser.
+ * Run it with `./gradlew jmh -PjmhIncludes=ParallelParse`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelParseBenchmark {
+	@Param({"16M", "128M"})
+	public String size;
+
+	@Param({"1", "2", "4", "8"})
+	public int cores;
+
+	private SourceBuffer document;
+	private ForkJoinPool pool;
+	private ParallelParser parser;
+
+	@Setup
+	public void setUp() throws IOException {
+		CorpusGenerator.Options options = new CorpusGenerator.Options();
+		StringBuilder sb = new StringBuilder();
+		new CorpusGenerator(options).writeDocument(sb, CorpusGenerator.parseSize(size), options.seed);
+		document = SourceBuffer.wrap(SampleDocuments.bytes(sb.toString()));
+		pool = new ForkJoinPool(cores);
+		parser = new ParallelParser(pool, ParallelParser.DEFAULT_MIN_SLICE_BYTES);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public MmdDocument sequential() throws IOException {
+		return MmdDocument.parse(new ByteLineSource(document));
+	}
+
+	@Benchmark
+	public MmdDocument parallel() throws IOException {
+		return parser.parse(document);
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * @file: ParallelRenderBenchmark.java
+ * @brief: Sequential vs parallel rendering of one document, to find where the parallel renderer starts to pay off.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.ast.ParallelRenderer;
+
+/**
+ * @note:
+ * The crossover is the smallest `size` for which `parallel` beats `sequential` at a given number of `cores`;
+ * below twice `thresholdLines` lines, the renderer falls back to the sequential path, so the low threshold shows the parallel path on the small sizes too.
+ * Run it with `./gradlew jmh -PjmhIncludes=ParallelRender`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelRenderBenchmark {
+	@Param({"64k", "256k", "1M", "4M", "32M"})
+	public String size;
+
+	@Param({"2", "4", "8"})
+	public int cores;
+
+	@Param({"256", "8192"})
+	public int thresholdLines;
+
+	private MmdDocument document;
+	private ForkJoinPool pool;
+	private ParallelRenderer renderer;
+
+	@Setup
+	public void setUp() throws IOException {
+		CorpusGenerator.Options options = new CorpusGenerator.Options();
+		StringBuilder sb = new StringBuilder();
+		new CorpusGenerator(options).writeDocument(sb, CorpusGenerator.parseSize(size), options.seed);
+		document = MmdDocument.parse(SampleDocuments.source(SampleDocuments.bytes(sb.toString())));
+		pool = new ForkJoinPool(cores);
+		renderer = new ParallelRenderer(pool, thresholdLines);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public void sequential() throws IOException {
+		document.toHTML(Writer.nullWriter());
+	}
+
+	@Benchmark
+	public void parallel() throws IOException {
+		renderer.render(document, Writer.nullWriter());
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * @file: RetainedHeap.java
+ * @brief: Manual measurement of the heap retained by the AST, per MB of input, in the list and the compact modes.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import dev.madpang.ast.MmdDocument;
+
+/**
+ * @note:
+ * Not a JMH benchmark, the retained heap is not a rate: it is the used heap after a full GC with the AST alive, minus the one before parsing.
+ * The figures depend on the GC and the heap settings, compare them between runs on the same JVM options.
+ * Run it with `./gradlew retainedHeap`, or `--args="<paragraphs>"` for another size (10000 by default, about 5 MB).
+ */
+public final class RetainedHeap {
+	private RetainedHeap() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int paragraphs = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+		Path file = Files.createTempFile("retained", ".txt");
+		try {
+			writeDocument(file, paragraphs);
+			double megabytes = Files.size(file) / 1e6;
+
+			// List mode: lines read through a BufferedReader are kept as Strings in ArrayLists
+			long base = usedHeap();
+			MmdDocument listAst;
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				listAst = MmdDocument.parse(reader);
+			}
+			long listRetained = usedHeap() - base;
+			Reference.reachabilityFence(listAst);
+			listAst = null;
+
+			// Compact mode: lines of the memory-mapped file are kept as offsets
+			base = usedHeap();
+			MmdDocument compactAst = MmdDocument.parse(file);
+			long compactRetained = usedHeap() - base;
+			Reference.reachabilityFence(compactAst);
+
+			System.out.printf("Retained heap per MB of input (%.1f MB): list AST %.2f MB, compact AST %.2f MB%n",
+				megabytes, listRetained / 1e6 / megabytes, compactRetained / 1e6 / megabytes);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static void writeDocument(Path file, int paragraphs) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("``` header\n@file: retained.txt\n@brief: Heap measurement\n@title: Retained\n@author: tester\n");
+			writer.write("@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1.0.0\n```\n\n# Retained Heap\n\n");
+			for (int i = 0; i < paragraphs; i++) {
+				if (i % 50 == 0) {
+					writer.write("## Section " + i + "\n\n");
+				}
+				writer.write("Paragraph " + i + " has a first line of ordinary prose, with <markup> & entities.\n");
+				writer.write("It goes on for a few more lines, as a real paragraph of documentation would,\n");
+				writer.write("explaining what the code below does and why it does it that way.\n");
+				writer.write("Nothing in here is special, it is only there to take some room.\n");
+				writer.write("``` java\nint value = " + i + "; // some code\nfor (int k = 0; k < value; k++) {\n\tvalue += k;\n}\nreturn value * 2;\n```\n\n");
+			}
+		}
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * @file: SampleDocuments.java
+ * @brief: Builds the MMD inputs shared by the benchmarks.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.nio.charset.StandardCharsets;
+
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+
+final class SampleDocuments {
+	static final String HEADER = "``` header\n" +
+		"@file: bench.txt\n" +
+		"@brief: A document for benchmarking\n" +
+		"@title: Benchmark\n" +
+		"@author: madpang\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n";
+
+	static final String PROSE_LINE = "A line of ordinary prose, with the occasional <tag> & entity to escape.\n";
+
+	private SampleDocuments() {
+	}
+
+	/**
+	 * @brief: A semantic paragraph with `lines` lines of prose and `codeBlocks` fenced code blocks of `codeLines` lines each.
+	 */
+	static String paragraph(int lines, int codeBlocks, int codeLines) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			sb.append(PROSE_LINE);
+		}
+		for (int c = 0; c < codeBlocks; c++) {
+			sb.append("``` java\n");
+			for (int i = 0; i < codeLines; i++) {
+				sb.append("if (count < limit && value > 0) { total += value; } // line ").append(i).append('\n');
+			}
+			sb.append("```\n");
+			sb.append(PROSE_LINE);
+		}
+		return sb.append('\n').toString();
+	}
+
+	/**
+	 * @brief: A body of `sections` level-2 sections, each holding `paragraphs` semantic paragraphs.
+	 */
+	static String flatBody(int sections, int paragraphs) {
+		StringBuilder sb = new StringBuilder("# Flat Benchmark\n\n");
+		String para = paragraph(4, 1, 4);
+		for (int s = 0; s < sections; s++) {
+			sb.append("## Section ").append(s).append("\n\n");
+			for (int p = 0; p < paragraphs; p++) {
+				sb.append(para);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @brief: A body where every level-2 section holds `chains` chains of sub-sections nested down to level 5, each with its paragraph.
+	 *
+	 * @details:
+	 * A chain is "### " (level 3), then "=== " one level below it (4), then "--- " two levels below it (5), see MmdSection;
+	 * the next chain's "### " closes the previous one, so the tree really is 5 levels deep, not a row of siblings.
+	 */
+	static String nestedBody(int sections, int chains) {
+		StringBuilder sb = new StringBuilder("# Nested Benchmark\n\n");
+		String para = paragraph(4, 1, 4);
+		String[] markers = { "### ", "=== ", "--- " };
+		for (int s = 0; s < sections; s++) {
+			sb.append("## Section ").append(s).append("\n\n").append(para);
+			for (int c = 0; c < chains; c++) {
+				for (int level = 0; level < markers.length; level++) {
+					sb.append(markers[level]).append("Sub-section ").append(s).append('.').append(c).append(" level ").append(level + 3).append("\n\n").append(para);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @brief: A pathological body of `count` headings without any content, alternating across all 5 levels, explicit and fuzzy.
+	 */
+	static String alternatingBody(int count) {
+		StringBuilder sb = new StringBuilder("# Alternating Benchmark\n");
+		String[] markers = { "##", "===", "###", "---", "===", "##", "---" };
+		for (int h = 0; h < count; h++) {
+			sb.append(markers[h % markers.length]).append(" Heading ").append(h).append('\n');
+		}
+		return sb.toString();
+	}
+
+	static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	static LineSource source(byte[] bytes) {
+		return new ByteLineSource(SourceBuffer.wrap(bytes));
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * @file: SearchQueryBenchmark.java
+ * @brief: Query latency of the search index of a generated corpus.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.search.IndexBuilder;
+import dev.madpang.search.SearchIndex;
+
+/**
+ * @note:
+ * The queries go from a rare term ("section", only in the headings) to the most common one ("the"), alone or with a second term;
+ * the cost of a query grows with the postings of its rarest term, decoded in full, then with those of the others.
+ * `load` is the cost of opening the index, paid once by a resident process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchQueryBenchmark {
+	@Param({"100", "1000"})
+	public int documents;
+
+	@Param({"section", "parser", "the", "parser builds", "the document"})
+	public String query;
+
+	private Path file;
+	private SearchIndex index;
+
+	@Setup
+	public void setUp() throws IOException {
+		CorpusGenerator.Options options = new CorpusGenerator.Options();
+		CorpusGenerator generator = new CorpusGenerator(options);
+		IndexBuilder builder = new IndexBuilder();
+		for (int i = 0; i < documents; i++) {
+			StringBuilder sb = new StringBuilder();
+			generator.writeDocument(sb, 16 * 1024, options.seed + i);
+			builder.addDocument("doc-" + i + ".html", MmdDocument.parse(SampleDocuments.source(SampleDocuments.bytes(sb.toString()))).bodyContent);
+		}
+		file = Files.createTempFile("search", ".idx");
+		builder.write(file);
+		index = SearchIndex.load(file);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.delete(file);
+	}
+
+	@Benchmark
+	public List<SearchIndex.Hit> search() {
+		return index.search(query, 10);
+	}
+
+	@Benchmark
+	public SearchIndex load() throws IOException {
+		return SearchIndex.load(file);
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * @file: SemanticParagraphBenchmark.java
+ * @brief: Throughput of the semantic paragraph parser, with many small or a few large code blocks.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.madpang.ast.SemanticParagraph;
+import dev.madpang.io.LineSource;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticParagraphBenchmark {
+	@Param({"many-code-blocks", "large-code-blocks"})
+	public String shape;
+
+	private byte[] paragraph;
+
+	@Setup
+	public void setUp() {
+		paragraph = SampleDocuments.bytes(shape.equals("many-code-blocks")
+			? SampleDocuments.paragraph(10, 500, 3)
+			: SampleDocuments.paragraph(10, 3, 2000));
+	}
+
+	@Benchmark
+	public SemanticParagraph parse() throws IOException {
+		LineSource source = SampleDocuments.source(paragraph);
+		return SemanticParagraph.parse(source, source.readLine());
+	}
+}
@@ -4,19 +4,94 @@
  * @details:
  * This class serves as the entry point for the MMD to HTML conversion application.
  * It is a wrapper which calls the MmdDocument to parse the MMD document and converts it to HTML.
- * It also provides an interactive mode if no arguments are provided.
+ * It also provides an interactive mode if no arguments are provided, and a batch mode (`--batch`) which converts whole directory trees in one JVM.
+ * With `--watch`, it stays resident after the batch and reconverts the documents as they are saved.
+ * With `--search`, it queries the search index written by a batch run with `--search-index` (see SearchIndex).
+ * With `--scan`, it only reads the headers of the documents, and prints them as CSV or JSON (see HeaderScanner).
+ * With `--serve`, it runs as an HTTP rendering service instead (see RenderServer).
+ * With `--daemon`, it stays resident and converts the files sent by `DaemonClient` over a Unix domain socket (see ConversionDaemon).
+ * In any mode, `--stats` (or `--stats=json`) records where the time goes in the conversions and prints it on stderr at the end (see ConversionMetrics).
+ * In any mode, `--fragment-cache-mb <n>` renders the semantic paragraphs repeated across documents only once (see FragmentCache).
+ * In the single-file mode, an input or output file named `*.mmdb` is the binary AST of the document, loaded instead of parsed, or written instead of the HTML (see BinaryAst).
  * @author: madpang
  * @date:
  * - created on 2025-06-09
- * - updated on 2025-07-01
+ * - updated on 2026-10-17
  */
 
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
+import dev.madpang.ast.BinaryAst;
+import dev.madpang.ast.FragmentCache;
 import dev.madpang.ast.MmdDocument;
+import dev.madpang.ast.ParallelRenderer;
+import dev.madpang.batch.BatchConverter;
+import dev.madpang.batch.ConversionManifest;
+import dev.madpang.batch.DocumentWatcher;
+import dev.madpang.batch.HeaderScanner;
+import dev.madpang.batch.MetadataIndex;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.metrics.ConversionMetrics;
+import dev.madpang.search.SearchIndex;
+import dev.madpang.service.ConversionDaemon;
+import dev.madpang.service.RenderServer;
 
 public class MmdConverter {
+	private static final long MAX_JOBS = 1024; // the largest worker count accepted by `--jobs`
+	private static String statsFormat; // the `--stats` option given, if any
+
 	public static void main(String[] args) throws Exception {
+		/// Stats and fragment cache options, in any mode
+		List<String> rest = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--stats") || args[i].equals("--stats=json")) {
+				statsFormat = args[i];
+				ConversionMetrics.GLOBAL.setEnabled(true);
+			} else if (args[i].equals("--fragment-cache-mb") && i + 1 < args.length) {
+				FragmentCache.setShared(new FragmentCache(parseNumber(args[i], args[++i], 0, Long.MAX_VALUE >> 20) << 20));
+			} else {
+				rest.add(args[i]);
+			}
+		}
+		args = rest.toArray(new String[0]);
+		/// Batch and watch modes
+		if (args.length > 0 && (args[0].equals("--batch") || args[0].equals("--watch"))) {
+			int code = runBatch(args, args[0].equals("--watch"));
+			printStats();
+			System.exit(code);
+		}
+		/// Search mode
+		if (args.length > 0 && args[0].equals("--search")) {
+			System.exit(runSearch(args));
+		}
+		/// Header scan mode
+		if (args.length > 0 && args[0].equals("--scan")) {
+			System.exit(runScan(args));
+		}
+		/// Service mode
+		if (args.length > 0 && args[0].equals("--serve")) {
+			runServer(args);
+			return;
+		}
+		/// Daemon mode
+		if (args.length > 0 && args[0].equals("--daemon")) {
+			runDaemon(args);
+			return;
+		}
+
 		/// Argument parsing
 		String inputFilePath = null;
 		String outputFilePath = null;
@@ -45,15 +120,255 @@ public class MmdConverter {
 			outputFilePath = args[1];
 		} else {
 			// Just print error message and exit
-			System.err.println("Usage: java MmdConverter <input-file> [<output-file>]");
+			printUsage();
 			System.exit(1);
 		}
 
-		/// Call the converter
-		if (outputFilePath != null && !outputFilePath.trim().isEmpty()) {
-			MmdDocument.parse(inputFilePath).toHTML(outputFilePath);
+		/// Call the converter, a large document is parsed and rendered on all the cores
+		ConversionMetrics metrics = ConversionMetrics.GLOBAL;
+		long allocated = metrics.allocatedBytes();
+		Path input = Path.of(inputFilePath);
+		// The lines of a large input are views over its mapping, which a truncation of the file would break until the last line is rendered
+		try {
+			// A binary AST (see BinaryAst) is loaded as it is, and written instead of the HTML when the output asks for it
+			MmdDocument document = inputFilePath.endsWith(BinaryAst.EXTENSION) ? BinaryAst.load(input) : MmdDocument.parseParallel(input);
+			ParallelRenderer renderer = new ParallelRenderer(ForkJoinPool.commonPool(), ParallelRenderer.DEFAULT_THRESHOLD_LINES);
+			long start = metrics.start();
+			if (outputFilePath != null && outputFilePath.endsWith(BinaryAst.EXTENSION)) {
+				BinaryAst.write(document, Path.of(outputFilePath));
+			} else if (outputFilePath != null && !outputFilePath.trim().isEmpty()) {
+				OutputStream out = metrics.meter(new FileOutputStream(outputFilePath));
+				try (Writer writer = new BufferedWriter(new OutputStreamWriter(out))) {
+					renderer.render(document, writer);
+				}
+				metrics.recordOutput(start, out);
+			} else {
+				OutputStream out = metrics.meter(System.out);
+				Writer stdout = new BufferedWriter(new OutputStreamWriter(out));
+				renderer.render(document, stdout);
+				stdout.flush();
+				metrics.recordOutput(start, out);
+			}
+		} catch (InternalError e) {
+			throw SourceBuffer.truncated(input, e);
+		}
+		metrics.recordDocument(Files.size(input), allocated);
+		printStats();
+	}
+
+	/**
+	 * @brief: Batch mode, `--batch [--jobs <n>] [--force] [--index] [--search-index] <output-dir> <input-dir>...`
+	 * @return: The exit code, non-zero if any document failed.
+	 *
+	 * @details: The run is incremental, a manifest kept in the output directory records what is up to date; `--force` reconverts everything.
+	 * With `--search-index`, the text of the documents is also indexed, into a search index next to the manifest; the watch mode does not update it, the next batch run does.
+	 * With `--index`, the metadata of the documents is kept in an index next to the manifest, and the listing, feed and author pages are generated from it (see SitePages).
+	 * In watch mode, `--watch [--jobs <n>] [--force] [--index] [--search-index] <output-dir> <input-dir>...`, the batch brings the outputs up to date first, then the process keeps running and reconverts only the touched documents.
+	 */
+	private static int runBatch(String[] args, boolean watch) throws Exception {
+		int jobs = 0; // one worker per core
+		boolean force = false;
+		boolean siteIndex = false;
+		boolean searchIndex = false;
+		List<String> positional = new ArrayList<>();
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--jobs") && i + 1 < args.length) {
+				jobs = (int) parseNumber(args[i], args[++i], 0, MAX_JOBS);
+			} else if (args[i].equals("--force")) {
+				force = true;
+			} else if (args[i].equals("--index")) {
+				siteIndex = true;
+			} else if (args[i].equals("--search-index")) {
+				searchIndex = true;
+			} else {
+				positional.add(args[i]);
+			}
+		}
+		if (positional.size() < 2) {
+			printUsage();
+			return 1;
+		}
+		List<Path> inputs = new ArrayList<>();
+		for (String input : positional.subList(1, positional.size())) {
+			inputs.add(Path.of(input));
+		}
+		Path outputRoot = Path.of(positional.get(0));
+		BatchConverter converter = new BatchConverter(outputRoot, jobs);
+		converter.setManifest(ConversionManifest.load(outputRoot.resolve(ConversionManifest.DEFAULT_FILE_NAME)));
+		converter.setForce(force);
+		if (siteIndex) {
+			converter.setIndex(MetadataIndex.load(outputRoot.resolve(MetadataIndex.DEFAULT_FILE_NAME)));
+		}
+		if (searchIndex) {
+			converter.setSearchIndex(outputRoot.resolve(SearchIndex.DEFAULT_FILE_NAME));
+		}
+		BatchConverter.Summary summary = converter.run(inputs, converter.plan(inputs));
+		System.out.println(summary.report());
+		if (watch) {
+			try (DocumentWatcher watcher = new DocumentWatcher(converter, DocumentWatcher.DEFAULT_DEBOUNCE_MILLIS)) {
+				watcher.watch(inputs);
+				System.out.println("[WATCH] Watching " + inputs + ", press Ctrl-C to stop.");
+				watcher.run();
+			}
+		}
+		return summary.failures.isEmpty() ? 0 : 1;
+	}
+
+	/**
+	 * @brief: Search mode, `--search <index-file> [--limit <n>] <term>...`; prints the matching sections, one per line: path, section number, score and heading.
+	 * @return: The exit code, non-zero if nothing matched.
+	 */
+	private static int runSearch(String[] args) throws Exception {
+		int limit = 20;
+		List<String> positional = new ArrayList<>();
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--limit") && i + 1 < args.length) {
+				limit = (int) parseNumber(args[i], args[++i], 1, Integer.MAX_VALUE);
+			} else {
+				positional.add(args[i]);
+			}
+		}
+		if (positional.size() < 2) {
+			printUsage();
+			return 1;
+		}
+		SearchIndex index = SearchIndex.load(Path.of(positional.get(0)));
+		List<SearchIndex.Hit> hits = index.search(String.join(" ", positional.subList(1, positional.size())), limit);
+		for (SearchIndex.Hit hit : hits) {
+			System.out.println(hit.path() + "\t" + hit.section() + "\t" + hit.score() + "\t" + hit.heading());
+		}
+		return hits.isEmpty() ? 1 : 0;
+	}
+
+	/**
+	 * @brief: Header scan mode, `--scan [--jobs <n>] [--format csv|json] <input-dir>...`; the rows are printed on stdout.
+	 * @return: The exit code, non-zero if any header could not be read.
+	 */
+	private static int runScan(String[] args) throws Exception {
+		int jobs = 0; // 4 workers per core
+		String format = "csv";
+		List<Path> inputs = new ArrayList<>();
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--jobs") && i + 1 < args.length) {
+				jobs = (int) parseNumber(args[i], args[++i], 0, MAX_JOBS);
+			} else if (args[i].equals("--format") && i + 1 < args.length && (args[i + 1].equals("csv") || args[i + 1].equals("json"))) {
+				format = args[++i];
+			} else {
+				inputs.add(Path.of(args[i]));
+			}
+		}
+		if (inputs.isEmpty()) {
+			printUsage();
+			return 1;
+		}
+		List<HeaderScanner.Row> rows = new HeaderScanner(jobs).scan(inputs);
+		Writer stdout = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		if (format.equals("json")) {
+			HeaderScanner.writeJson(rows, stdout);
 		} else {
-			MmdDocument.parse(inputFilePath).toHTML().forEach(System.out::println);
+			HeaderScanner.writeCsv(rows, stdout);
+		}
+		stdout.flush();
+		return rows.stream().allMatch(row -> row.error() == null) ? 0 : 1;
+	}
+
+	/**
+	 * @brief: Service mode, `--serve [--port <n>] [--cache-mb <n>]`; the process serves until it is stopped.
+	 */
+	private static void runServer(String[] args) throws Exception {
+		int port = RenderServer.DEFAULT_PORT;
+		long cacheBytes = RenderServer.DEFAULT_CACHE_BYTES;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--port") && i + 1 < args.length) {
+				port = (int) parseNumber(args[i], args[++i], 0, 65535);
+			} else if (args[i].equals("--cache-mb") && i + 1 < args.length) {
+				cacheBytes = parseNumber(args[i], args[++i], 0, Long.MAX_VALUE >> 20) << 20;
+			} else {
+				printUsage();
+				System.exit(1);
+			}
+		}
+		RenderServer server = new RenderServer(new InetSocketAddress(port), cacheBytes);
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+		server.start();
+		System.out.println("[SERVE] POST documents to http://localhost:" + server.getPort() + "/render, metrics at /metrics");
+	}
+
+	/**
+	 * @brief: Daemon mode, `--daemon [--socket <path>] [--idle-timeout <seconds>]`; it stops when idle for that long (0 to never stop).
+	 */
+	private static void runDaemon(String[] args) throws Exception {
+		Path socketPath = ConversionDaemon.defaultSocketPath();
+		long idleTimeoutMillis = ConversionDaemon.DEFAULT_IDLE_TIMEOUT_MILLIS;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--socket") && i + 1 < args.length) {
+				socketPath = Path.of(args[++i]);
+			} else if (args[i].equals("--idle-timeout") && i + 1 < args.length) {
+				idleTimeoutMillis = parseNumber(args[i], args[++i], 0, Long.MAX_VALUE / 1000) * 1000;
+			} else {
+				printUsage();
+				System.exit(1);
+			}
+		}
+		try (ConversionDaemon daemon = new ConversionDaemon(socketPath, idleTimeoutMillis)) {
+			System.out.println("[DAEMON] Listening on " + socketPath + ", convert with `java dev.madpang.service.DaemonClient <input-file> <output-file>`");
+			daemon.run();
 		}
+		printStats();
+	}
+
+	/**
+	 * @brief: Prints the conversion metrics on stderr, as a table or as JSON, if `--stats` was given; with the fragment cache counters, if it is installed.
+	 */
+	private static void printStats() {
+		if (statsFormat == null) {
+			return;
+		}
+		FragmentCache cache = FragmentCache.getShared();
+		if (statsFormat.equals("--stats=json")) {
+			String json = ConversionMetrics.GLOBAL.toJson();
+			if (cache != null) {
+				json = json.substring(0, json.length() - 1) + String.format(Locale.ROOT, ",\"fragmentCache\":{\"hits\":%d,\"misses\":%d,\"evictions\":%d,\"entries\":%d,\"bytes\":%d}}",
+					cache.hits(), cache.misses(), cache.evictions(), cache.size(), cache.weight());
+			}
+			System.err.println(json);
+		} else {
+			System.err.println(ConversionMetrics.GLOBAL.toTable());
+			if (cache != null) {
+				System.err.println(String.format(Locale.ROOT, "fragment cache: %d hits, %d misses (%.1f%%), %d evictions, %d entries, %d bytes",
+					cache.hits(), cache.misses(), 100 * cache.hitRatio(), cache.evictions(), cache.size(), cache.weight()));
+			}
+		}
+	}
+
+	/**
+	 * @brief: Parses the numeric value of an option, which must be within [min, max]; prints the usage and exits on anything else.
+	 */
+	private static long parseNumber(String option, String value, long min, long max) {
+		try {
+			long number = Long.parseLong(value);
+			if (number >= min && number <= max) {
+				return number;
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		System.err.println("[ERROR] " + option + " expects a whole number from " + min + " to " + max + ", got: " + value);
+		printUsage();
+		System.exit(1);
+		return min; // not reached
+	}
+
+	private static void printUsage() {
+		System.err.println("Usage: java MmdConverter <input-file> [<output-file>]");
+		System.err.println("       (an input or output file ending with .mmdb is the binary AST of the document)");
+		System.err.println("       java MmdConverter --batch [--jobs <n>] [--force] [--index] [--search-index] <output-dir> <input-dir>...");
+		System.err.println("       java MmdConverter --watch [--jobs <n>] [--force] [--index] [--search-index] <output-dir> <input-dir>...");
+		System.err.println("       java MmdConverter --search <index-file> [--limit <n>] <term>...");
+		System.err.println("       java MmdConverter --scan [--jobs <n>] [--format csv|json] <input-dir>...");
+		System.err.println("       java MmdConverter --serve [--port <n>] [--cache-mb <n>]");
+		System.err.println("       java MmdConverter --daemon [--socket <path>] [--idle-timeout <seconds>]");
+		System.err.println("Any of them with --stats or --stats=json prints the conversion metrics on stderr,");
+		System.err.println("and with --fragment-cache-mb <n> caches up to <n> MB of rendered paragraphs across documents.");
 	}
 }
@@ -0,0 +1,328 @@
+/**
+ * @file: BinaryAst.java
+ * @brief: A compact, versioned binary form of the MmdDocument tree, loaded without parsing the text again.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import dev.madpang.ast.blocks.CodeBlock;
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.ast.blocks.ParagraphBlock;
+import dev.madpang.io.CompactLines;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.io.SourceLine;
+
+/**
+ * A serialized document: its structure first, then the text of all its lines, back to back.
+ *
+ * @note:
+ * Integers are unsigned LEB128 varints and strings are UTF-8 prefixed by their byte length:
+ * ----------------------------------------------------------------
+ * | "MMDB" <format-version: 1 byte> <text-start: 8 bytes>        |
+ * | <converter-version>                                          |
+ * | <field-count> (<name> <value>)...                            | <- the header
+ * | <section>                                                    | <- the body, in preorder
+ * |   <level> <heading: opt-line> <terminal: opt-line>           |
+ * |   <paragraph-count>                                          |
+ * |     <block-count>                                            |
+ * |       <kind> [<tag>] <line-count> <line>...                  | <- kind 0: paragraph, 1: code with its tag
+ * |   <sub-section-count> <section>...                           |
+ * | <text>                                                       | <- from `text-start` (big-endian) to the end
+ * ----------------------------------------------------------------
+ * A line is `byte-length << 1 | non-ascii`, an opt-line is 0 for none and `line << 1 | 1` otherwise:
+ * lines only hold their length, their bytes follow each other in the text, in the order the lines appear in the structure.
+ *
+ * @details:
+ * Reading only decodes the structure, the lines are CompactLines spans over the text, decoded when the document is rendered (see SourceLine).
+ * Loaded with `load`, the file is memory-mapped, so the text is not even read in before it is needed, and the document costs two longs per line on the heap.
+ * The text already is UTF-8 with the ASCII flag of every line, so nothing is scanned nor validated again: about 5x faster than `MmdDocument.parse` on a 20 MB document, see BinaryAstBenchmark.
+ * A file is only loaded by the converter version that wrote it, a newer parser may build a different tree from the same text.
+ */
+public final class BinaryAst {
+	public static final String EXTENSION = ".mmdb";
+	static final byte[] MAGIC = { 'M', 'M', 'D', 'B' };
+	static final int FORMAT_VERSION = 1;
+	private static final int PREAMBLE_BYTES = MAGIC.length + 1 + Long.BYTES;
+	private static final int KIND_PARAGRAPH = 0;
+	private static final int KIND_CODE = 1;
+
+	private BinaryAst() {
+	}
+
+	/* writing -------------------------------------------------------------- */
+	/**
+	 * @brief: Writes the document, atomically replacing the file.
+	 */
+	public static void write(MmdDocument doc, Path file) throws IOException {
+		Path target = file.toAbsolutePath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+				write(doc, out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @brief: Writes the document to a stream, in the format described above.
+	 * @throws: IOException If the stream fails, or the tree holds a block of a type without a binary form.
+	 */
+	public static void write(MmdDocument doc, OutputStream out) throws IOException {
+		// [1] The structure and the text are collected apart, the offset of the text is needed first
+		ByteArrayOutputStream structure = new ByteArrayOutputStream(1 << 12);
+		ByteArrayOutputStream text = new ByteArrayOutputStream(1 << 16);
+		writeString(structure, MmdDocument.CONVERTER_VERSION);
+		writeVarint(structure, doc.frontMatter.metaInfo.size());
+		for (Map.Entry<String, String> field : doc.frontMatter.metaInfo.entrySet()) {
+			writeString(structure, field.getKey());
+			writeString(structure, field.getValue());
+		}
+		writeSection(doc.bodyContent, structure, text);
+		// [2] Preamble, structure, text
+		out.write(MAGIC);
+		out.write(FORMAT_VERSION);
+		long textStart = PREAMBLE_BYTES + structure.size();
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			out.write((int) (textStart >>> shift));
+		}
+		structure.writeTo(out);
+		text.writeTo(out);
+	}
+
+	private static void writeSection(MmdSection section, ByteArrayOutputStream structure, ByteArrayOutputStream text) throws IOException {
+		writeVarint(structure, section.sectionLevel);
+		writeOptionalLine(section.headLine, structure, text);
+		writeOptionalLine(section.terminalLine, structure, text);
+		writeVarint(structure, section.sParagraphs.size());
+		for (SemanticParagraph para : section.sParagraphs) {
+			List<IBlock> blocks = para.getBlocks();
+			writeVarint(structure, blocks.size());
+			for (IBlock block : blocks) {
+				if (block instanceof ParagraphBlock) {
+					writeVarint(structure, KIND_PARAGRAPH);
+				} else if (block instanceof CodeBlock code) {
+					writeVarint(structure, KIND_CODE);
+					writeString(structure, code.getCodeType());
+				} else {
+					throw new IOException("[ERROR] No binary form for the block type: " + block.getType());
+				}
+				List<? extends CharSequence> lines = block.getLines();
+				writeVarint(structure, lines.size());
+				for (CharSequence line : lines) {
+					writeVarint(structure, writeLine(line, text));
+				}
+			}
+		}
+		writeVarint(structure, section.subSections.size());
+		for (MmdSection sub : section.subSections) {
+			writeSection(sub, structure, text);
+		}
+	}
+
+	private static void writeOptionalLine(CharSequence line, ByteArrayOutputStream structure, ByteArrayOutputStream text) {
+		writeVarint(structure, (line == null) ? 0 : (writeLine(line, text) << 1) | 1);
+	}
+
+	/**
+	 * @brief: Appends the bytes of the line to the text.
+	 * @return: The code of the line in the structure, `byte-length << 1 | non-ascii`.
+	 */
+	private static int writeLine(CharSequence line, ByteArrayOutputStream text) {
+		byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+		text.write(bytes, 0, bytes.length);
+		return (bytes.length << 1) | ((bytes.length != line.length()) ? 1 : 0); // a non-ASCII char always takes more than one byte
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static void writeString(ByteArrayOutputStream out, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	/* reading -------------------------------------------------------------- */
+	/**
+	 * @brief: Memory-maps a file written by `write`, and reads the document from it.
+	 * @throws: IOException If the file cannot be read, or is not a document of this format and converter version.
+	 */
+	public static MmdDocument load(Path file) throws IOException {
+		return read(SourceBuffer.map(file));
+	}
+
+	/**
+	 * @brief: Reads a document from its binary form; the lines of the document are views over `source`, which must stay unmodified.
+	 * @throws: IOException If the bytes are not a document of this format and converter version, or are truncated (including a mapped file truncated while it is read).
+	 */
+	public static MmdDocument read(SourceBuffer source) throws IOException {
+		try {
+			return new Reader(source).document();
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("[ERROR] Truncated binary MMD AST.", e);
+		} catch (InternalError e) {
+			// The mapped file was truncated under us, see SourceBuffer
+			throw new IOException("[ERROR] Truncated binary MMD AST, the file changed while it was read.", e);
+		}
+	}
+
+	/**
+	 * Two cursors over the bytes: one in the structure, one in the text.
+	 */
+	private static final class Reader {
+		final SourceBuffer source;
+		long position;
+		long textPosition;
+		long textStart;
+
+		Reader(SourceBuffer source) {
+			this.source = source;
+		}
+
+		MmdDocument document() throws IOException {
+			// [1] Preamble
+			if (source.size() < PREAMBLE_BYTES) {
+				throw new IOException("[ERROR] Not a binary MMD AST.");
+			}
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (source.byteAt(i) != MAGIC[i]) {
+					throw new IOException("[ERROR] Not a binary MMD AST.");
+				}
+			}
+			int version = source.byteAt(MAGIC.length);
+			if (version != FORMAT_VERSION) {
+				throw new IOException("[ERROR] Unsupported binary MMD AST version: " + version);
+			}
+			for (int i = 0; i < Long.BYTES; i++) {
+				textStart = (textStart << 8) | (source.byteAt(MAGIC.length + 1 + i) & 0xFF);
+			}
+			if (textStart < PREAMBLE_BYTES || textStart > source.size()) {
+				throw new IOException("[ERROR] Corrupted binary MMD AST.");
+			}
+			position = PREAMBLE_BYTES;
+			textPosition = textStart;
+			String writtenBy = string();
+			if (!writtenBy.equals(MmdDocument.CONVERTER_VERSION)) {
+				throw new IOException("[ERROR] Binary MMD AST written by converter " + writtenBy + ", parse the source again.");
+			}
+			// [2] Header and body
+			MmdDocument doc = new MmdDocument();
+			for (int fields = varint(); fields > 0; fields--) {
+				String name = string();
+				doc.frontMatter.metaInfo.put(name, string());
+			}
+			doc.bodyContent = section();
+			// [3] Both cursors must have consumed their region exactly
+			if (position != textStart || textPosition != source.size()) {
+				throw new IOException("[ERROR] Corrupted binary MMD AST.");
+			}
+			return doc;
+		}
+
+		MmdSection section() throws IOException {
+			MmdSection section = new MmdSection();
+			section.sectionLevel = varint();
+			CharSequence headLine = optionalLine();
+			section.headLine = (headLine == null) ? null : headLine.toString();
+			section.terminalLine = optionalLine();
+			for (int paragraphs = varint(); paragraphs > 0; paragraphs--) {
+				SemanticParagraph para = new SemanticParagraph();
+				for (int blocks = varint(); blocks > 0; blocks--) {
+					int kind = varint();
+					String tag = (kind == KIND_CODE) ? string() : null;
+					CompactLines lines = new CompactLines(source);
+					for (int count = varint(); count > 0; count--) {
+						int code = varint();
+						long start = span(code >>> 1);
+						lines.addSpan(start, textPosition, (code & 1) == 0);
+					}
+					lines.trimToSize();
+					switch (kind) {
+						case KIND_PARAGRAPH:
+							para.addBlock(ParagraphBlock.of(lines));
+							break;
+						case KIND_CODE:
+							para.addBlock(CodeBlock.of(lines, tag));
+							break;
+						default:
+							throw new IOException("[ERROR] Unknown block kind in binary MMD AST: " + kind);
+					}
+				}
+				section.sParagraphs.add(para);
+			}
+			for (int subSections = varint(); subSections > 0; subSections--) {
+				section.subSections.add(section());
+			}
+			return section;
+		}
+
+		CharSequence optionalLine() throws IOException {
+			int code = varint();
+			if (code == 0) {
+				return null;
+			}
+			long start = span(code >>> 2);
+			return SourceLine.of(source, start, textPosition, (code & 2) == 0);
+		}
+
+		/**
+		 * @brief: Moves the text cursor over the next `length` bytes.
+		 * @return: Where they start.
+		 */
+		long span(int length) throws IOException {
+			long start = textPosition;
+			if (length > source.size() - start) {
+				throw new IOException("[ERROR] Truncated binary MMD AST.");
+			}
+			textPosition += length;
+			return start;
+		}
+
+		int varint() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				if (position >= textStart) {
+					throw new IOException("[ERROR] Truncated binary MMD AST.");
+				}
+				byte b = source.byteAt(position++);
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+			throw new IOException("[ERROR] Corrupted binary MMD AST.");
+		}
+
+		String string() throws IOException {
+			int length = varint();
+			if (length > textStart - position) {
+				throw new IOException("[ERROR] Truncated binary MMD AST.");
+			}
+			String value = source.decode(position, position + length);
+			position += length;
+			return value;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * @file: FragmentCache.java
+ * @brief: A cache of rendered semantic paragraphs, keyed by a hash of their source lines and shared by all the conversions of the process.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.IOException;
+import java.util.List;
+
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.util.LruCache;
+
+/**
+ * Rendered semantic paragraphs, so that the boilerplate repeated across the documents of a batch or a service (license notes, shared code samples, ...) is rendered once.
+ *
+ * @details:
+ * The key is a 128-bit hash of the type and source lines of every block of the paragraph, as the HTML of a block only depends on them.
+ * The lines are hashed twice with unrelated functions (FNV-1a and a multiply-rotate mix), which are fast but not collision-resistant:
+ * an entry keeps the source it was rendered from, and a hit is only served if the paragraph has the very same source, checked char by char.
+ * On a mismatch the paragraph is rendered directly, and the cached one stays.
+ * The cache is bounded by the total size of the source and HTML it holds, and evicts the least recently used paragraphs (see LruCache).
+ *
+ * @note:
+ * Paragraphs of less than `MIN_LINES` lines are rendered directly, hashing them costs about as much as rendering them.
+ * The cache is installed with `setShared` and used by every SemanticParagraph.toHTML; LruCache is synchronized, so the batch workers and the service threads can share it.
+ */
+public final class FragmentCache {
+	/**
+	 * The smallest paragraph worth caching, in source lines.
+	 */
+	public static final int MIN_LINES = 4;
+	// Rough size of an entry besides its HTML: the key, the map node and the string header.
+	private static final long ENTRY_OVERHEAD = 96;
+
+	private static volatile FragmentCache shared;
+
+	private final LruCache<Key, Entry> cache;
+
+	/**
+	 * @brief: Constructor of a cache holding at most `maxBytes` bytes of source and HTML (counting 2 bytes per char).
+	 */
+	public FragmentCache(long maxBytes) {
+		this.cache = new LruCache<>(maxBytes, entry -> 2L * (entry.source.length() + entry.html.length()) + ENTRY_OVERHEAD);
+	}
+
+	/**
+	 * @brief: Installs the cache used by all the conversions, none if null.
+	 */
+	public static void setShared(FragmentCache cache) {
+		shared = cache;
+	}
+
+	/**
+	 * @brief: The cache used by all the conversions, null if none is installed.
+	 */
+	public static FragmentCache getShared() {
+		return shared;
+	}
+
+	/**
+	 * @brief: Renders `para` to `sink`, from the cache if it was rendered before.
+	 * @return: false if the paragraph is not cached, and nothing was written.
+	 */
+	boolean render(SemanticParagraph para, Appendable sink) throws IOException {
+		return render(para, keyOf(para), sink);
+	}
+
+	/**
+	 * @brief: Renders `para` to `sink` from the entry of `key`, if that entry was rendered from the same source (accessible only within the same package, for test).
+	 */
+	boolean render(SemanticParagraph para, Key key, Appendable sink) throws IOException {
+		if (key == null) {
+			return false;
+		}
+		Entry entry = cache.get(key);
+		if (entry != null && !matches(entry.source, para)) {
+			return false; // a hash collision
+		}
+		if (entry == null) {
+			StringBuilder sb = new StringBuilder(64 * para.lineCount());
+			para.writeBlocks(sb);
+			entry = new Entry(sourceOf(para), sb.toString());
+			cache.put(key, entry);
+		}
+		sink.append(entry.html);
+		return true;
+	}
+
+	/**
+	 * @brief: The key of a paragraph, null if it is too small or one of its blocks can not tell its source lines.
+	 */
+	static Key keyOf(SemanticParagraph para) {
+		if (para.lineCount() < MIN_LINES) {
+			return null;
+		}
+		long h1 = 0xcbf29ce484222325L; // FNV-1a offset basis
+		long h2 = 0x9e3779b97f4a7c15L;
+		for (IBlock block : para.getBlocks()) {
+			List<? extends CharSequence> lines = block.getLines();
+			if (lines == null) {
+				return null;
+			}
+			// [1] The type and the number of lines delimit the blocks, so that ["a", "b"] + ["c"] and ["a"] + ["b", "c"] differ
+			String type = block.getType();
+			for (int i = 0; i < type.length(); i++) {
+				h1 = fnv(h1, type.charAt(i));
+				h2 = mix(h2, type.charAt(i));
+			}
+			h1 = fnv(h1, 0x10000 + lines.size());
+			h2 = mix(h2, 0x10000 + lines.size());
+			// [2] Every line ends with a value no char can take
+			for (CharSequence line : lines) {
+				for (int i = 0, n = line.length(); i < n; i++) {
+					char c = line.charAt(i);
+					h1 = fnv(h1, c);
+					h2 = mix(h2, c);
+				}
+				h1 = fnv(h1, 0x10000);
+				h2 = mix(h2, 0x10000);
+			}
+		}
+		return new Key(h1, h2);
+	}
+
+	private static long fnv(long h, int value) {
+		return (h ^ value) * 0x100000001b3L;
+	}
+
+	private static long mix(long h, int value) {
+		return Long.rotateLeft(h + value, 23) * 0xc2b2ae3d27d4eb4fL;
+	}
+
+	/**
+	 * @brief: The source of a paragraph as one string: for each block its type, then its lines, each prefixed with its length.
+	 */
+	private static String sourceOf(SemanticParagraph para) {
+		StringBuilder sb = new StringBuilder(64 * para.lineCount());
+		for (IBlock block : para.getBlocks()) {
+			sb.append(block.getType().length()).append(':').append(block.getType());
+			List<? extends CharSequence> lines = block.getLines();
+			sb.append(lines.size()).append(':');
+			for (CharSequence line : lines) {
+				sb.append(line.length()).append(':').append(line);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @brief: Tells whether `source` is the one of `para`, as written by `sourceOf`, without building the latter.
+	 */
+	private static boolean matches(String source, SemanticParagraph para) {
+		int pos = 0;
+		for (IBlock block : para.getBlocks()) {
+			pos = match(source, pos, block.getType());
+			List<? extends CharSequence> lines = block.getLines();
+			pos = matchCount(source, pos, lines.size());
+			for (CharSequence line : lines) {
+				pos = match(source, pos, line);
+			}
+			if (pos < 0) {
+				return false;
+			}
+		}
+		return pos == source.length();
+	}
+
+	// The position after `text` and its length prefix, or -1 if they are not at `pos`
+	private static int match(String source, int pos, CharSequence text) {
+		pos = matchCount(source, pos, text.length());
+		if (pos < 0 || source.length() - pos < text.length()) {
+			return -1;
+		}
+		for (int i = 0, n = text.length(); i < n; i++) {
+			if (source.charAt(pos + i) != text.charAt(i)) {
+				return -1;
+			}
+		}
+		return pos + text.length();
+	}
+
+	// The position after "<count>:", or -1 if it is not at `pos`
+	private static int matchCount(String source, int pos, int count) {
+		if (pos < 0) {
+			return -1;
+		}
+		long value = 0;
+		int end = pos;
+		while (end < source.length() && end - pos < 10 && Character.isDigit(source.charAt(end))) {
+			value = 10 * value + (source.charAt(end++) - '0');
+		}
+		if (end == pos || end == source.length() || source.charAt(end) != ':' || value != count) {
+			return -1;
+		}
+		return end + 1;
+	}
+
+	record Key(long h1, long h2) {
+	}
+
+	record Entry(String source, String html) {
+	}
+
+	/* statistics ----------------------------------------------------------- */
+	public long hits() {
+		return cache.hits();
+	}
+
+	public long misses() {
+		return cache.misses();
+	}
+
+	public long evictions() {
+		return cache.evictions();
+	}
+
+	public double hitRatio() {
+		return cache.hitRatio();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public long weight() {
+		return cache.weight();
+	}
+
+	public long maxWeight() {
+		return cache.maxWeight();
+	}
+}
@@ -4,62 +4,122 @@
  * @author: madpang
  * @details:
  * This class is the overarching structure for this mmd-to-html converter, it parses the mmd document into AST nodes, and reconstructs the HTML from the AST representation.
- * @date: [created: 2025-06-09, updated: 2025-08-03]
+ * @date: [created: 2025-06-09, updated: 2026-10-17]
  */
 
 package dev.madpang.ast;
 
 import java.io.FileWriter;
 import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
+import dev.madpang.metrics.ConversionMetrics;
+import dev.madpang.metrics.ConversionMetrics.Phase;
+import dev.madpang.util.CommonUtil;
+import dev.madpang.util.LineCollector;
 
 public class MmdDocument {
+	/**
+	 * @note: Version of the parser/renderer pair; bump it whenever the HTML produced for a given input changes, so that incremental builds reconvert everything.
+	 */
+	public static final String CONVERTER_VERSION = "0.3.0";
+
 	public MmdHeader frontMatter = new MmdHeader();
 	public MmdSection bodyContent = new MmdSection(); // root section (level-1) of the body
 
 	/**
-	 * @brief: Parses a MmdDocument from a BufferedReader, with an optional first line being supplied.
+	 * @brief: Parses a MmdDocument from a LineSource, with an optional first line being supplied.
 	 *
-	 * @param[in]: reader -- The BufferedReader to read the document from.
+	 * @param[in]: source -- The LineSource to read the document from.
 	 * @param[in]: firstLine -- The first line, or null to read from the reader.
 	 * @return: A MmdDocument object containing the parsed header and body.
 	 * @throws: IOException If an I/O error occurs while reading the document.
 	 * 
 	 * @details: The second argument `firstLine` is useful to allow the caller to set some sort of "hook".
 	 */
-	public static MmdDocument parse(BufferedReader reader, String firstLine) throws IOException {
+	public static MmdDocument parse(LineSource source, CharSequence firstLine) throws IOException {
 		MmdDocument doc = new MmdDocument();
+		LineLexer lexer = LineLexer.of(source); // every line is classified once, here, for all the parsers below
+		ConversionMetrics metrics = ConversionMetrics.GLOBAL;
 		try {
-			// [1] If firstLine is not provided, read the first line from the reader
-			String currentLine = (firstLine != null) ? firstLine : reader.readLine();
-			if (currentLine == null || !currentLine.equals("``` header")) {
-				throw new IOException("MMD DOC MUST PROVIDE A <HEADER>, STARTING WITH '``` header'");
-			}
-			// [2] Delegate parsing of the header to MmdHeader
-			doc.frontMatter = MmdHeader.parse(reader, currentLine);
-			// [3] After parsing the header, skip potential empty lines
-			while ((currentLine = reader.readLine()) != null && currentLine.trim().isEmpty()) {
-				// Skip empty lines
-				continue;
-			}
-			if (currentLine == null || !currentLine.startsWith("# ")) {
-				throw new IOException("MMD DOC MUST HAVE A <BODY>, STARTING WITH A LEVEL-1 HEADING (e.g. '# My Heading').");
-			}
+			// [1]-[3] Parse the header, up to the level-1 heading
+			long start = metrics.start();
+			LineToken currentLine = doc.parseFrontMatter(lexer, firstLine);
+			start = metrics.lap(Phase.HEADER_PARSE, start);
 			// [4] Delegate parsing of the body to MmdSection
-			doc.bodyContent = MmdSection.parse(reader, currentLine);
+			doc.bodyContent = MmdSection.parse(lexer, currentLine);
+			metrics.stop(Phase.BODY_PARSE, start);
+			metrics.recordParsed(doc.bodyContent, lexer.lineCount());
 		} catch (IOException e) {
 			throw e; // Re-throw the original exception
 		}
 		return doc;
 	}
 
+	/**
+	 * @brief: Parses the header into `frontMatter`, and reads on up to the level-1 heading that opens the body.
+	 * @return: The level-1 heading.
+	 */
+	LineToken parseFrontMatter(LineLexer lexer, CharSequence firstLine) throws IOException {
+		frontMatter = parseHeader(lexer, firstLine);
+		return readBodyHeading(lexer);
+	}
+
+	/**
+	 * @brief: Parses the header block, the first thing in a document (shared with MmdEventParser).
+	 */
+	static MmdHeader parseHeader(LineLexer lexer, CharSequence firstLine) throws IOException {
+		// [1] If firstLine is not provided, read the first line from the source
+		LineToken currentLine = (firstLine != null) ? LineToken.of(firstLine) : lexer.readLine();
+		if (currentLine == null || !"``` header".contentEquals(currentLine)) {
+			throw new IOException("MMD DOC MUST PROVIDE A <HEADER>, STARTING WITH '``` header'");
+		}
+		// [2] Delegate parsing of the header to MmdHeader
+		return MmdHeader.parse(lexer, currentLine);
+	}
+
+	/**
+	 * @brief: Skips the blank lines after the header, up to the level-1 heading that opens the body (shared with MmdEventParser).
+	 */
+	static LineToken readBodyHeading(LineLexer lexer) throws IOException {
+		// [3] After parsing the header, skip potential empty lines
+		LineToken currentLine;
+		while ((currentLine = lexer.readLine()) != null && currentLine.kind == LineKind.BLANK) {
+			// Skip empty lines
+			continue;
+		}
+		if (currentLine == null || !CommonUtil.startsWith(currentLine, "# ")) {
+			throw new IOException("MMD DOC MUST HAVE A <BODY>, STARTING WITH A LEVEL-1 HEADING (e.g. '# My Heading').");
+		}
+		return currentLine;
+	}
+
 	/**
 	 * @brief: An overloaded `parse` method, with a a single argument.
 	 */
+	public static MmdDocument parse(LineSource source) throws IOException {
+		return parse(source, null);
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method reading from a BufferedReader, with an optional first line being supplied.
+	 */
+	public static MmdDocument parse(BufferedReader reader, String firstLine) throws IOException {
+		return parse(LineSource.of(reader), firstLine);
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method reading from a BufferedReader.
+	 */
 	public static MmdDocument parse(BufferedReader reader) throws IOException {
 		return parse(reader, null);
 	}
@@ -67,29 +127,58 @@ public class MmdDocument {
 	/**
 	 * @brief: An overloaded `parse` method that takes a file path as input.
 	 * 
-	 * @param[in]: filePath -- The path to the MMD file to parse.
+	 * @param[in]: filePath -- The path to the UTF-8 encoded MMD file to parse.
 	 */
 	public static MmdDocument parse(String filePath) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-			return parse(reader);
+		return parse(Path.of(filePath));
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method that takes a file path as input.
+	 * 
+	 * @details: A large file is memory-mapped and its lines are read straight from the mapping, see `LineSource.open`.
+	 * @throws: IOException If an I/O error occurs, the document is invalid, or the file is truncated while it is read.
+	 */
+	public static MmdDocument parse(Path file) throws IOException {
+		try {
+			return parse(LineSource.open(file));
+		} catch (InternalError e) {
+			throw SourceBuffer.truncated(file, e);
 		}
 	}
 
 	/**
-	 * Converts the MMD document to HTML.
-	 * @return: A list of strings representing the HTML lines.
-	 * @throws: IOException If an I/O error occurs while converting to HTML.
+	 * @brief: An overloaded `parse` method that parses a large file on all the cores, see ParallelParser; the result is the same as `parse(file)`.
 	 */
-	public List<String> toHTML() throws IOException {
-		List<String> htmlLines = new ArrayList<>();
+	public static MmdDocument parseParallel(Path file) throws IOException {
 		try {
-			// @todo:handle the header info.
-			// Write the body content
-			htmlLines.addAll(bodyContent.toHTML());
-		} catch (IOException e) {
-			throw e; // Re-throw the original exception
+			return new ParallelParser(ForkJoinPool.commonPool(), ParallelParser.DEFAULT_MIN_SLICE_BYTES).parse(SourceBuffer.open(file));
+		} catch (InternalError e) {
+			throw SourceBuffer.truncated(file, e);
 		}
-		return htmlLines;
+	}
+
+	/**
+	 * Converts the MMD document to HTML, streaming the output into a caller-supplied sink.
+	 * @param[in]: sink -- The destination of the HTML output, e.g. a Writer; each line is terminated by a line separator.
+	 * @throws: IOException If an I/O error occurs while converting to HTML.
+	 * 
+	 * @details: The document is never materialized as a whole, the peak memory only depends on the block being rendered.
+	 */
+	public void toHTML(Appendable sink) throws IOException {
+		// @todo:handle the header info.
+		// Write the body content
+		bodyContent.toHTML(sink);
+	}
+
+	/**
+	 * @brief: An overloaded `toHTML` method that collects the HTML lines into a list.
+	 * @return: A list of strings representing the HTML lines.
+	 */
+	public List<String> toHTML() throws IOException {
+		LineCollector collector = new LineCollector();
+		toHTML(collector);
+		return collector.getLines();
 	}
 
 	/**
@@ -99,12 +188,7 @@ public class MmdDocument {
 	 */
 	public void toHTML(String filePath) throws IOException {
 		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-			// Write the body content
-			List<String> htmlLines = bodyContent.toHTML();
-			for (String line : htmlLines) {
-				writer.write(line);
-				writer.newLine();
-			}
+			toHTML(writer);
 		}
 	}
 }
@@ -0,0 +1,76 @@
+/**
+ * @file: MmdEventHandler.java
+ * @brief: Callbacks of the event-driven parse of a MMD document, see MmdEventParser.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.IOException;
+
+import dev.madpang.ast.blocks.IBlock;
+
+/**
+ * Receives the structure of a document as it is read, instead of the tree of MmdDocument.
+ *
+ * @details:
+ * The events of a document come in this order:
+ * ----------------------------------------------------------------
+ * | header(key, value)...                                        |
+ * | startSection(1, headline)                                    | <- the body
+ * |   startSemanticParagraph                                     |
+ * |     paragraphLine... | codeBlock(tag) codeLine... endCodeBlock | block(block)  <- any sequence of them
+ * |   endSemanticParagraph                                       |
+ * |   startSection(level, headline) ... endSection(level)        | <- the sub-sections, nested alike
+ * | endSection(1)                                                |
+ * | endDocument                                                  |
+ * ----------------------------------------------------------------
+ * As in the tree, a section lists its semantic paragraphs before its sub-sections, and consecutive paragraph lines form one ParagraphBlock.
+ *
+ * @note:
+ * Every callback does nothing by default, a consumer only overrides those it needs.
+ * The lines may be views over the source (see SourceLine), cheap to keep; a callback may throw to abort the parse.
+ */
+public interface MmdEventHandler {
+	// A field of the header, named as in MmdHeader.metaInfo, e.g. "title" or "date-created"; the header is validated already.
+	default void header(String key, String value) throws IOException {
+	}
+
+	// A section opens, at its (explicit or fuzzy) heading; `level` 1 is the body.
+	default void startSection(int level, CharSequence headline) throws IOException {
+	}
+
+	// The section opened last at this level closes.
+	default void endSection(int level) throws IOException {
+	}
+
+	default void startSemanticParagraph() throws IOException {
+	}
+
+	default void endSemanticParagraph() throws IOException {
+	}
+
+	// A line of prose, outside of any code block.
+	default void paragraphLine(CharSequence line) throws IOException {
+	}
+
+	// A fenced code block opens, with the tag of its fence, e.g. "java".
+	default void codeBlock(String tag) throws IOException {
+	}
+
+	// A line of the code block, between the fences.
+	default void codeLine(CharSequence line) throws IOException {
+	}
+
+	default void endCodeBlock() throws IOException {
+	}
+
+	// A block of any other registered type (see SemanticParagraph), handed over whole; the code blocks are streamed by the events above.
+	default void block(IBlock block) throws IOException {
+	}
+
+	// The whole document is read; nothing follows, even if a second level-1 heading was met (the tree parser ignores the rest too).
+	default void endDocument() throws IOException {
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * @file: MmdEventParser.java
+ * @brief: Parses a MMD document into a stream of events (SAX-style), without building its tree.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import dev.madpang.ast.blocks.BlockDispatcher;
+import dev.madpang.ast.blocks.CodeBlock;
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
+import dev.madpang.util.CommonUtil;
+
+/**
+ * For the consumers which do not need the tree: link extractors, word counters, validators...
+ *
+ * @details:
+ * The sections are read as by MmdSection, in the same single forward pass over the lexed lines, but no MmdSection, SemanticParagraph nor CodeBlock is created:
+ * a paragraph or code line is handed to the MmdEventHandler as soon as it is read.
+ * The other block types registered in SemanticParagraph go through its very parsers, so a new one is read here too, and sent whole (see `MmdEventHandler.block`).
+ * The only state is the levels of the open sections (at most 5, see MmdSection), so the memory does not depend on the size of the document,
+ * not even on the length of a code block.
+ * MmdTreeBuilder is the consumer that builds the tree back, the same as MmdDocument.parse.
+ *
+ * @note:
+ * The events are sent before the document is fully read: on an error (e.g. an unterminated code fence), the handler has seen everything before it.
+ */
+public final class MmdEventParser {
+	/**
+	 * @note: The order the header fields are sent in, the one of the header block.
+	 */
+	private static final List<String> HEADER_FIELDS = List.of("file", "brief", "title", "author", "date-created", "date-updated", "version");
+	// The registered parsers but the one of CodeBlock, whose blocks are streamed line by line instead (see `codeBlock`)
+	private static final BlockDispatcher WHOLE_BLOCKS = new BlockDispatcher(
+		SemanticParagraph.dispatcher().getParsers().stream().filter(parser -> parser != CodeBlock.PARSER).toList());
+
+	private final LineLexer lexer;
+	private final MmdEventHandler handler;
+	private int[] openLevels = new int[8]; // of the open sections, outermost first
+	private int depth;
+
+	private MmdEventParser(LineSource source, MmdEventHandler handler) {
+		this.lexer = LineLexer.of(source);
+		this.handler = handler;
+	}
+
+	/**
+	 * @brief: Parses a whole document, header and body, sending its events to the handler.
+	 * @throws: IOException If an I/O error occurs, the document is invalid, or the handler aborts.
+	 */
+	public static void parse(LineSource source, MmdEventHandler handler) throws IOException {
+		new MmdEventParser(source, handler).document();
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method reading from a BufferedReader.
+	 */
+	public static void parse(BufferedReader reader, MmdEventHandler handler) throws IOException {
+		parse(LineSource.of(reader), handler);
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method that takes a file path as input; a large file is memory-mapped, see `LineSource.open`.
+	 */
+	public static void parse(Path file, MmdEventHandler handler) throws IOException {
+		try {
+			parse(LineSource.open(file), handler);
+		} catch (InternalError e) {
+			throw SourceBuffer.truncated(file, e);
+		}
+	}
+
+	private void document() throws IOException {
+		// [1] Header, the same validation as MmdDocument.parse
+		MmdHeader header = MmdDocument.parseHeader(lexer, null);
+		for (String field : HEADER_FIELDS) {
+			String value = header.metaInfo.get(field);
+			if (value != null) {
+				handler.header(field, value);
+			}
+		}
+		LineToken heading = MmdDocument.readBodyHeading(lexer);
+		// [2] Body, see MmdSection.build: a heading closes every open section of the same or a deeper level
+		int explicitLevel = heading.level;
+		open(heading.level, heading);
+		LineToken currentLine = lexer.readLine();
+		while (currentLine != null) {
+			if (currentLine.kind == LineKind.BLANK) {
+				currentLine = lexer.readLine();
+				continue;
+			}
+			if (currentLine.kind != LineKind.HEADING && currentLine.kind != LineKind.FUZZY_HEADING) {
+				semanticParagraph(currentLine);
+				currentLine = lexer.readLine();
+				continue;
+			}
+			int nextLevel = (currentLine.kind == LineKind.HEADING) ? currentLine.level : explicitLevel + currentLine.level;
+			while (depth > 0 && openLevels[depth - 1] >= nextLevel) {
+				handler.endSection(openLevels[--depth]);
+			}
+			// The body itself is closed: the rest of the document is ignored, as by the tree parser
+			if (depth == 0) {
+				break;
+			}
+			if (currentLine.kind == LineKind.HEADING) {
+				explicitLevel = nextLevel;
+			}
+			open(nextLevel, currentLine);
+			currentLine = lexer.readLine();
+		}
+		while (depth > 0) {
+			handler.endSection(openLevels[--depth]);
+		}
+		handler.endDocument();
+	}
+
+	private void open(int level, LineToken heading) throws IOException {
+		if (depth == openLevels.length) {
+			openLevels = Arrays.copyOf(openLevels, 2 * depth);
+		}
+		openLevels[depth++] = level;
+		handler.startSection(level, CommonUtil.trim(heading.value()));
+	}
+
+	/**
+	 * @brief: Reads a semantic paragraph up to its closing blank line, see SemanticParagraph.parse.
+	 */
+	private void semanticParagraph(LineToken currentLine) throws IOException {
+		handler.startSemanticParagraph();
+		while (currentLine != null && currentLine.kind != LineKind.BLANK) {
+			if (currentLine.kind == LineKind.FENCE_OPEN) {
+				codeBlock(currentLine);
+			} else {
+				// A line triggering none of the other registered parsers goes to the fallback ParagraphBlock
+				Optional<IBlock> block = WHOLE_BLOCKS.tryParse(lexer, currentLine);
+				if (block.isPresent()) {
+					handler.block(block.get());
+				} else {
+					handler.paragraphLine(currentLine.text);
+				}
+			}
+			currentLine = lexer.readLine();
+		}
+		handler.endSemanticParagraph();
+	}
+
+	/**
+	 * @brief: Reads a code block up to its closing fence, see CodeBlock.parse; every line is sent as soon as it is read.
+	 */
+	private void codeBlock(LineToken fence) throws IOException {
+		handler.codeBlock(fence.value().toString().trim());
+		int lines = 0;
+		LineToken currentLine = lexer.readLine();
+		while (currentLine != null && currentLine.kind != LineKind.FENCE_CLOSE) {
+			handler.codeLine(currentLine.text);
+			lines++;
+			currentLine = lexer.readLine();
+		}
+		if (lines == 0) {
+			throw new IOException("[ERROR] Empty code block is not allowed!");
+		}
+		if (currentLine == null) {
+			throw new IOException("[ERROR] Unterminated code fence!");
+		}
+		handler.endCodeBlock();
+	}
+}
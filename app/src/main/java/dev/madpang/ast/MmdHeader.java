@@ -2,7 +2,7 @@
  * @file: MmdHeader.java
  * @brief: Represents the header of a MMD document, which includes meta info. for the document.
  * @author: madpang
- * @date: [created: 2025-06-09, updated: 2025-08-03]
+ * @date: [created: 2025-06-09, updated: 2026-10-17]
  */
 
 package dev.madpang.ast;
@@ -14,6 +14,11 @@ import java.util.HashMap;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
+import dev.madpang.io.LineSource;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
+
 public class MmdHeader {
 	/**
 	 * @note:
@@ -38,32 +43,32 @@ public class MmdHeader {
 	 *  1st column, start with no space before '@'
 	 */
 	public Map<String, String> metaInfo = new HashMap<>();
+	// @note: date field now uses format: [created: YYYY-MM-DD, updated: YYYY-MM-DD]
+	private static final Pattern DATE_PATTERN = Pattern.compile("^\\[created: (\\d{4}-\\d{2}-\\d{2}), updated: (\\d{4}-\\d{2}-\\d{2})\\]$");
 
 	/**
-	 * @brief: Parses a MmdHeader block from the reader. Assumes the first line is '``` header'.
+	 * @brief: Parses a MmdHeader block from the source. Assumes the first line is '``` header'.
 	 */
-	public static MmdHeader parse(BufferedReader reader, String firstLine) throws IOException {
+	public static MmdHeader parse(LineSource source, CharSequence firstLine) throws IOException {
 		MmdHeader header = new MmdHeader();
+		LineLexer lexer = LineLexer.of(source);
 		try {
-			// [1] If firstLine is not provided, read the first line from the reader
-			String currentLine = (firstLine != null) ? firstLine : reader.readLine();
-			if (currentLine == null || !currentLine.equals("``` header")) {
+			// [1] If firstLine is not provided, read the first line from the source
+			CharSequence currentLine = (firstLine != null) ? firstLine : lexer.readLine();
+			if (currentLine == null || !"``` header".contentEquals(currentLine)) {
 				throw new IOException("First line must be '``` header'");
 			}
 			// [2] Start parsing the header block
 			boolean inHeader = true;
-			Pattern metaPattern = Pattern.compile("^@([a-z]+):(.*)$");
-			Matcher metaMatcher;
-			String metaLine;
-			while ((metaLine = reader.readLine()) != null) {
-				if (metaLine.equals("```")) {
+			LineToken metaLine;
+			while ((metaLine = lexer.readLine()) != null) {
+				if (metaLine.kind == LineKind.FENCE_CLOSE) {
 					inHeader = false; // End of header block
 					break;
 				}
-				metaMatcher = metaPattern.matcher(metaLine);
-				if (metaMatcher.matches()) {
-					String tag = metaMatcher.group(1);
-					String value = metaMatcher.group(2);
+				if (metaLine.kind == LineKind.HEADER_META) {
+					String tag = metaLine.key();
+					String value = metaLine.value().toString();
 					switch (tag) {
 						case "file":
 							header.metaInfo.put("file", value.trim());
@@ -78,10 +83,8 @@ public class MmdHeader {
 							header.metaInfo.put("author", value.trim());
 							break;
 						case "date":
-							// @note: date field now uses format: [created: YYYY-MM-DD, updated: YYYY-MM-DD]
 							String dateValue = value.trim();
-							Pattern datePattern = Pattern.compile("^\\[created: (\\d{4}-\\d{2}-\\d{2}), updated: (\\d{4}-\\d{2}-\\d{2})\\]$");
-							Matcher dateMatcher = datePattern.matcher(dateValue);
+							Matcher dateMatcher = DATE_PATTERN.matcher(dateValue);
 							if (dateMatcher.matches()) {
 								String createdDate = dateMatcher.group(1);
 								String updatedDate = dateMatcher.group(2);
@@ -111,6 +114,13 @@ public class MmdHeader {
 		return header;
 	}
 
+	/**
+	 * @brief: An overloaded `parse` method reading from a BufferedReader, with an optional first line being supplied.
+	 */
+	public static MmdHeader parse(BufferedReader reader, String firstLine) throws IOException {
+		return parse(LineSource.of(reader), firstLine);
+	}
+
 	/**
 	 * @brief: An overloaded `parse` method, with a a single argument.
 	 */
@@ -4,7 +4,7 @@
  * @author: madpang
  * @date:
  * - created on 2025-06-09
- * - updated on 2025-06-29
+ * - updated on 2026-10-17
  */
 
 package dev.madpang.ast;
@@ -13,17 +13,23 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.ArrayDeque;
 
+import dev.madpang.io.LineSource;
+import dev.madpang.jfr.ParseSectionEvent;
+import dev.madpang.jfr.RenderEvent;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
 import dev.madpang.util.CommonUtil;
+import dev.madpang.util.LineCollector;
 
 public class MmdSection {
 	public int sectionLevel;
 	public String headLine;
 	public List<SemanticParagraph> sParagraphs = new ArrayList<>(); // can be empty
 	public List<MmdSection> subSections = new ArrayList<>();        // can be empty
-	public String terminalLine; // the line that terminates this section
+	public CharSequence terminalLine; // the heading that terminates this section, for the caller to continue from (null at EOF)
 
 	/**
 	 * @note:
@@ -51,76 +57,155 @@ public class MmdSection {
 	 *   |
 	 *   v
 	 *  1st column, start with no space before '#'
+	 *
+	 * Beyond the 3 explicit levels, a fuzzy heading opens a section relative to the preceding explicit heading (see tickets.txt, Ticket 1):
+	 * "=== Major" one level below it, "--- Minor" two levels below it; hence at most 5 heading levels.
 	 */
-	public static MmdSection parse(BufferedReader reader, String firstLine) throws IOException {
-		MmdSection section = new MmdSection();
-		try {
-			// [1] If firstLine is not provided, read the first line from the reader
-			String currentLine = (firstLine != null) ? firstLine : reader.readLine();
-			if (currentLine == null || currentLine.trim().isEmpty()) {
-				throw new IOException("MMD section must start with a heading line.");
+	public static MmdSection parse(LineSource source, CharSequence firstLine) throws IOException {
+		LineLexer lexer = LineLexer.of(source);
+		// [1] If firstLine is not provided, read the first line from the source
+		LineToken currentLine = (firstLine != null) ? LineToken.of(firstLine) : lexer.readLine();
+		if (currentLine == null || currentLine.kind == LineKind.BLANK) {
+			throw new IOException("MMD section must start with a heading line.");
+		}
+		// [2] Parse the heading line, which must be an explicit one: a fuzzy heading has no level on its own
+		if (currentLine.kind != LineKind.HEADING) {
+			throw new IOException("MMD section heading must start with '#', '##', or '###'.");
+		}
+		MmdSection section = of(currentLine.level, currentLine);
+		// [3] Parse paragraphs and subsections in one forward pass
+		return build(lexer, section, section.sectionLevel);
+	}
+
+	/**
+	 * @brief: Parses a sub-section of a level-1 section, e.g. a slice of a body split at its level-2 headings (see ParallelParser).
+	 *
+	 * @param[in]: heading -- The heading of the sub-section, which is read already.
+	 * @param[in]: explicitLevel -- The level of the explicit heading preceding `heading`, which a fuzzy heading is relative to.
+	 * @return: The sub-section, whose `terminalLine` is the heading that closes it, or null at EOF.
+	 */
+	static MmdSection parseSubSection(LineSource source, LineToken heading, int explicitLevel) throws IOException {
+		boolean explicit = (heading.kind == LineKind.HEADING);
+		MmdSection section = of(explicit ? heading.level : explicitLevel + heading.level, heading);
+		return build(LineLexer.of(source), section, explicit ? section.sectionLevel : explicitLevel);
+	}
+
+	/**
+	 * @brief: Fills the section from the lines following its heading, with the chain of open sections on an explicit stack.
+	 */
+	private static MmdSection build(LineLexer lexer, MmdSection section, int explicitLevel) throws IOException {
+		// `explicitLevel` is the level of the preceding explicit heading, which fuzzy headings are relative to
+		ParseSectionEvent event = new ParseSectionEvent();
+		event.begin();
+		long firstLine = lexer.lineCount(); // the heading is read already
+		int built = 0;
+		ArrayDeque<MmdSection> open = new ArrayDeque<>();
+		open.push(section);
+		LineToken currentLine = lexer.readLine(); // Read the next line
+		while (currentLine != null) {
+			// Skip empty lines
+			if (currentLine.kind == LineKind.BLANK) {
+				currentLine = lexer.readLine();
+				continue;
 			}
-			// [2] Parse the heading line
-			Pattern headingPattern = Pattern.compile("^(#{1,3}) (\\S.*)$");
-			Matcher headingMatcher = headingPattern.matcher(currentLine);
-			if (!headingMatcher.matches()) {
-				throw new IOException("MMD section heading must start with '#', '##', or '###'.");
+			// Delegate parsing to semantic paragraphs of the innermost open section UNTIL a new heading is found
+			if (currentLine.kind != LineKind.HEADING && currentLine.kind != LineKind.FUZZY_HEADING) {
+				open.peek().sParagraphs.add(SemanticParagraph.parse(lexer, currentLine));
+				currentLine = lexer.readLine(); // Read the next line
+				continue;
 			}
-			section.sectionLevel = headingMatcher.group(1).length();
-			section.headLine = headingMatcher.group(2).trim();
-			// [3] Parse paragraphs and subsections
-			currentLine = reader.readLine(); // Read the next line
-			while(currentLine != null) {
-				// Skip empty lines
-				if (currentLine.trim().isEmpty()) {
-					currentLine = reader.readLine();
-					continue;
-				}
-				// Delegate parsing to semantic paragraphs UNTIL a new heading is found
-				Matcher subheadingMatcher = headingPattern.matcher(currentLine);
-				if (!subheadingMatcher.matches()) {
-					section.sParagraphs.add(SemanticParagraph.parse(reader, currentLine));
-					currentLine = reader.readLine(); // Read the next line
-					continue;
-				}
-				// If subsection heading is found, parse it recursively
-				int nextLevel = subheadingMatcher.group(1).length();
-				if (nextLevel > section.sectionLevel) {
-					section.subSections.add(MmdSection.parse(reader, currentLine));
-					// If there already some children sub-sections exist, set current line to the last one's terminalLine; only try read new line when the children list is empty
-					currentLine = section.subSections.isEmpty() ? reader.readLine() : section.subSections.get(section.subSections.size() - 1).terminalLine;
-					continue;
-				}
-				// If same/higher-level heading is found, mark the terminal line and hand back the control to the parent section
-				section.terminalLine = currentLine;
+			// A heading closes every open section of the same or a deeper level...
+			int nextLevel = (currentLine.kind == LineKind.HEADING) ? currentLine.level : explicitLevel + currentLine.level;
+			while (!open.isEmpty() && open.peek().sectionLevel >= nextLevel) {
+				open.pop();
+			}
+			// ...and if that closes this section too, mark the terminal line and hand back the control to the caller
+			if (open.isEmpty()) {
+				section.terminalLine = currentLine.text;
 				break;
 			}
-		} catch (IOException e) {
-			throw e; // Re-throw the original exception
+			if (currentLine.kind == LineKind.HEADING) {
+				explicitLevel = nextLevel;
+			}
+			MmdSection subSection = of(nextLevel, currentLine);
+			open.peek().subSections.add(subSection);
+			open.push(subSection);
+			built++;
+			currentLine = lexer.readLine(); // Read the next line
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.level = section.sectionLevel;
+			event.heading = section.headLine.toString();
+			event.lines = lexer.lineCount() - firstLine + 1 - ((section.terminalLine != null) ? 1 : 0);
+			event.subSections = built;
+			event.commit();
 		}
 		return section;
 	}
 
 	/**
-	 * Converts this section to HTML.
+	 * @brief: Creates an empty section, titled by the heading line.
 	 */
-	public List<String> toHTML() throws IOException {
-		List<String> htmlLines = new ArrayList<>();
-		try {
-			// Write the section heading
-			htmlLines.add(String.format("<h%d>%s</h%d>", sectionLevel, CommonUtil.escapeHTML(headLine), sectionLevel));
-			// Write paragraphs
+	private static MmdSection of(int level, LineToken heading) {
+		MmdSection section = new MmdSection();
+		section.sectionLevel = level;
+		section.headLine = CommonUtil.trim(heading.value()).toString(); // one String per section, the lines of the blocks stay views
+		return section;
+	}
+
+	/**
+	 * @brief: An overloaded `parse` method reading from a BufferedReader.
+	 */
+	public static MmdSection parse(BufferedReader reader, String firstLine) throws IOException {
+		return parse(LineSource.of(reader), firstLine);
+	}
+
+	/**
+	 * Converts this section to HTML, writing the lines straight into the sink.
+	 * 
+	 * @details: Nothing is buffered on the way, so a deep section tree does not copy its output once per nesting level.
+	 */
+	public void toHTML(Appendable sink) throws IOException {
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		// Write the section heading
+		writeHeading(sink);
+		// Write paragraphs
+		for (SemanticParagraph para : sParagraphs) {
+			para.toHTML(sink);
+		}
+		// Write subsections recursively
+		for (MmdSection sub : subSections) {
+			sub.toHTML(sink);
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.node = "section";
+			event.level = sectionLevel;
 			for (SemanticParagraph para : sParagraphs) {
-				htmlLines.addAll(para.toHTML());
+				event.lines += para.lineCount();
 			}
-			// Write subsections recursively
-			for (MmdSection sub : subSections) {
-				htmlLines.addAll(sub.toHTML());
-			}
-		} catch (IOException e) {
-			throw e; // Re-throw the original exception
+			event.commit();
 		}
-		return htmlLines;
+	}
+
+	/**
+	 * @brief: Writes the HTML line of the heading alone.
+	 */
+	void writeHeading(Appendable sink) throws IOException {
+		sink.append("<h").append(Integer.toString(sectionLevel)).append('>');
+		CommonUtil.escapeHTML(headLine, sink);
+		sink.append("</h").append(Integer.toString(sectionLevel)).append('>').append(CommonUtil.LINE_SEPARATOR);
+	}
+
+	/**
+	 * @brief: An overloaded `toHTML` method that collects the HTML lines into a list.
+	 */
+	public List<String> toHTML() throws IOException {
+		LineCollector collector = new LineCollector();
+		toHTML(collector);
+		return collector.getLines();
 	}
 
 	/**
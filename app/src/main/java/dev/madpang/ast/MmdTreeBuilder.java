@@ -0,0 +1,120 @@
+/**
+ * @file: MmdTreeBuilder.java
+ * @brief: Builds the MmdDocument tree from the events of MmdEventParser.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.madpang.ast.blocks.CodeBlock;
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.ast.blocks.ParagraphBlock;
+import dev.madpang.io.CompactLines;
+
+/**
+ * The tree as one consumer of the events: the document it builds renders the same HTML as the one of MmdDocument.parse,
+ * with the lines stored the same way (see CompactLines).
+ *
+ * @note:
+ * The `terminalLine` of the sections is not recorded, the events do not carry the heading that closes a section.
+ * MmdDocument.parse does not go through the events, the direct parse skips one call per line, and feeds ParallelParser and the JFR events.
+ */
+public class MmdTreeBuilder implements MmdEventHandler {
+	private final MmdDocument doc = new MmdDocument();
+	private final ArrayDeque<MmdSection> open = new ArrayDeque<>();
+	private SemanticParagraph para;     // the semantic paragraph being read, if any
+	private ParagraphBlock paragraph;   // its last block, if it is a paragraph still open to more lines
+	private List<CharSequence> codeLines; // of the code block being read, if any
+	private String codeTag;
+
+	/**
+	 * @brief: The document built so far, complete after `endDocument`.
+	 */
+	public MmdDocument getDocument() {
+		return doc;
+	}
+
+	@Override
+	public void header(String key, String value) {
+		doc.frontMatter.metaInfo.put(key, value);
+	}
+
+	@Override
+	public void startSection(int level, CharSequence headline) {
+		MmdSection section = new MmdSection();
+		section.sectionLevel = level;
+		section.headLine = headline.toString();
+		if (open.isEmpty()) {
+			doc.bodyContent = section;
+		} else {
+			open.peek().subSections.add(section);
+		}
+		open.push(section);
+	}
+
+	@Override
+	public void endSection(int level) {
+		open.pop();
+	}
+
+	@Override
+	public void startSemanticParagraph() {
+		para = new SemanticParagraph();
+		open.peek().sParagraphs.add(para);
+	}
+
+	@Override
+	public void endSemanticParagraph() {
+		closeParagraph();
+		para = null;
+	}
+
+	@Override
+	public void paragraphLine(CharSequence line) throws IOException {
+		if (paragraph == null) {
+			paragraph = new ParagraphBlock();
+			para.addBlock(paragraph);
+		}
+		paragraph.addLine(line);
+	}
+
+	@Override
+	public void codeBlock(String tag) {
+		closeParagraph(); // a line after the code block starts a new paragraph
+		codeLines = new ArrayList<>();
+		codeTag = tag;
+	}
+
+	@Override
+	public void codeLine(CharSequence line) {
+		codeLines = CompactLines.append(codeLines, line);
+	}
+
+	@Override
+	public void endCodeBlock() {
+		if (codeLines instanceof CompactLines compact) {
+			compact.trimToSize();
+		}
+		para.addBlock(CodeBlock.of(codeLines, codeTag));
+		codeLines = null;
+	}
+
+	@Override
+	public void block(IBlock block) {
+		closeParagraph();
+		para.addBlock(block);
+	}
+
+	private void closeParagraph() {
+		if (paragraph != null) {
+			paragraph.trimToSize();
+			paragraph = null;
+		}
+	}
+}
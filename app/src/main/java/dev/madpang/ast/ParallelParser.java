@@ -0,0 +1,235 @@
+/**
+ * @file: ParallelParser.java
+ * @brief: Parses a single large MMD document on several cores, split at the level-2 sections of its body.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
+import dev.madpang.metrics.ConversionMetrics;
+import dev.madpang.metrics.ConversionMetrics.Phase;
+
+/**
+ * A parser giving exactly the same MmdDocument as `MmdDocument.parse`, with the body parsed concurrently.
+ *
+ * @details:
+ * The level-2 sections of the body do not depend on each other: whatever is open when a level-2 heading is met, it closes all but the root.
+ * So the document is parsed in 3 steps:
+ * [1] the header and the level-1 heading, sequentially;
+ * [2] a pre-scan of the body for its level-2 headings (explicit "## ", or "=== " right below the level-1 heading), which skips the lines it does not need to look at;
+ * [3] the content of the root before the first of them, and runs of consecutive level-2 sections of at least `minSliceBytes`, parsed as fork-join tasks over ranges of the buffer;
+ * their sections are then stitched under the root in document order.
+ *
+ * @note:
+ * The pre-scan tracks the very same states as the parsers, so that a "## " line is only a boundary where MmdSection would see a heading:
+ * not inside a semantic paragraph (which runs up to a blank line), nor inside a fenced code block (which runs up to "```").
+ * An error is reported as the sequential parser does, i.e. the first one in document order.
+ */
+public final class ParallelParser {
+	/**
+	 * @note: Below about this size per task, the fork-join overhead and the pre-scan outweigh what the cores save.
+	 */
+	public static final long DEFAULT_MIN_SLICE_BYTES = 1 << 20;
+
+	private final ForkJoinPool pool;
+	private final long minSliceBytes;
+
+	public ParallelParser(ForkJoinPool pool, long minSliceBytes) {
+		this.pool = pool;
+		this.minSliceBytes = Math.max(1, minSliceBytes);
+	}
+
+	/**
+	 * @brief: Parses the document held by the buffer.
+	 */
+	public MmdDocument parse(SourceBuffer source) throws IOException {
+		if (source.size() < 2 * minSliceBytes || pool.getParallelism() < 2) {
+			return MmdDocument.parse(new ByteLineSource(source));
+		}
+		// [1] The header, up to the level-1 heading
+		ConversionMetrics metrics = ConversionMetrics.GLOBAL;
+		long started = metrics.start();
+		MmdDocument doc = new MmdDocument();
+		ByteLineSource lines = new ByteLineSource(source);
+		LineLexer headerLexer = LineLexer.of(lines);
+		LineToken heading = doc.parseFrontMatter(headerLexer, null);
+		long bodyStart = lines.position();
+		started = metrics.lap(Phase.HEADER_PARSE, started);
+		// [2] The level-2 headings of the body
+		Outline outline = scan(source, bodyStart);
+		// [3] The root up to the first of them, then the runs of level-2 sections, as concurrent tasks
+		long[] slices = group(outline, (outline.end - bodyStart) / (4L * pool.getParallelism()));
+		List<SliceTask> tasks = new ArrayList<>();
+		long prefixEnd = (slices.length > 0) ? slices[0] : outline.end;
+		tasks.add(new SliceTask(new ByteLineSource(source, bodyStart, prefixEnd), lexer -> List.of(MmdSection.parse(lexer, heading))));
+		for (int i = 0; i < slices.length; i++) {
+			long start = slices[i];
+			long end = (i + 1 < slices.length) ? slices[i + 1] : outline.end;
+			tasks.add(new SliceTask(new ByteLineSource(source, start, end), ParallelParser::parseSlice));
+		}
+		for (SliceTask task : tasks) {
+			pool.execute(task);
+		}
+		// Stitch in document order, which also reports the first error in document order
+		MmdSection root = null;
+		long lineCount = headerLexer.lineCount();
+		for (SliceTask task : tasks) {
+			List<MmdSection> sections = task.join();
+			if (task.failure != null) {
+				tasks.forEach(t -> t.cancel(false));
+				throw task.failure;
+			}
+			lineCount += task.lexer.lineCount();
+			if (root == null) {
+				root = sections.get(0);
+			} else {
+				root.subSections.addAll(sections);
+			}
+		}
+		if (outline.end < source.size()) {
+			root.terminalLine = new ByteLineSource(source, outline.end, source.size()).readLine();
+		}
+		doc.bodyContent = root;
+		metrics.stop(Phase.BODY_PARSE, started);
+		metrics.recordParsed(root, lineCount);
+		return doc;
+	}
+
+	/**
+	 * @brief: Parses a range holding consecutive level-2 sections of the root.
+	 */
+	private static List<MmdSection> parseSlice(LineLexer lexer) throws IOException {
+		List<MmdSection> sections = new ArrayList<>();
+		LineToken heading = lexer.readLine();
+		while (heading != null) {
+			// each level-2 heading closes the previous section, right below the level-1 heading
+			MmdSection section = MmdSection.parseSubSection(lexer, heading, 1);
+			heading = LineToken.of(section.terminalLine);
+			section.terminalLine = null; // as when it is parsed as a sub-section of the root
+			sections.add(section);
+		}
+		return sections;
+	}
+
+	@FunctionalInterface
+	private interface SliceParser {
+		List<MmdSection> parse(LineLexer lexer) throws IOException;
+	}
+
+	/**
+	 * A fork-join task parsing one slice, which keeps its error for the caller to report in document order.
+	 */
+	@SuppressWarnings("serial")
+	private static final class SliceTask extends RecursiveTask<List<MmdSection>> {
+		private final LineLexer lexer;
+		private final SliceParser parser;
+		private IOException failure;
+
+		SliceTask(ByteLineSource range, SliceParser parser) {
+			this.lexer = LineLexer.of(range);
+			this.parser = parser;
+		}
+
+		@Override
+		protected List<MmdSection> compute() {
+			try {
+				return parser.parse(lexer);
+			} catch (IOException e) {
+				failure = e;
+				return List.of();
+			}
+		}
+	}
+
+	/**
+	 * The level-2 headings of a body, found by `scan`.
+	 *
+	 * @param sections -- The byte offsets of the level-2 headings, in document order.
+	 * @param end -- The byte offset where the body ends: the end of the source, or a second level-1 heading.
+	 */
+	record Outline(long[] sections, long end) {
+	}
+
+	private static final int SECTION = 0;   // between semantic paragraphs, where a heading may start
+	private static final int PARAGRAPH = 1; // in a semantic paragraph, up to a blank line
+	private static final int CODE = 2;      // in a fenced code block, up to "```"
+
+	/**
+	 * @brief: Finds the level-2 headings of the body starting at `bodyStart`, right after its level-1 heading.
+	 *
+	 * @details: Only a line starting with a blank, '#', '=', '-' or '`' can change the state; any other line is skipped without being decoded.
+	 */
+	static Outline scan(SourceBuffer source, long bodyStart) {
+		ByteLineSource lines = new ByteLineSource(source, bodyStart, source.size());
+		long[] sections = new long[16];
+		int count = 0;
+		int state = SECTION;
+		int explicitLevel = 1;
+		int first;
+		while ((first = lines.peekByte()) >= 0) {
+			long lineStart = lines.position();
+			boolean plain = first > ' ' && first != '#' && first != '=' && first != '-' && first != '`';
+			if (plain || (state == CODE && first != '`')) {
+				lines.skipLine();
+				state = (state == SECTION) ? PARAGRAPH : state;
+				continue;
+			}
+			LineToken line = LineToken.of(lines.readLine());
+			switch (state) {
+				case CODE:
+					state = (line.kind == LineKind.FENCE_CLOSE) ? PARAGRAPH : CODE;
+					break;
+				case PARAGRAPH:
+					state = (line.kind == LineKind.BLANK) ? SECTION : (line.kind == LineKind.FENCE_OPEN) ? CODE : PARAGRAPH;
+					break;
+				default:
+					if (line.kind == LineKind.HEADING || line.kind == LineKind.FUZZY_HEADING) {
+						int level = (line.kind == LineKind.HEADING) ? line.level : explicitLevel + line.level;
+						if (level == 1) {
+							return new Outline(Arrays.copyOf(sections, count), lineStart); // it closes the body
+						}
+						if (level == 2) {
+							if (count == sections.length) {
+								sections = Arrays.copyOf(sections, 2 * count);
+							}
+							sections[count++] = lineStart;
+						}
+						explicitLevel = (line.kind == LineKind.HEADING) ? level : explicitLevel;
+					} else if (line.kind != LineKind.BLANK) {
+						state = (line.kind == LineKind.FENCE_OPEN) ? CODE : PARAGRAPH;
+					}
+					break;
+			}
+		}
+		return new Outline(Arrays.copyOf(sections, count), source.size());
+	}
+
+	/**
+	 * @brief: Groups consecutive level-2 sections into slices of at least `minSliceBytes` (and about `targetBytes`).
+	 * @return: The start offsets of the slices.
+	 */
+	private long[] group(Outline outline, long targetBytes) {
+		long size = Math.max(minSliceBytes, targetBytes);
+		long[] slices = new long[outline.sections.length];
+		int count = 0;
+		for (long start : outline.sections) {
+			if (count == 0 || start - slices[count - 1] >= size) {
+				slices[count++] = start;
+			}
+		}
+		return Arrays.copyOf(slices, count);
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * @file: ParallelRenderer.java
+ * @brief: Renders a large section tree to HTML on several cores, with the output assembled in document order.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.util.CommonUtil;
+
+/**
+ * A renderer writing exactly the same HTML as `toHTML`, with the rendering itself done concurrently.
+ *
+ * @details:
+ * The cost of rendering a node is measured by the number of source lines it holds (see `IBlock.lineCount`).
+ * [1] The tree is walked in document order and cut into parts: a section below the threshold is one part, as a whole;
+ * a larger one is cut into its heading, its semantic paragraphs and its sub-sections (cut in turn);
+ * and a semantic paragraph above the threshold is cut into its blocks.
+ * [2] Consecutive parts are grouped into runs of about `thresholdLines` lines, each rendered by a fork-join task into a buffer of its own.
+ * [3] The buffers are written to the sink in document order, as they complete.
+ *
+ * @note:
+ * Only a bounded window of runs is in flight, so the memory held by the buffers does not grow with the document.
+ * An error is reported as the sequential path does: the first one in document order, after the output before it.
+ */
+public final class ParallelRenderer {
+	/**
+	 * @note: Below about this many lines per task, the fork-join overhead and the copy of the buffers outweigh what the cores save.
+	 */
+	public static final int DEFAULT_THRESHOLD_LINES = 8192;
+
+	private final ForkJoinPool pool;
+	private final int thresholdLines;
+
+	public ParallelRenderer(ForkJoinPool pool, int thresholdLines) {
+		this.pool = pool;
+		this.thresholdLines = Math.max(1, thresholdLines);
+	}
+
+	/**
+	 * @brief: Renders the document, as `MmdDocument.toHTML(sink)` does.
+	 */
+	public void render(MmdDocument doc, Appendable sink) throws IOException {
+		render(doc.bodyContent, sink);
+	}
+
+	/**
+	 * @brief: Renders the section and its sub-sections, as `MmdSection.toHTML(sink)` does.
+	 */
+	public void render(MmdSection section, Appendable sink) throws IOException {
+		Map<MmdSection, Integer> weights = new IdentityHashMap<>();
+		if (weigh(section, weights) < 2L * thresholdLines || pool.getParallelism() < 2) {
+			section.toHTML(sink); // not worth a second task
+			return;
+		}
+		// [1] Cut the tree into parts, [2] group them into runs
+		List<List<Part>> runs = new ArrayList<>();
+		cut(section, weights, new Runs(runs));
+		// [3] Render the runs concurrently, and write them in order
+		ArrayDeque<RunTask> inFlight = new ArrayDeque<>();
+		int window = 4 * pool.getParallelism();
+		int next = 0;
+		while (next < runs.size() || !inFlight.isEmpty()) {
+			while (next < runs.size() && inFlight.size() < window) {
+				RunTask task = new RunTask(runs.get(next++));
+				pool.execute(task);
+				inFlight.add(task);
+			}
+			RunTask head = inFlight.poll();
+			sink.append(head.join());
+			if (head.failure != null) {
+				inFlight.forEach(t -> t.cancel(false));
+				throw head.failure;
+			}
+		}
+	}
+
+	/**
+	 * @brief: The weight of a section, i.e. its number of lines, recorded for it and all its sub-sections.
+	 */
+	private static int weigh(MmdSection section, Map<MmdSection, Integer> weights) {
+		int weight = 1; // the heading
+		for (SemanticParagraph para : section.sParagraphs) {
+			weight += para.lineCount();
+		}
+		for (MmdSection sub : section.subSections) {
+			weight += weigh(sub, weights);
+		}
+		weights.put(section, weight);
+		return weight;
+	}
+
+	private void cut(MmdSection section, Map<MmdSection, Integer> weights, Runs runs) {
+		int weight = weights.get(section);
+		if (weight < thresholdLines) {
+			runs.add(section::toHTML, weight);
+			return;
+		}
+		runs.add(section::writeHeading, 1);
+		for (SemanticParagraph para : section.sParagraphs) {
+			int lines = para.lineCount();
+			if (lines < thresholdLines) {
+				runs.add(para::toHTML, lines);
+				continue;
+			}
+			// as `SemanticParagraph.toHTML`, which has at least one block here
+			runs.add(sink -> CommonUtil.writeLine(sink, "<s-paragraph>"), 1);
+			for (IBlock block : para.getBlocks()) {
+				runs.add(block::toHTML, block.lineCount());
+			}
+			runs.add(sink -> CommonUtil.writeLine(sink, "</s-paragraph>"), 1);
+		}
+		for (MmdSection sub : section.subSections) {
+			cut(sub, weights, runs);
+		}
+	}
+
+	/**
+	 * A piece of the output, rendered into the buffer of its run.
+	 */
+	@FunctionalInterface
+	private interface Part {
+		void render(Appendable sink) throws IOException;
+	}
+
+	/**
+	 * Groups the parts, in order, into runs of about `thresholdLines` lines.
+	 */
+	private final class Runs {
+		private final List<List<Part>> runs;
+		private List<Part> current;
+		private long lines;
+
+		Runs(List<List<Part>> runs) {
+			this.runs = runs;
+		}
+
+		void add(Part part, int weight) {
+			if (current == null || lines >= thresholdLines) {
+				current = new ArrayList<>();
+				runs.add(current);
+				lines = 0;
+			}
+			current.add(part);
+			lines += weight;
+		}
+	}
+
+	/**
+	 * A fork-join task rendering one run, which keeps its error for the caller to report in document order.
+	 */
+	@SuppressWarnings("serial")
+	private static final class RunTask extends RecursiveTask<StringBuilder> {
+		private final List<Part> parts;
+		private IOException failure;
+
+		RunTask(List<Part> parts) {
+			this.parts = parts;
+		}
+
+		@Override
+		protected StringBuilder compute() {
+			StringBuilder html = new StringBuilder();
+			try {
+				for (Part part : parts) {
+					part.render(html);
+				}
+			} catch (IOException e) {
+				failure = e;
+			}
+			return html;
+		}
+	}
+}
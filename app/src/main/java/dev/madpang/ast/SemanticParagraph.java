@@ -4,7 +4,7 @@
  * @author: madpang
  * @date:
  * - created on 2025-06-09
- * - updated on 2025-07-11
+ * - updated on 2026-10-17
  */
 
 package dev.madpang.ast;
@@ -13,9 +13,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Optional;
 
 import dev.madpang.ast.blocks.*;
+import dev.madpang.io.LineSource;
+import dev.madpang.jfr.ParseParagraphEvent;
+import dev.madpang.jfr.RenderEvent;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
+import dev.madpang.util.CommonUtil;
+import dev.madpang.util.LineCollector;
 
 public class SemanticParagraph {
 	private List<IBlock> blocks = new ArrayList<>();
@@ -24,6 +33,8 @@ public class SemanticParagraph {
 		CodeBlock.PARSER
 		// @note: DO NOT register ParagraphBlock here, it does not have a static parse method.
 	);
+	// Lines are routed to the registered parsers by their trigger prefix, instead of trying them all on every line
+	private static final BlockDispatcher DISPATCHER = new BlockDispatcher(REGISTERED);
 
 	/**
 	 * @brief:
@@ -34,29 +45,29 @@ public class SemanticParagraph {
 	 * This class is created to address the lack of such a structure in Markdown, or in HTML.
 	 * In modern writing, images, lists, tables etc. are all linked together to form a semantic context---while Markdown only considers the textual structure.
 	 */
-	public static SemanticParagraph parse(BufferedReader reader, String firstLine) throws IOException {
+	public static SemanticParagraph parse(LineSource source, CharSequence firstLine) throws IOException {
 		// [1] firstLine can not be null, can not be empty
-		if (firstLine == null || firstLine.trim().isEmpty()) {
+		LineToken currentLine = LineToken.of(firstLine);
+		if (currentLine == null || currentLine.kind == LineKind.BLANK) {
 			throw new IOException("[ERROR] MMD semantic paragraph must start with a non-empty line.");
 		}
 
 		SemanticParagraph sp = new SemanticParagraph();
+		LineLexer lexer = LineLexer.of(source);
+		ParseParagraphEvent event = new ParseParagraphEvent();
+		event.begin();
+		long linesBefore = lexer.lineCount(); // the first line is read already
 
-		String currentLine = firstLine;
-		while (currentLine != null && !currentLine.trim().isEmpty()) {
-			boolean parsed = false;
-			// [2] read a line from the reader, try its registered parsers
-			for (BlockParser parser : REGISTERED) {
-				/**
-				 * @note: Parser should guarantee that it will not drain the reader, if the first does not match.
-				 */
-				Optional<IBlock> block = parser.tryParse(reader, currentLine);
-				if (block.isPresent()) {
-					// if one of the registered parser succeeds, collect the block
-					sp.blocks.add(block.get());
-					parsed = true;
-					break;
-				}
+		while (currentLine != null && currentLine.kind != LineKind.BLANK) {
+			// [2] read a line from the source, try the registered parsers it may trigger
+			/**
+			 * @note: Parser should guarantee that it will not drain the source, if the first does not match.
+			 */
+			Optional<IBlock> block = DISPATCHER.tryParse(lexer, currentLine);
+			boolean parsed = block.isPresent();
+			if (parsed) {
+				// if one of the registered parser succeeds, collect the block
+				sp.blocks.add(block.get());
 			}
 
 			// [3] if none of registered parser applies, create a ParagraphBlock (if necessary), add that line to the paragraph block
@@ -71,25 +82,110 @@ public class SemanticParagraph {
 			}
 
 			// [4] Continue for a new line
-			currentLine = reader.readLine();
+			currentLine = lexer.readLine();
+		}
+		// [5] The paragraph blocks are complete, release their spare capacity
+		for (IBlock block : sp.blocks) {
+			if (block instanceof ParagraphBlock paragraph) {
+				paragraph.trimToSize();
+			}
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.lines = lexer.lineCount() - linesBefore + 1 - ((currentLine != null) ? 1 : 0); // without the closing blank line
+			event.blocks = sp.blocks.size();
+			event.commit();
 		}
 		return sp;
 	}
 
 	/**
-	 * Converts this semantic paragraph to HTML.
+	 * @brief: An overloaded `parse` method reading from a BufferedReader.
 	 */
-	public List<String> toHTML() throws IOException {
+	public static SemanticParagraph parse(BufferedReader reader, String firstLine) throws IOException {
+		return parse(LineSource.of(reader), firstLine);
+	}
+
+	/**
+	 * @brief: The dispatcher over the registered block parsers, shared with MmdEventParser so that both read the same blocks.
+	 */
+	static BlockDispatcher dispatcher() {
+		return DISPATCHER;
+	}
+
+	/**
+	 * @brief: Appends a block, for the readers building the tree without parsing (see BinaryAst).
+	 */
+	void addBlock(IBlock block) {
+		blocks.add(block);
+	}
+
+	/**
+	 * @brief: The blocks, in document order, read-only.
+	 */
+	public List<IBlock> getBlocks() {
+		return Collections.unmodifiableList(blocks);
+	}
+
+	/**
+	 * @brief: The number of source lines held by the blocks, the measure of the rendering cost.
+	 */
+	public int lineCount() {
+		int lines = 0;
+		for (IBlock block : blocks) {
+			lines += block.lineCount();
+		}
+		return lines;
+	}
+
+	/**
+	 * Converts this semantic paragraph to HTML, writing the lines straight into the sink.
+	 */
+	public void toHTML(Appendable sink) throws IOException {
 		if (blocks.isEmpty()) {
 			throw new IOException("[ERROR] SemanticParagraph contains no blocks to convert to HTML.");
 		}
-	
-		List<String> htmlLines = new ArrayList<>();
-		htmlLines.add("<s-paragraph>");
+
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		// A paragraph seen before, in any document, may be rendered already (see FragmentCache)
+		FragmentCache cache = FragmentCache.getShared();
+		if (cache == null || !cache.render(this, sink)) {
+			writeBlocks(sink);
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.node = "semantic-paragraph";
+			event.lines = lineCount();
+			event.commit();
+		}
+	}
+
+	/**
+	 * @brief: Renders the blocks, without looking up the fragment cache.
+	 */
+	void writeBlocks(Appendable sink) throws IOException {
+		CommonUtil.writeLine(sink, "<s-paragraph>");
 		for (IBlock block : blocks) {
-			htmlLines.addAll(block.toHTML());
+			RenderEvent blockEvent = new RenderEvent();
+			blockEvent.begin();
+			block.toHTML(sink);
+			blockEvent.end();
+			if (blockEvent.shouldCommit()) {
+				blockEvent.node = block.getType();
+				blockEvent.lines = block.lineCount();
+				blockEvent.commit();
+			}
 		}
-		htmlLines.add("</s-paragraph>");
-		return htmlLines;
+		CommonUtil.writeLine(sink, "</s-paragraph>");
+	}
+
+	/**
+	 * @brief: An overloaded `toHTML` method that collects the HTML lines into a list.
+	 */
+	public List<String> toHTML() throws IOException {
+		LineCollector collector = new LineCollector();
+		toHTML(collector);
+		return collector.getLines();
 	}
 }
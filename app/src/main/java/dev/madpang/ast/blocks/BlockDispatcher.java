@@ -0,0 +1,93 @@
+/**
+ * @file: BlockDispatcher.java
+ * @brief: Routes a line to the block parsers whose trigger prefix it matches.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ * @see BlockParser.java
+ */
+
+package dev.madpang.ast.blocks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import dev.madpang.io.LineSource;
+import dev.madpang.jfr.ParseBlockEvent;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.util.CommonUtil;
+
+/**
+ * A dispatch table over registered block parsers, indexed by the first character of their trigger prefix.
+ *
+ * @details:
+ * Trying every registered parser on every line costs one (regex) match per parser and per line, growing with each new block type.
+ * Here, a line only reaches the parsers whose prefix it starts with, plus those declaring no prefix at all;
+ * an ordinary paragraph line usually has no candidate, and goes to the fallback ParagraphBlock without any matching.
+ * The candidates are tried in their registration order, so the dispatch gives the same result as the linear scan.
+ */
+public final class BlockDispatcher {
+	private static final int TABLE_SIZE = 128; // first characters in the ASCII range get their own slot
+
+	private final BlockParser[][] byFirstChar = new BlockParser[TABLE_SIZE][];
+	private final BlockParser[] others; // candidates for a line which is empty or starts beyond ASCII
+	private final String[] prefixes;    // prefix of each parser, in the order of `parsers`
+	private final List<BlockParser> parsers;
+
+	public BlockDispatcher(List<BlockParser> parsers) {
+		this.parsers = List.copyOf(parsers);
+		this.prefixes = new String[parsers.size()];
+		List<BlockParser> anyLine = new ArrayList<>();
+		for (int i = 0; i < parsers.size(); i++) {
+			prefixes[i] = parsers.get(i).triggerPrefix();
+			if (prefixes[i].isEmpty() || prefixes[i].charAt(0) >= TABLE_SIZE) {
+				anyLine.add(parsers.get(i));
+			}
+		}
+		this.others = anyLine.toArray(new BlockParser[0]);
+		for (char c = 0; c < TABLE_SIZE; c++) {
+			List<BlockParser> candidates = new ArrayList<>();
+			for (int i = 0; i < parsers.size(); i++) {
+				if (prefixes[i].isEmpty() || prefixes[i].charAt(0) == c) {
+					candidates.add(parsers.get(i));
+				}
+			}
+			byFirstChar[c] = candidates.toArray(new BlockParser[0]);
+		}
+	}
+
+	/**
+	 * @brief: Tries the candidate parsers of the line, in registration order, until one of them parses a block.
+	 * @return: The parsed block, or Optional.empty() if no parser applies.
+	 */
+	public Optional<IBlock> tryParse(LineSource source, CharSequence line) throws IOException {
+		char first = (line.length() > 0) ? line.charAt(0) : 0;
+		BlockParser[] candidates = (first < TABLE_SIZE && line.length() > 0) ? byFirstChar[first] : others;
+		for (BlockParser parser : candidates) {
+			String prefix = parser.triggerPrefix();
+			if (!prefix.isEmpty() && !CommonUtil.startsWith(line, prefix)) {
+				continue;
+			}
+			ParseBlockEvent event = new ParseBlockEvent();
+			event.begin();
+			long firstLine = (source instanceof LineLexer lexer) ? lexer.lineCount() : 0;
+			Optional<IBlock> block = parser.tryParse(source, line);
+			event.end();
+			if (event.shouldCommit()) {
+				event.parser = prefix;
+				event.blockType = block.map(IBlock::getType).orElse(null);
+				event.lines = (source instanceof LineLexer lexer) ? lexer.lineCount() - firstLine : 0;
+				event.commit();
+			}
+			if (block.isPresent()) {
+				return block;
+			}
+		}
+		return Optional.empty();
+	}
+
+	public List<BlockParser> getParsers() {
+		return parsers;
+	}
+}
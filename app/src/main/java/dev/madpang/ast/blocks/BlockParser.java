@@ -4,7 +4,7 @@
  * @author: madpang
  * @date:
  * - created on 2025-07-11
- * - updated on 2025-07-11
+ * - updated on 2026-10-17
  * @see IBlock.java
  */
 
@@ -14,6 +14,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.Optional;
 
+import dev.madpang.io.LineSource;
+
 /**
  * Functional interface for parsing a block from a reader.
  */
@@ -22,5 +24,37 @@ public interface BlockParser {
 	/**
 	 * Try to parse a block starting with firstLine. Return Optional.empty() if not applicable.
 	 */
-	Optional<IBlock> tryParse(BufferedReader reader, String firstLine) throws IOException;
+	Optional<IBlock> tryParse(LineSource source, CharSequence firstLine) throws IOException;
+
+	/**
+	 * Same as above, reading the rest of the block from a BufferedReader.
+	 */
+	default Optional<IBlock> tryParse(BufferedReader reader, String firstLine) throws IOException {
+		return tryParse(LineSource.of(reader), firstLine);
+	}
+
+	/**
+	 * The prefix that the first line of every block of this type starts with, or "" if any line may start one.
+	 * It lets the caller route a line only to the parsers it may concern, see BlockDispatcher.
+	 */
+	default String triggerPrefix() {
+		return "";
+	}
+
+	/**
+	 * Declares the trigger prefix of a parser, e.g. `BlockParser.withPrefix("``` ", CodeBlock::parse)`.
+	 */
+	static BlockParser withPrefix(String prefix, BlockParser parser) {
+		return new BlockParser() {
+			@Override
+			public Optional<IBlock> tryParse(LineSource source, CharSequence firstLine) throws IOException {
+				return parser.tryParse(source, firstLine);
+			}
+
+			@Override
+			public String triggerPrefix() {
+				return prefix;
+			}
+		};
+	}
 }
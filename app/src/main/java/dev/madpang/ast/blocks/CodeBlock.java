@@ -2,7 +2,7 @@
  * @file: CodeBlock.java
  * @brief: Represents a code block in the document.
  * @author: madpang
- * @date: [created: 2025-06-09, updated: 2025-08-03]
+ * @date: [created: 2025-06-09, updated: 2026-10-17]
  */
 
 package dev.madpang.ast.blocks;
@@ -11,10 +11,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.Collections;
 import java.util.Optional;
 
+import dev.madpang.io.CompactLines;
+import dev.madpang.io.LineSource;
+import dev.madpang.lexer.LineKind;
+import dev.madpang.lexer.LineLexer;
+import dev.madpang.lexer.LineToken;
 import dev.madpang.util.CommonUtil;
 
 /**
@@ -31,13 +35,14 @@ public final class CodeBlock implements IBlock {
 	 * and it ends with with EXACTLY "```".
 	 */
 	public static final String FENCE_LINE = "```";
+	private static final String FENCE_PREFIX = "``` ";
 	// Code type
 	private final String codeType; // e.g. "java", "python", etc.
-	// Real content of the code block.
-	private List<String> codeLines;
+	// Real content of the code block, stored as offsets into the source when it allows (see CompactLines)
+	private List<? extends CharSequence> codeLines;
 
 	/* constructor (accessible only within the same package, for test) ------ */
-	CodeBlock(List<String> contentLines, String fenceTag) {
+	CodeBlock(List<? extends CharSequence> contentLines, String fenceTag) {
 		this.codeType = fenceTag;
 		this.codeLines = contentLines;
 	}
@@ -49,39 +54,54 @@ public final class CodeBlock implements IBlock {
 	}
 
 	@Override
-	public List<String> toHTML() throws IOException {
+	public void toHTML(Appendable sink) throws IOException {
 		if (codeLines.isEmpty()) {
 			throw new IOException("[WARNING] CodeBlock contains no lines to convert to HTML.");
 		}
-		List<String> htmlLines = new ArrayList<>();
-		htmlLines.add("<pre>");
-		for (String line : codeLines) {
-			htmlLines.add(CommonUtil.escapeHTML(line));
+		CommonUtil.writeLine(sink, "<pre>");
+		for (CharSequence line : codeLines) {
+			CommonUtil.writeEscapedLine(sink, line);
 		}
-		htmlLines.add("</pre>");
-		return htmlLines;
+		CommonUtil.writeLine(sink, "</pre>");
+	}
+
+	@Override
+	public int lineCount() {
+		return codeLines.size() + 2; // with the fences
+	}
+
+	@Override
+	public List<? extends CharSequence> getLines() {
+		return Collections.unmodifiableList(codeLines); // the tag is not rendered
 	}
 
 	/* instance behavior --------------------------------------------------- */
-	String getCodeType() {
+	public String getCodeType() {
 		return codeType;
 	}
 
 	/* static factory / parser --------------------------------------------- */
-	public static Optional<IBlock> parse(BufferedReader reader, String firstLine) throws IOException {
-		Pattern codeBlockStart = Pattern.compile("^`{3} (\\S.*)$");
-		Matcher matcher = codeBlockStart.matcher(firstLine);
-		if (!matcher.matches()) {
+	/**
+	 * @brief: Creates a code block from lines read back from a serialized AST (see BinaryAst), without validating them again.
+	 */
+	public static CodeBlock of(List<? extends CharSequence> contentLines, String fenceTag) {
+		return new CodeBlock(contentLines, fenceTag.intern());
+	}
+
+	public static Optional<IBlock> parse(LineSource source, CharSequence firstLine) throws IOException {
+		LineToken fence = LineToken.of(firstLine);
+		if (fence.kind != LineKind.FENCE_OPEN) {
 			return Optional.empty();
 		}
 		// Retrieve the code type
-		String tag = matcher.group(1).trim();
+		String tag = fence.value().toString().trim().intern(); // a handful of distinct tags are shared by all the blocks
 		// Collect the actual code block content
-		List<String> content = new ArrayList<>();
-		String currentLine = reader.readLine();
-		while ((currentLine != null && !currentLine.equals(FENCE_LINE))) {
-			content.add(currentLine);
-			currentLine = reader.readLine();
+		LineLexer lexer = LineLexer.of(source);
+		List<CharSequence> content = new ArrayList<>();
+		LineToken currentLine = lexer.readLine();
+		while ((currentLine != null && currentLine.kind != LineKind.FENCE_CLOSE)) {
+			content = CompactLines.append(content, currentLine.text);
+			currentLine = lexer.readLine();
 		}
 		if (content.isEmpty()) {
 			throw new IOException("[ERROR] Empty code block is not allowed!");
@@ -89,9 +109,16 @@ public final class CodeBlock implements IBlock {
 		if (currentLine == null) {
 			throw new IOException("[ERROR] Unterminated code fence!");
 		}
+		if (content instanceof CompactLines compact) {
+			compact.trimToSize();
+		}
 		return Optional.of(new CodeBlock(content, tag));
 	}
 
+	public static Optional<IBlock> parse(BufferedReader reader, String firstLine) throws IOException {
+		return parse(LineSource.of(reader), firstLine);
+	}
+
 	/* static parser object to register globally --------------------------- */
-	public static final BlockParser PARSER = CodeBlock::parse;
+	public static final BlockParser PARSER = BlockParser.withPrefix(FENCE_PREFIX, CodeBlock::parse);
 }
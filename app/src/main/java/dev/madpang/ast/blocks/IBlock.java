@@ -4,7 +4,7 @@
  * @author: madpang
  * @date:
  * - created on 2025-06-09
- * - updated on 2025-07-11
+ * - updated on 2026-10-17
  */
 
 package dev.madpang.ast.blocks;
@@ -12,12 +12,28 @@ package dev.madpang.ast.blocks;
 import java.io.IOException;
 import java.util.List;
 
+import dev.madpang.util.LineCollector;
+
 /**
  * Contract for a Markdown AST block that can render itself to HTML.
  */
 public interface IBlock {
 	// Get the type of this block, e.g., "paragraph", "code", etc.
 	String getType();
+	// Render this block into the sink, each HTML line terminated by a line separator.
+	void toHTML(Appendable sink) throws IOException;
+	// Number of source lines held by this block, the measure of its rendering cost.
+	default int lineCount() {
+		return 1;
+	}
+	// The source lines the HTML is rendered from, which together with the type determine it; null if the block can not tell.
+	default List<? extends CharSequence> getLines() {
+		return null;
+	}
 	// Render this block as a sequence of HTML lines.
-	List<String> toHTML() throws IOException;	
+	default List<String> toHTML() throws IOException {
+		LineCollector collector = new LineCollector();
+		toHTML(collector);
+		return collector.getLines();
+	}
 }
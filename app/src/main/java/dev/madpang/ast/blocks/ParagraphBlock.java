@@ -4,7 +4,7 @@
  * @author: madpang
  * @date:
  * - created on 2025-06-09
- * - updated on 2025-07-11
+ * - updated on 2026-10-17
  * @note:
  * ParagraphBlock is a *special* block in terms of parsing---it is the fallback block type that captures any non-empty content.
  * It does NOT provide a static `parse` method to read from a text stream and return an instance, instead, it should be controlled carefully by its caller---the SemanticParagraph class.
@@ -14,8 +14,11 @@ package dev.madpang.ast.blocks;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import dev.madpang.io.CompactLines;
+import dev.madpang.lexer.LineToken;
 import dev.madpang.util.CommonUtil;
 
 /**
@@ -26,11 +29,20 @@ public final class ParagraphBlock implements IBlock {
 	 * Self-identifying
 	 */
 	public static final String BLOCK_TYPE = "paragraph";
-	// Sentence lines of the paragraph
-	private List<String> sentenceLines = new ArrayList<>();
+	// Sentence lines of the paragraph, stored as offsets into the source when it allows (see CompactLines)
+	private List<CharSequence> sentenceLines = new ArrayList<>();
 
 	/* default implicit constructor */
 
+	/**
+	 * @brief: Creates a paragraph from lines read back from a serialized AST (see BinaryAst), without validating them again.
+	 */
+	public static ParagraphBlock of(List<CharSequence> lines) {
+		ParagraphBlock paragraph = new ParagraphBlock();
+		paragraph.sentenceLines = lines;
+		return paragraph;
+	}
+
 	/* interface behavior --------------------------------------------------- */
 	@Override
 	public String getType() {
@@ -38,28 +50,49 @@ public final class ParagraphBlock implements IBlock {
 	}
 
 	@Override
-	public List<String> toHTML() throws IOException {
+	public void toHTML(Appendable sink) throws IOException {
 		if (sentenceLines.isEmpty()) {
 			throw new IOException("[ERROR] ParagraphBlock contains no lines to convert to HTML.");
 		}
 
-		List<String> htmlLines = new ArrayList<>();
-		htmlLines.add("<p>");
-		for (String line : sentenceLines) {
+		CommonUtil.writeLine(sink, "<p>");
+		for (CharSequence line : sentenceLines) {
 			// Escape HTML for each line
-			htmlLines.add(CommonUtil.escapeHTML(line));
+			CommonUtil.writeEscapedLine(sink, line);
 		}
-		htmlLines.add("</p>");
+		CommonUtil.writeLine(sink, "</p>");
+	}
+
+	@Override
+	public int lineCount() {
+		return sentenceLines.size();
+	}
 
-		return htmlLines;
+	@Override
+	public List<? extends CharSequence> getLines() {
+		return Collections.unmodifiableList(sentenceLines);
 	}
 
 	/* instance behavior ---------------------------------------------------- */
-	public void addLine(String line) throws IOException {
-		if (line == null || line.trim().isEmpty()) {
+	/* accessible only within the same package, for test */
+	List<CharSequence> getSentenceLines() {
+		return sentenceLines;
+	}
+
+	/**
+	 * @brief: Releases the unused capacity of the lines, once the paragraph is complete (see CompactLines.trimToSize).
+	 */
+	public void trimToSize() {
+		if (sentenceLines instanceof CompactLines compact) {
+			compact.trimToSize();
+		}
+	}
+
+	public void addLine(CharSequence line) throws IOException {
+		if (line == null || CommonUtil.isBlank(line)) {
 			throw new IOException("[ERROR] HTML paragraph cannot contain blank or null lines");
 		}
-		// Collect sentence line
-		this.sentenceLines.add(line);
+		// Collect sentence line (the line itself, not its token)
+		this.sentenceLines = CompactLines.append(this.sentenceLines, LineToken.textOf(line));
 	}
 }
@@ -0,0 +1,484 @@
+/**
+ * @file: BatchConverter.java
+ * @brief: Converts whole directory trees of MMD documents in parallel, within a single JVM.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.ast.MmdHeader;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.metrics.ConversionMetrics;
+import dev.madpang.search.IndexBuilder;
+
+public class BatchConverter {
+	/**
+	 * @note: Extension of the MMD source files, and the extension they are mapped to under the output root.
+	 */
+	public static final String INPUT_EXTENSION = ".txt";
+	public static final String OUTPUT_EXTENSION = ".html";
+
+	private final Path outputRoot;
+	private final int workers;
+	private ConversionManifest manifest; // null for a full, non-incremental run
+	private MetadataIndex index;         // null if no site pages are generated
+	private Path searchIndexFile;        // null if no search index is written
+	private ThreadLocal<IndexBuilder> searchBuilders; // one per worker, during a run with a search index
+	private boolean force;               // reconvert even if the manifest says up to date
+
+	/**
+	 * A single unit of work: one source document and the HTML file it is converted into.
+	 */
+	public static final class Job {
+		public final Path input;
+		public final Path output;
+		public final long size; // in bytes, used to schedule larger files first
+
+		Job(Path input, Path output, long size) {
+			this.input = input;
+			this.output = output;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * A document that could not be converted, with the reason.
+	 */
+	public static final class Failure {
+		public final Path input;
+		public final String message;
+
+		Failure(Path input, String message) {
+			this.input = input;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Outcome of a batch run.
+	 */
+	public static final class Summary {
+		public int converted;
+		public int skipped; // up to date according to the manifest
+		public int removed; // stale outputs of deleted inputs
+		public long bytes;
+		public long elapsedNanos;
+		public final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+		/**
+		 * @brief: One line report with throughput numbers, e.g. for the end of a CLI run.
+		 */
+		public String report() {
+			double seconds = Math.max(elapsedNanos, 1) / 1e9;
+			return String.format("Converted %d file(s), %d up to date, %d removed, %d failed, in %.3f s: %.1f files/s, %.2f MB/s",
+				converted, skipped, removed, failures.size(), seconds,
+				(converted + failures.size()) / seconds, bytes / 1e6 / seconds);
+		}
+	}
+
+	/**
+	 * @param[in]: outputRoot -- The directory under which the HTML files are written, mirroring the input trees.
+	 * @param[in]: workers -- The number of worker threads, or a non-positive value for one per available core.
+	 */
+	public BatchConverter(Path outputRoot, int workers) {
+		this.outputRoot = outputRoot;
+		this.workers = (workers > 0) ? workers : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @brief: Makes the runs incremental: documents recorded as up to date in the manifest are skipped.
+	 */
+	public void setManifest(ConversionManifest manifest) {
+		this.manifest = manifest;
+	}
+
+	/**
+	 * @brief: Records the header metadata of the converted documents in the index, and generates the site pages from it (see SitePages).
+	 */
+	public void setIndex(MetadataIndex index) {
+		this.index = index;
+	}
+
+	public MetadataIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * @brief: Writes a full-text search index of the documents of every run to the given file (see IndexBuilder).
+	 *
+	 * @details: The index covers the whole batch, so in an incremental run the up-to-date documents are parsed again for it, though not rendered.
+	 */
+	public void setSearchIndex(Path file) {
+		this.searchIndexFile = file;
+	}
+
+	/**
+	 * @brief: Reconverts every document even if it is up to date; the manifest is still kept.
+	 */
+	public void setForce(boolean force) {
+		this.force = force;
+	}
+
+	/**
+	 * @brief: Collects the conversion jobs for the given inputs, larger files first.
+	 *
+	 * @param[in]: inputs -- Directories to walk for `*.txt` files; a regular file is taken as it is.
+	 * @return: The jobs, sorted by decreasing input size.
+	 * @throws: IOException If a directory cannot be walked, two inputs map to the same output, or an input maps to a site page (see SitePages.isReserved).
+	 *
+	 * @details: Scheduling the largest documents first keeps a single big file from being picked up last and stretching the tail of the batch.
+	 */
+	public List<Job> plan(List<Path> inputs) throws IOException {
+		List<Job> jobs = new ArrayList<>();
+		Set<Path> targets = new HashSet<>();
+		for (Path root : inputs) {
+			if (Files.isRegularFile(root)) {
+				addJob(jobs, targets, root, root.getFileName());
+				continue;
+			}
+			if (!Files.isDirectory(root)) {
+				throw new IOException("[ERROR] Input is neither a file nor a directory: " + root);
+			}
+			try (Stream<Path> paths = Files.walk(root)) {
+				for (Path path : (Iterable<Path>) paths::iterator) {
+					if (Files.isRegularFile(path) && path.getFileName().toString().endsWith(INPUT_EXTENSION)) {
+						addJob(jobs, targets, path, root.relativize(path));
+					}
+				}
+			}
+		}
+		jobs.sort(Comparator.comparingLong((Job job) -> job.size).reversed());
+		return jobs;
+	}
+
+	/**
+	 * @brief: Plans and converts the given inputs, then, for an incremental run, removes the outputs of deleted inputs and saves the manifest.
+	 */
+	public Summary run(List<Path> inputs, List<Job> jobs) throws IOException, InterruptedException {
+		Summary summary;
+		try {
+			summary = run(jobs);
+			if (manifest != null) {
+				summary.removed = removeStale(inputs, jobs);
+			}
+		} finally {
+			// The index first: an entry it lacks is filled in by the next run, as long as the manifest does not skip its document unread
+			if (index != null) {
+				publishIndex(force);
+			}
+			// Whatever was recorded is backed by an output in place, even if the run was interrupted
+			if (manifest != null) {
+				manifest.save();
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * @brief: If the index changed, regenerates the site pages of the changed authors (of all of them if `all`), and saves the index.
+	 */
+	public void publishIndex(boolean all) throws IOException {
+		if (index.isChanged() || all) {
+			Set<String> authors = index.takeChangedAuthors();
+			SitePages.write(index, all ? null : authors);
+			index.save();
+		}
+	}
+
+	/**
+	 * @brief: Converts all the given jobs on the worker pool; a failing document does not abort the others.
+	 */
+	public Summary run(List<Job> jobs) throws InterruptedException {
+		Summary summary = new Summary();
+		long start = System.nanoTime();
+		List<IndexBuilder> builders = Collections.synchronizedList(new ArrayList<>());
+		if (searchIndexFile != null) {
+			searchBuilders = ThreadLocal.withInitial(() -> {
+				IndexBuilder builder = new IndexBuilder();
+				builders.add(builder);
+				return builder;
+			});
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			// The pool's queue is FIFO, so the jobs are started in the planned (largest first) order
+			List<Future<?>> futures = new ArrayList<>(jobs.size());
+			for (Job job : jobs) {
+				futures.add(pool.submit(() -> {
+					boolean converted;
+					try {
+						converted = process(job);
+					} catch (Exception e) {
+						summary.failures.add(new Failure(job.input, String.valueOf(e.getMessage())));
+						System.err.println("[ERROR] " + job.input + ": " + e.getMessage());
+						return;
+					}
+					synchronized (summary) {
+						if (converted) {
+							summary.converted++;
+							summary.bytes += job.size;
+						} else {
+							summary.skipped++;
+						}
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+				} catch (ExecutionException e) {
+					// An Error escaped the task (e.g. a StackOverflowError on a pathological document): it fails that document only, the others and the manifest go on
+					Path input = jobs.get(i).input;
+					summary.failures.add(new Failure(input, String.valueOf(e.getCause())));
+					System.err.println("[ERROR] " + input + ": " + e.getCause());
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+			searchBuilders = null;
+		}
+		// The workers are done: merge what they indexed
+		if (searchIndexFile != null) {
+			IndexBuilder merged = new IndexBuilder();
+			for (IndexBuilder builder : builders) {
+				merged.merge(builder);
+			}
+			try {
+				merged.write(searchIndexFile);
+			} catch (IOException e) {
+				summary.failures.add(new Failure(searchIndexFile, String.valueOf(e.getMessage())));
+				System.err.println("[ERROR] " + searchIndexFile + ": " + e.getMessage());
+			}
+		}
+		summary.elapsedNanos = System.nanoTime() - start;
+		return summary;
+	}
+
+	/**
+	 * @brief: Converts a single MMD document into an HTML file, creating the parent directories if needed.
+	 * @return: The parsed document.
+	 *
+	 * @note: The input is read into the heap, never memory-mapped: the watch mode and the daemon convert files that are being edited, see SourceBuffer.
+	 */
+	public static MmdDocument convert(Path input, Path output) throws IOException {
+		return convert(Files.readAllBytes(input), output);
+	}
+
+	/**
+	 * @brief: Converts the UTF-8 encoded MMD source into an HTML file.
+	 * @return: The parsed document, e.g. for the metadata and search indexes.
+	 *
+	 * @details: The HTML is written to a temporary sibling which is then moved over the output, so a crash never leaves a half-written output behind.
+	 */
+	public static MmdDocument convert(byte[] source, Path output) throws IOException {
+		ConversionMetrics metrics = ConversionMetrics.GLOBAL;
+		long allocated = metrics.allocatedBytes();
+		MmdDocument doc = MmdDocument.parse(new ByteLineSource(SourceBuffer.wrap(source)));
+		Path parent = output.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, "." + output.getFileName(), ".tmp");
+		try {
+			long start = metrics.start();
+			OutputStream out = metrics.meter(Files.newOutputStream(temp));
+			// as `Files.newBufferedWriter`, which fails on malformed input instead of replacing it
+			try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8.newEncoder()))) {
+				doc.toHTML(writer);
+			}
+			metrics.recordOutput(start, out);
+			metrics.recordDocument(source.length, allocated);
+			Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return doc;
+	}
+
+	/**
+	 * @brief: Reconverts a single document outside of a run, e.g. after a change seen by DocumentWatcher, and records it in the manifest and the index.
+	 * @return: The parsed document.
+	 */
+	public MmdDocument update(Path input, Path output) throws IOException {
+		checkReserved(input, output);
+		byte[] source = Files.readAllBytes(input);
+		String hash = ConversionManifest.hash(source);
+		MmdDocument doc = convert(source, output);
+		if (index != null) {
+			index.put(output, hash, doc.frontMatter);
+		}
+		if (manifest != null) {
+			manifest.put(input, new ConversionManifest.Entry(hash, output, MmdDocument.CONVERTER_VERSION));
+		}
+		return doc;
+	}
+
+	/**
+	 * @brief: Removes the output of a deleted document, and forgets it in the manifest and the index.
+	 */
+	public void remove(Path input, Path output) throws IOException {
+		// The output first, as in `removeStale`
+		Files.deleteIfExists(output);
+		if (index != null) {
+			index.remove(output);
+		}
+		if (manifest != null) {
+			manifest.remove(input);
+		}
+	}
+
+	/**
+	 * @brief: Removes the outputs of the inputs recorded under a directory, which are gone, e.g. with the directory deleted while watched (see DocumentWatcher).
+	 * @return: The number of outputs removed, none if the runs are not incremental: without a manifest, nothing tells which outputs they were.
+	 */
+	public int removeUnder(Path dir) throws IOException {
+		if (manifest == null) {
+			return 0;
+		}
+		Path absolute = dir.toAbsolutePath().normalize();
+		List<Path> gone = new ArrayList<>();
+		for (Path recorded : manifest.inputs()) {
+			if (recorded.startsWith(absolute) && !Files.exists(recorded)) {
+				gone.add(recorded);
+			}
+		}
+		for (Path input : gone) {
+			remove(input, manifest.get(input).output);
+		}
+		return gone.size();
+	}
+
+	/**
+	 * @brief: Saves the manifest, if the runs are incremental, e.g. after a burst of `update` and `remove`.
+	 */
+	public void saveManifest() throws IOException {
+		if (manifest != null) {
+			manifest.save();
+		}
+	}
+
+	/**
+	 * @brief: Maps an input path, relative to its input root, to the output path under the output root.
+	 */
+	public Path outputPathFor(Path relative) {
+		String name = relative.getFileName().toString();
+		if (name.endsWith(INPUT_EXTENSION)) {
+			name = name.substring(0, name.length() - INPUT_EXTENSION.length());
+		}
+		return outputRoot.resolve(relative).resolveSibling(name + OUTPUT_EXTENSION);
+	}
+
+	/**
+	 * @return: true if the document was converted, false if it was skipped as up to date.
+	 */
+	private boolean process(Job job) throws IOException {
+		if (manifest == null) {
+			record(job, null, convert(job.input, job.output));
+			return true;
+		}
+		// Hash exactly the bytes being converted, so the recorded hash always matches the output
+		byte[] source = Files.readAllBytes(job.input);
+		String hash = ConversionManifest.hash(source);
+		if (!force && manifest.isUpToDate(job.input, hash, job.output, MmdDocument.CONVERTER_VERSION)) {
+			// Up to date: the search index needs the whole document again, the metadata index its header at most
+			if (searchBuilders != null) {
+				record(job, hash, MmdDocument.parse(new ByteLineSource(SourceBuffer.wrap(source))));
+			} else if (index != null && !index.isUpToDate(job.output, hash)) {
+				index.put(job.output, hash, MmdHeader.parse(new ByteLineSource(SourceBuffer.wrap(source)), null));
+			}
+			return false;
+		}
+		record(job, hash, convert(source, job.output));
+		manifest.put(job.input, new ConversionManifest.Entry(hash, job.output, MmdDocument.CONVERTER_VERSION));
+		return true;
+	}
+
+	/**
+	 * @brief: Adds a converted document to the indexes kept by this batch, if any.
+	 */
+	private void record(Job job, String hash, MmdDocument doc) {
+		if (index != null) {
+			index.put(job.output, hash, doc.frontMatter);
+		}
+		if (searchBuilders != null) {
+			searchBuilders.get().addDocument(linkFor(job.output), doc.bodyContent);
+		}
+	}
+
+	/**
+	 * @brief: The path of an output relative to the output root, with '/' separators, i.e. the link to it from the root.
+	 */
+	public String linkFor(Path output) {
+		List<String> names = new ArrayList<>();
+		for (Path name : outputRoot.toAbsolutePath().normalize().relativize(output.toAbsolutePath().normalize())) {
+			names.add(name.toString());
+		}
+		return String.join("/", names);
+	}
+
+	/**
+	 * @brief: Deletes the outputs of recorded inputs, under the given input roots, which are no longer part of the batch.
+	 * @return: The number of stale entries removed.
+	 */
+	private int removeStale(List<Path> inputs, List<Job> jobs) throws IOException {
+		Set<Path> current = new HashSet<>();
+		for (Job job : jobs) {
+			current.add(job.input.toAbsolutePath().normalize());
+		}
+		List<Path> roots = new ArrayList<>();
+		for (Path root : inputs) {
+			roots.add(root.toAbsolutePath().normalize());
+		}
+		int removed = 0;
+		for (Path recorded : manifest.inputs()) {
+			if (current.contains(recorded) || roots.stream().noneMatch(recorded::startsWith)) {
+				continue;
+			}
+			ConversionManifest.Entry entry = manifest.get(recorded);
+			// Delete the output first: if we crash in between, the entry is still there and the deletion is retried
+			Files.deleteIfExists(entry.output);
+			if (index != null) {
+				index.remove(entry.output);
+			}
+			manifest.remove(recorded);
+			removed++;
+		}
+		return removed;
+	}
+
+	private void addJob(List<Job> jobs, Set<Path> targets, Path input, Path relative) throws IOException {
+		Path output = outputPathFor(relative);
+		checkReserved(input, output);
+		if (!targets.add(output.toAbsolutePath().normalize())) {
+			throw new IOException("[ERROR] Two inputs map to the same output: " + output);
+		}
+		jobs.add(new Job(input, output, Files.size(input)));
+	}
+
+	private void checkReserved(Path input, Path output) throws IOException {
+		if (SitePages.isReserved(outputRoot.relativize(output))) {
+			throw new IOException("[ERROR] Input maps to a name reserved for the site pages: " + input);
+		}
+	}
+}
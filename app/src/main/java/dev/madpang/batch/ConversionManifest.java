@@ -0,0 +1,189 @@
+/**
+ * @file: ConversionManifest.java
+ * @brief: Persistent record of what a batch run has converted, used to skip unchanged documents.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ConversionManifest {
+	/**
+	 * @note:
+	 * The manifest is a plain text file, one entry per line, fields separated by TAB:
+	 * ----------------------------------------------------------------
+	 * | # mmd2html-manifest v1                                       | <- 1st line
+	 * | <input-path> <sha-256> <output-path> <converter-version>     |
+	 * | ...                                                          |
+	 * ----------------------------------------------------------------
+	 * Paths are absolute and normalized; paths containing TAB or line breaks are never recorded, so they are always reconverted.
+	 *
+	 * @details:
+	 * Crash safety relies on two rules:
+	 * - an entry is only put AFTER its output has been atomically moved into place, so an entry never claims an output that was not written;
+	 * - the file is only ever replaced as a whole, by writing a temporary sibling, syncing it to disk and renaming it over the old one.
+	 * A run that dies half-way therefore leaves the previous manifest untouched, and the next run redoes whatever it did not record.
+	 */
+	public static final String DEFAULT_FILE_NAME = ".mmd2html-manifest";
+	private static final String FORMAT_LINE = "# mmd2html-manifest v1";
+
+	/**
+	 * The recorded state of one converted document.
+	 */
+	public static final class Entry {
+		public final String contentHash;
+		public final Path output;
+		public final String converterVersion;
+
+		public Entry(String contentHash, Path output, String converterVersion) {
+			this.contentHash = contentHash;
+			this.output = output;
+			this.converterVersion = converterVersion;
+		}
+	}
+
+	private final Path file;
+	private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+	private ConversionManifest(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * @brief: Loads the manifest from the given file; a missing file gives an empty manifest.
+	 *
+	 * @details: Malformed lines are dropped, the documents they described are simply reconverted.
+	 */
+	public static ConversionManifest load(Path file) throws IOException {
+		ConversionManifest manifest = new ConversionManifest(file);
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null || !line.equals(FORMAT_LINE)) {
+				return manifest; // unknown format, start from scratch
+			}
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t", -1);
+				if (fields.length != 4) {
+					continue;
+				}
+				manifest.entries.put(Path.of(fields[0]), new Entry(fields[1], Path.of(fields[2]), fields[3]));
+			}
+		} catch (NoSuchFileException e) {
+			// First run, nothing recorded yet
+		}
+		return manifest;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @brief: Returns the entry recorded for the input, or null if there is none.
+	 */
+	public Entry get(Path input) {
+		return entries.get(key(input));
+	}
+
+	/**
+	 * @brief: Records a successful conversion; call only once the output is in place.
+	 */
+	public void put(Path input, Entry entry) {
+		Path key = key(input);
+		if (isRecordable(key) && isRecordable(entry.output)) {
+			entries.put(key, new Entry(entry.contentHash, key(entry.output), entry.converterVersion));
+		}
+	}
+
+	public void remove(Path input) {
+		entries.remove(key(input));
+	}
+
+	/**
+	 * @brief: A snapshot of the recorded input paths.
+	 */
+	public Iterable<Path> inputs() {
+		return new TreeMap<>(entries).keySet();
+	}
+
+	/**
+	 * @brief: Tells whether the output recorded for the input is up to date with the given content hash and converter version.
+	 */
+	public boolean isUpToDate(Path input, String contentHash, Path output, String converterVersion) {
+		Entry entry = get(input);
+		return entry != null
+			&& entry.contentHash.equals(contentHash)
+			&& entry.converterVersion.equals(converterVersion)
+			&& entry.output.equals(key(output))
+			&& Files.isRegularFile(entry.output);
+	}
+
+	/**
+	 * @brief: Atomically replaces the manifest file with the current entries.
+	 */
+	public synchronized void save() throws IOException {
+		Path target = file.toAbsolutePath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), DEFAULT_FILE_NAME, ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+				writer.write(FORMAT_LINE);
+				writer.newLine();
+				for (Map.Entry<Path, Entry> e : new TreeMap<>(entries).entrySet()) {
+					Entry entry = e.getValue();
+					writer.write(e.getKey() + "\t" + entry.contentHash + "\t" + entry.output + "\t" + entry.converterVersion);
+					writer.newLine();
+				}
+				writer.flush();
+				channel.force(true);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @brief: The SHA-256 of the content, as lower-case hex.
+	 */
+	public static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e); // every JRE must provide it
+		}
+	}
+
+	private static Path key(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+	private static boolean isRecordable(Path path) {
+		String text = path.toString();
+		return text.indexOf('\t') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0;
+	}
+}
@@ -0,0 +1,273 @@
+/**
+ * @file: DocumentWatcher.java
+ * @brief: Resident watch mode, reconverting MMD documents as soon as they are saved.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches input directory trees and reconverts only the documents that were touched.
+ *
+ * @details:
+ * The process stays resident, so every change is served by an already loaded and JIT-compiled parser instead of a cold JVM.
+ * Editors typically fire several events per save (truncate, write, rename...), they are coalesced by waiting until the tree has been quiet for the debounce delay,
+ * or for `MAX_BURST_MILLIS` at most, so that a tool writing continuously does not hold back the conversions forever.
+ * Every burst goes through the converter as a batch would: the manifest and the metadata index follow the changes, and are saved after the burst.
+ *
+ * @note:
+ * If the watch service loses events (OVERFLOW), the changes are unknown: the whole batch is run again, which only converts what is out of date.
+ * A sub-directory deleted or moved away only fires an event for itself, none for the files it held: the outputs recorded under it are removed then.
+ */
+public class DocumentWatcher implements AutoCloseable {
+	public static final long DEFAULT_DEBOUNCE_MILLIS = 50;
+	public static final long MAX_BURST_MILLIS = 1000;
+
+	private final BatchConverter converter;
+	private final long debounceMillis;
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> watchedDirs = new HashMap<>(); // directory of each key
+	private final Map<Path, Path> rootOf = new HashMap<>();          // input root of each watched directory
+	private final Set<Path> watchedFiles = new HashSet<>();          // inputs given as files, whose directory is watched for them only
+	private final List<Path> inputRoots = new ArrayList<>();         // as given, for a full run after an overflow
+
+	public DocumentWatcher(BatchConverter converter, long debounceMillis) throws IOException {
+		this.converter = converter;
+		this.debounceMillis = debounceMillis;
+		this.watchService = FileSystems.getDefault().newWatchService();
+	}
+
+	/**
+	 * @brief: Starts watching the given input directories, recursively, and the given input files, as `BatchConverter.plan` takes them.
+	 */
+	public void watch(List<Path> inputRoots) throws IOException {
+		for (Path root : inputRoots) {
+			this.inputRoots.add(root);
+			// Absolute paths, so that a directory watched both as a tree and for a file is known under one name
+			Path absolute = root.toAbsolutePath().normalize();
+			if (Files.isRegularFile(absolute)) {
+				watchedFiles.add(absolute);
+				register(absolute.getParent());
+			} else {
+				registerTree(absolute, absolute);
+			}
+		}
+	}
+
+	/**
+	 * @brief: Processes file events until the thread is interrupted or the watcher is closed.
+	 */
+	public void run() throws IOException {
+		try {
+			while (true) {
+				// Block for the first event of a burst, then drain until quiet
+				Map<Path, Long> changed = new LinkedHashMap<>(); // path -> nano time of its last event
+				boolean overflow = collect(watchService.take(), changed);
+				long burstEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BURST_MILLIS);
+				WatchKey key;
+				while (System.nanoTime() < burstEnd && (key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+					overflow |= collect(key, changed);
+				}
+				if (overflow) {
+					rerun();
+					continue;
+				}
+				for (Map.Entry<Path, Long> entry : changed.entrySet()) {
+					process(entry.getKey(), entry.getValue());
+				}
+				publishIndex();
+				saveManifest();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+
+	/**
+	 * @brief: Adds the sources touched by the events of the key to `changed`.
+	 * @return: true if events were lost.
+	 */
+	private boolean collect(WatchKey key, Map<Path, Long> changed) throws IOException {
+		long now = System.nanoTime();
+		Path dir = watchedDirs.get(key);
+		boolean overflow = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflow = true;
+				continue;
+			}
+			if (dir == null) {
+				continue;
+			}
+			Path path = dir.resolve((Path) event.context());
+			if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && rootOf.containsKey(path)) {
+				removeTree(path);
+				continue;
+			}
+			// In the directory of an input file, only that file counts
+			if (!rootOf.containsKey(dir) && !watchedFiles.contains(path)) {
+				continue;
+			}
+			if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+				// A new sub-directory: watch it, and pick up the files that may already be in it
+				registerTree(path, rootOf.get(dir));
+				try (Stream<Path> paths = Files.walk(path)) {
+					paths.filter(DocumentWatcher::isSource).forEach(p -> changed.put(p, now));
+				}
+				continue;
+			}
+			// Deleted files are kept too, their outputs are removed
+			if (watchedFiles.contains(path) || (rootOf.containsKey(dir) && isSourceName(path))) {
+				changed.remove(path); // keep the latest event last, in the order of the saves
+				changed.put(path, now);
+			}
+		}
+		if (!key.reset() && dir != null) {
+			removeTree(dir); // the directory is gone
+		}
+		return overflow;
+	}
+
+	/**
+	 * @brief: Stops watching a directory which is gone, and its sub-directories, and removes the outputs of the inputs recorded under it.
+	 */
+	private void removeTree(Path dir) {
+		watchedDirs.entrySet().removeIf(entry -> {
+			if (!entry.getValue().startsWith(dir)) {
+				return false;
+			}
+			entry.getKey().cancel();
+			rootOf.remove(entry.getValue());
+			return true;
+		});
+		try {
+			int removed = converter.removeUnder(dir);
+			if (removed > 0) {
+				System.out.println("[WATCH] Removed the " + removed + " output(s) of " + dir);
+			}
+		} catch (IOException e) {
+			System.err.println("[ERROR] " + dir + ": " + e.getMessage());
+		}
+	}
+
+	private void process(Path input, long eventNanos) {
+		Path output;
+		if (watchedFiles.contains(input)) {
+			output = converter.outputPathFor(input.getFileName()); // as `BatchConverter.plan` maps an input file
+		} else {
+			Path root = rootOf.get(input.getParent());
+			if (root == null) {
+				return; // the directory went away
+			}
+			output = converter.outputPathFor(root.relativize(input));
+		}
+		try {
+			if (!Files.exists(input)) {
+				converter.remove(input, output);
+				System.out.println("[WATCH] Removed " + output);
+				return;
+			}
+			long start = System.nanoTime();
+			converter.update(input, output);
+			long end = System.nanoTime();
+			System.out.printf("[WATCH] Updated %s in %.1f ms (%.1f ms after the change)%n",
+				output, (end - start) / 1e6, (end - eventNanos) / 1e6);
+		} catch (Exception e) {
+			System.err.println("[ERROR] " + input + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @brief: Brings every output up to date with a full batch run, when the changes of a burst are unknown.
+	 */
+	private void rerun() {
+		try {
+			System.out.println("[WATCH] Events were lost, checking all the inputs.");
+			BatchConverter.Summary summary = converter.run(inputRoots, converter.plan(inputRoots));
+			System.out.println("[WATCH] " + summary.report());
+		} catch (IOException e) {
+			System.err.println("[ERROR] " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void saveManifest() {
+		try {
+			converter.saveManifest();
+		} catch (IOException e) {
+			System.err.println("[ERROR] Cannot save the manifest: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @brief: Regenerates the site pages touched by the burst of changes, if the batch keeps an index.
+	 */
+	private void publishIndex() {
+		if (converter.getIndex() == null || !converter.getIndex().isChanged()) {
+			return;
+		}
+		try {
+			long start = System.nanoTime();
+			converter.publishIndex(false);
+			System.out.printf("[WATCH] Updated the site index in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+		} catch (IOException e) {
+			System.err.println("[ERROR] " + converter.getIndex().getFile() + ": " + e.getMessage());
+		}
+	}
+
+	private void registerTree(Path dir, Path root) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path sub : (Iterable<Path>) paths::iterator) {
+				if (Files.isDirectory(sub)) {
+					register(sub);
+					rootOf.put(sub, root);
+				}
+			}
+		}
+	}
+
+	private void register(Path dir) throws IOException {
+		WatchKey key = dir.register(watchService,
+			StandardWatchEventKinds.ENTRY_CREATE,
+			StandardWatchEventKinds.ENTRY_MODIFY,
+			StandardWatchEventKinds.ENTRY_DELETE);
+		watchedDirs.put(key, dir);
+	}
+
+	private static boolean isSource(Path path) {
+		return Files.isRegularFile(path) && isSourceName(path);
+	}
+
+	/**
+	 * @brief: Tells whether a file of an input tree is an input, as `BatchConverter.plan` walks the trees; an input given as a file may have any name.
+	 */
+	private static boolean isSourceName(Path path) {
+		return path.getFileName().toString().endsWith(BatchConverter.INPUT_EXTENSION);
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * @file: HeaderScanner.java
+ * @brief: Reads the header metadata of whole directory trees of MMD documents, without reading their bodies.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import dev.madpang.ast.MmdHeader;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+
+/**
+ * A header scan, for the jobs that only need the metadata: inventories, stale documents by `date-updated`, version audits...
+ *
+ * @details:
+ * Only the first `INITIAL_READ_BYTES` of a document are read, which hold the whole header of any ordinary document;
+ * if its closing fence is not in there, the read is doubled, up to `MAX_HEADER_BYTES`.
+ * Only the header lines are handed to MmdHeader.parse, the body is never decoded nor parsed.
+ *
+ * @note:
+ * A scan waits on the disk rather than on the CPU, so it runs more workers than there are cores by default, to keep several reads in flight.
+ */
+public class HeaderScanner {
+	public static final int INITIAL_READ_BYTES = 4096;
+	public static final int MAX_HEADER_BYTES = 64 * 1024;
+	/**
+	 * @note: The columns of the reports, the header fields as named in MmdHeader.metaInfo.
+	 */
+	public static final List<String> FIELDS = List.of("title", "author", "date-created", "date-updated", "version", "brief", "file");
+
+	private static final byte[] OPENING_LINE = "``` header".getBytes(StandardCharsets.US_ASCII);
+
+	private final int workers;
+
+	/**
+	 * The header of one document, or the reason it could not be read.
+	 */
+	public record Row(Path file, MmdHeader header, String error) {
+	}
+
+	/**
+	 * @param[in]: workers -- The number of worker threads, or a non-positive value for 4 per available core.
+	 */
+	public HeaderScanner(int workers) {
+		this.workers = (workers > 0) ? workers : 4 * Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @brief: Reads the headers of the given inputs, in parallel; a failing document does not abort the others.
+	 *
+	 * @param[in]: inputs -- Directories to walk for `*.txt` files; a regular file is taken as it is.
+	 * @return: One row per document, sorted by path.
+	 */
+	public List<Row> scan(List<Path> inputs) throws IOException, InterruptedException {
+		List<Path> files = new ArrayList<>();
+		for (Path root : inputs) {
+			if (Files.isRegularFile(root)) {
+				files.add(root);
+				continue;
+			}
+			if (!Files.isDirectory(root)) {
+				throw new IOException("[ERROR] Input is neither a file nor a directory: " + root);
+			}
+			try (Stream<Path> paths = Files.walk(root)) {
+				paths.filter(path -> path.getFileName().toString().endsWith(BatchConverter.INPUT_EXTENSION) && Files.isRegularFile(path)).forEach(files::add);
+			}
+		}
+		Collections.sort(files);
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<Row>> futures = new ArrayList<>(files.size());
+			for (Path file : files) {
+				futures.add(pool.submit(() -> {
+					try {
+						return new Row(file, readHeader(file), null);
+					} catch (IOException e) {
+						return new Row(file, null, String.valueOf(e.getMessage()));
+					}
+				}));
+			}
+			List<Row> rows = new ArrayList<>(files.size());
+			for (Future<Row> future : futures) {
+				try {
+					rows.add(future.get());
+				} catch (ExecutionException e) {
+					// Not expected, the task itself reports every failure
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			return rows;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * @brief: Reads the header of a single document, from the first few KB of the file.
+	 * @throws: IOException If the file cannot be read, or its header is invalid or longer than `MAX_HEADER_BYTES`.
+	 */
+	public static MmdHeader readHeader(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file)) {
+			ByteBuffer buffer = ByteBuffer.allocate(INITIAL_READ_BYTES);
+			while (true) {
+				boolean eof = false;
+				while (buffer.hasRemaining() && !eof) {
+					eof = channel.read(buffer) < 0;
+				}
+				byte[] bytes = buffer.array();
+				int length = buffer.position();
+				// [1] Not a header at all: let the parser report it, from the first line only
+				int bom = (length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) ? 3 : 0;
+				int checked = Math.min(length - bom, OPENING_LINE.length);
+				if (!Arrays.equals(bytes, bom, bom + checked, OPENING_LINE, 0, checked)) {
+					return MmdHeader.parse(new ByteLineSource(SourceBuffer.wrap(bytes), 0, lineEnd(bytes, 0, length)), null);
+				}
+				// [2] Parse up to the closing fence, once it has been read
+				int end = headerEnd(bytes, length, eof);
+				if (end >= 0 || eof) {
+					return MmdHeader.parse(new ByteLineSource(SourceBuffer.wrap(bytes), 0, (end >= 0) ? end : length), null);
+				}
+				if (buffer.capacity() >= MAX_HEADER_BYTES) {
+					throw new IOException("[ERROR] Header is not closed within the first " + (MAX_HEADER_BYTES / 1024) + " KB.");
+				}
+				buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer.flip());
+			}
+		}
+	}
+
+	/**
+	 * @brief: The position after the closing "```" line of the header, -1 if it is not in the first `length` bytes.
+	 *
+	 * @details: The last line only counts if it is complete, i.e. terminated or at the end of the file, so that a "```" cut off a longer line is not taken for the fence;
+	 * a '\r' ending the bytes read so far does not terminate it yet, it may be the first half of a "\r\n".
+	 */
+	private static int headerEnd(byte[] bytes, int length, boolean eof) {
+		int start = lineEnd(bytes, 0, length); // after the opening line
+		while (start < length) {
+			int end = lineEnd(bytes, start, length);
+			boolean complete = bytes[end - 1] == '\n' || (bytes[end - 1] == '\r' && end < length) || eof;
+			if (!complete) {
+				return -1;
+			}
+			int content = end;
+			if (content > start && bytes[content - 1] == '\n') {
+				content--;
+			}
+			if (content > start && bytes[content - 1] == '\r') {
+				content--;
+			}
+			if (content - start == 3 && bytes[start] == '`' && bytes[start + 1] == '`' && bytes[start + 2] == '`') {
+				return end;
+			}
+			start = end;
+		}
+		return -1;
+	}
+
+	/**
+	 * @brief: The position after the line starting at `start`, including its "\n", "\r\n" or lone "\r" as ByteLineSource reads them; `length` if it is not terminated.
+	 */
+	private static int lineEnd(byte[] bytes, int start, int length) {
+		for (int i = start; i < length; i++) {
+			if (bytes[i] == '\n') {
+				return i + 1;
+			}
+			if (bytes[i] == '\r') {
+				return (i + 1 < length && bytes[i + 1] == '\n') ? i + 2 : i + 1;
+			}
+		}
+		return length;
+	}
+
+	/* reporting ------------------------------------------------------------ */
+	/**
+	 * @brief: Writes the rows as CSV (RFC 4180): a line of column names, then one line per document; the last column is the error, if any.
+	 */
+	public static void writeCsv(List<Row> rows, Appendable sink) throws IOException {
+		sink.append("path");
+		for (String field : FIELDS) {
+			sink.append(',').append(field);
+		}
+		sink.append(",error\r\n");
+		for (Row row : rows) {
+			csv(sink, row.file().toString());
+			for (String field : FIELDS) {
+				sink.append(',');
+				csv(sink, (row.header() == null) ? "" : row.header().metaInfo.getOrDefault(field, ""));
+			}
+			sink.append(',');
+			csv(sink, (row.error() == null) ? "" : row.error());
+			sink.append("\r\n");
+		}
+	}
+
+	/**
+	 * @brief: Writes the rows as JSON Lines, one object per document, with either the header fields or an "error".
+	 */
+	public static void writeJson(List<Row> rows, Appendable sink) throws IOException {
+		for (Row row : rows) {
+			sink.append("{\"path\":");
+			json(sink, row.file().toString());
+			if (row.header() == null) {
+				sink.append(",\"error\":");
+				json(sink, row.error());
+			} else {
+				for (String field : FIELDS) {
+					String value = row.header().metaInfo.get(field);
+					if (value != null) {
+						sink.append(",\"").append(field).append("\":");
+						json(sink, value);
+					}
+				}
+			}
+			sink.append("}\n");
+		}
+	}
+
+	private static void csv(Appendable sink, String value) throws IOException {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			sink.append(value);
+			return;
+		}
+		sink.append('"').append(value.replace("\"", "\"\"")).append('"');
+	}
+
+	private static void json(Appendable sink, String value) throws IOException {
+		sink.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					sink.append("\\\"");
+					break;
+				case '\\':
+					sink.append("\\\\");
+					break;
+				case '\n':
+					sink.append("\\n");
+					break;
+				case '\r':
+					sink.append("\\r");
+					break;
+				case '\t':
+					sink.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						sink.append(String.format("\\u%04x", (int) c));
+					} else {
+						sink.append(c);
+					}
+					break;
+			}
+		}
+		sink.append('"');
+	}
+}
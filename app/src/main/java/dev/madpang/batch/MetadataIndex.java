@@ -0,0 +1,228 @@
+/**
+ * @file: MetadataIndex.java
+ * @brief: Persistent index of the header metadata of every converted document, from which the site pages are generated.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dev.madpang.ast.MmdHeader;
+
+public class MetadataIndex {
+	/**
+	 * @note:
+	 * The index is a plain text file kept in the output root, one entry per document, fields separated by TAB:
+	 * ----------------------------------------------------------------
+	 * | # mmd2html-index v1                                          | <- 1st line
+	 * | <output-path> <sha-256> <title> <author> <date-created>      |
+	 * |               <date-updated> <version> <brief>               | <- same line
+	 * | ...                                                          |
+	 * ----------------------------------------------------------------
+	 * The output path is relative to the output root, with '/' separators, so it is also the link to the document.
+	 * The hash is the one of the source the metadata was read from (as in ConversionManifest), empty if unknown.
+	 * TAB and line breaks in the metadata are replaced by spaces.
+	 *
+	 * @details:
+	 * The index is updated as the documents are converted, so an incremental run only touches the entries of the changed documents;
+	 * it also records the authors whose entries changed since it was last published, so that only their pages are regenerated (see SitePages).
+	 * As ConversionManifest, the file is only ever replaced as a whole, atomically.
+	 */
+	public static final String DEFAULT_FILE_NAME = ".mmd2html-index";
+	private static final String FORMAT_LINE = "# mmd2html-index v1";
+
+	/**
+	 * The metadata of one document; the missing fields are empty strings.
+	 */
+	public record Entry(String path, String hash, String title, String author, String created, String updated, String version, String brief) {
+	}
+
+	private final Path file;
+	private final Path root;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Set<String> changedAuthors = ConcurrentHashMap.newKeySet();
+	private volatile boolean changed;
+
+	private MetadataIndex(Path file) {
+		this.file = file;
+		this.root = file.toAbsolutePath().normalize().getParent();
+	}
+
+	/**
+	 * @brief: Loads the index from the given file, in the output root; a missing file gives an empty index.
+	 *
+	 * @details: Malformed lines are dropped, the metadata of their documents is read again on the next run.
+	 */
+	public static MetadataIndex load(Path file) throws IOException {
+		MetadataIndex index = new MetadataIndex(file);
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null || !line.equals(FORMAT_LINE)) {
+				return index; // unknown format, start from scratch
+			}
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t", -1);
+				if (fields.length != 8) {
+					continue;
+				}
+				index.entries.put(fields[0], new Entry(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7]));
+			}
+		} catch (NoSuchFileException e) {
+			// First run, nothing recorded yet
+		}
+		return index;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @brief: The directory the paths of the entries are relative to.
+	 */
+	public Path getRoot() {
+		return root;
+	}
+
+	/**
+	 * @brief: Returns the entry recorded for the output, or null if there is none.
+	 */
+	public Entry get(Path output) {
+		String path = pathOf(output);
+		return (path == null) ? null : entries.get(path);
+	}
+
+	/**
+	 * @brief: Tells whether the entry of the output was read from the source with the given hash.
+	 */
+	public boolean isUpToDate(Path output, String sourceHash) {
+		Entry entry = get(output);
+		return entry != null && !entry.hash().isEmpty() && entry.hash().equals(sourceHash);
+	}
+
+	/**
+	 * @brief: Records the metadata of a converted document; an output outside of the root is not recorded.
+	 *
+	 * @param[in]: sourceHash -- The hash of the source the header was parsed from, or null if unknown.
+	 */
+	public void put(Path output, String sourceHash, MmdHeader header) {
+		String path = pathOf(output);
+		if (path == null) {
+			return;
+		}
+		Map<String, String> meta = header.metaInfo;
+		Entry entry = new Entry(path, clean(sourceHash), clean(meta.get("title")), clean(meta.get("author")),
+			clean(meta.get("date-created")), clean(meta.get("date-updated")), clean(meta.get("version")), clean(meta.get("brief")));
+		Entry previous = entries.put(path, entry);
+		if (entry.equals(previous)) {
+			return;
+		}
+		changed = true;
+		changedAuthors.add(entry.author());
+		if (previous != null) {
+			changedAuthors.add(previous.author());
+		}
+	}
+
+	public void remove(Path output) {
+		String path = pathOf(output);
+		Entry previous = (path == null) ? null : entries.remove(path);
+		if (previous != null) {
+			changed = true;
+			changedAuthors.add(previous.author());
+		}
+	}
+
+	/**
+	 * @brief: A snapshot of the entries, by path.
+	 */
+	public List<Entry> entries() {
+		return new ArrayList<>(new TreeMap<>(entries).values());
+	}
+
+	/**
+	 * @brief: Tells whether an entry was put or removed since the index was last saved.
+	 */
+	public boolean isChanged() {
+		return changed;
+	}
+
+	/**
+	 * @brief: Returns the authors whose entries changed since the last call, and forgets them.
+	 */
+	public synchronized Set<String> takeChangedAuthors() {
+		Set<String> authors = new HashSet<>(changedAuthors);
+		changedAuthors.removeAll(authors);
+		return authors;
+	}
+
+	/**
+	 * @brief: Atomically replaces the index file with the current entries.
+	 */
+	public synchronized void save() throws IOException {
+		changed = false; // an entry put from now on is saved by the next call
+		Path target = file.toAbsolutePath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), DEFAULT_FILE_NAME, ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+				writer.write(FORMAT_LINE);
+				writer.newLine();
+				for (Entry entry : entries()) {
+					writer.write(String.join("\t", entry.path(), entry.hash(), entry.title(), entry.author(),
+						entry.created(), entry.updated(), entry.version(), entry.brief()));
+					writer.newLine();
+				}
+				writer.flush();
+				channel.force(true);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			changed = true;
+			throw e;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @brief: The path of the output relative to the root, with '/' separators; null if it is not under the root.
+	 */
+	private String pathOf(Path output) {
+		Path absolute = output.toAbsolutePath().normalize();
+		if (!absolute.startsWith(root) || absolute.equals(root)) {
+			return null;
+		}
+		List<String> names = new ArrayList<>();
+		for (Path name : root.relativize(absolute)) {
+			names.add(name.toString());
+		}
+		String path = String.join("/", names);
+		return clean(path).equals(path) ? path : null;
+	}
+
+	private static String clean(String value) {
+		return (value == null) ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+}
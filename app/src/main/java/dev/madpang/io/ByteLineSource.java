@@ -0,0 +1,145 @@
+/**
+ * @file: ByteLineSource.java
+ * @brief: Reads lines directly from the bytes of a SourceBuffer, decoding UTF-8 only where needed.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A LineSource over the range [start, end) of a SourceBuffer.
+ *
+ * @details:
+ * Compared to `new BufferedReader(new FileReader(...))`, the input is neither decoded into a char buffer nor copied into a String per line:
+ * the bytes are scanned once for line terminators, 8 at a time, and a pure-ASCII line becomes a view over the buffer.
+ * Terminators follow `BufferedReader.readLine()`: "\n", "\r" or "\r\n". A leading UTF-8 byte order mark is skipped.
+ */
+public final class ByteLineSource implements LineSource {
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+	private static final long LF = ONES * '\n';
+	private static final long CR = ONES * '\r';
+
+	private final SourceBuffer source;
+	private final long end;
+	private long position;
+
+	public ByteLineSource(SourceBuffer source) {
+		this(source, 0, source.size());
+	}
+
+	/**
+	 * @brief: Reads the lines of a range of the source, which must start at the beginning of a line.
+	 */
+	public ByteLineSource(SourceBuffer source, long start, long end) {
+		this.source = source;
+		this.end = end;
+		this.position = start;
+		if (start == 0 && end >= 3 && source.byteAt(0) == (byte) 0xEF && source.byteAt(1) == (byte) 0xBB && source.byteAt(2) == (byte) 0xBF) {
+			this.position = 3;
+		}
+	}
+
+	/**
+	 * @brief: The byte offset of the next line to be read.
+	 */
+	public long position() {
+		return position;
+	}
+
+	@Override
+	public SourceLine readLine() {
+		if (position >= end) {
+			return null;
+		}
+		long lineStart = position;
+		long p = position;
+		boolean ascii = true;
+		// [1] Fast path: skip 8 bytes at a time while they hold no terminator and no non-ASCII byte
+		ByteBuffer chunk = source.chunkOf(p);
+		int offset = SourceBuffer.chunkOffset(p);
+		long chunkEnd = Math.min(end, p - offset + chunk.limit());
+		while (p + 8 <= chunkEnd) {
+			long word = chunk.getLong(offset);
+			if (((word & HIGHS) | hasZeroByte(word ^ LF) | hasZeroByte(word ^ CR)) != 0) {
+				break;
+			}
+			p += 8;
+			offset += 8;
+		}
+		// [2] Byte by byte up to the terminator
+		while (p < end) {
+			byte b = source.byteAt(p);
+			if (b == '\n' || b == '\r') {
+				break;
+			}
+			if (b < 0) {
+				ascii = false;
+			}
+			p++;
+		}
+		SourceLine line = SourceLine.of(source, lineStart, p, ascii);
+		// [3] Consume the terminator
+		position = skipTerminator(p);
+		return line;
+	}
+
+	/**
+	 * @brief: The first byte of the next line, as an unsigned value, or -1 at the end of the range; nothing is consumed.
+	 */
+	public int peekByte() {
+		return (position < end) ? (source.byteAt(position) & 0xFF) : -1;
+	}
+
+	/**
+	 * @brief: Skips the next line without materializing it, for a scanner that only needs to look at a few lines.
+	 * @return: false at the end of the range.
+	 */
+	public boolean skipLine() {
+		if (position >= end) {
+			return false;
+		}
+		long p = position;
+		// Same scan as `readLine`, but a non-ASCII byte does not matter here
+		ByteBuffer chunk = source.chunkOf(p);
+		int offset = SourceBuffer.chunkOffset(p);
+		long chunkEnd = Math.min(end, p - offset + chunk.limit());
+		while (p + 8 <= chunkEnd) {
+			long word = chunk.getLong(offset);
+			if ((hasZeroByte(word ^ LF) | hasZeroByte(word ^ CR)) != 0) {
+				break;
+			}
+			p += 8;
+			offset += 8;
+		}
+		while (p < end) {
+			byte b = source.byteAt(p);
+			if (b == '\n' || b == '\r') {
+				break;
+			}
+			p++;
+		}
+		position = skipTerminator(p);
+		return true;
+	}
+
+	private long skipTerminator(long p) {
+		if (p < end) {
+			byte terminator = source.byteAt(p++);
+			if (terminator == '\r' && p < end && source.byteAt(p) == '\n') {
+				p++;
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * @details: Non-zero iff one of the 8 bytes of the word is zero (the classic SWAR test).
+	 */
+	private static long hasZeroByte(long word) {
+		return (word - ONES) & ~word & HIGHS;
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * @file: CompactLines.java
+ * @brief: A list of lines of one SourceBuffer, stored as byte offsets in a primitive array.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Storage of the lines of an AST block in the compact mode.
+ *
+ * @note:
+ * Instead of one String (or one SourceLine object) per line, a line costs two longs: its start and end offsets in the shared, immutable source.
+ * The text is only materialized by `get`, i.e. at render time, as a view for ASCII lines and by decoding otherwise.
+ * The lines of a document parsed from a SourceBuffer are always stored this way; any other line makes the block fall back to a plain ArrayList, see `append`.
+ */
+public final class CompactLines extends AbstractList<CharSequence> {
+	private static final long NON_ASCII = 1L << 62; // flag in the start offset, so ASCII lines need no re-scan
+
+	private final SourceBuffer source;
+	private long[] spans = new long[8]; // [start0, end0, start1, end1, ...]
+	private int size;
+
+	public CompactLines(SourceBuffer source) {
+		this.source = source;
+	}
+
+	/**
+	 * @brief: Appends the line to the list, switching to compact storage for the first line when possible.
+	 * @return: The list holding the lines from now on, which may be a new one.
+	 */
+	public static List<CharSequence> append(List<CharSequence> lines, CharSequence line) {
+		if (lines.isEmpty() && !(lines instanceof CompactLines) && line instanceof SourceLine sourceLine) {
+			lines = new CompactLines(sourceLine.getSource());
+		}
+		if (lines instanceof CompactLines compact && !compact.accepts(line)) {
+			lines = new ArrayList<>(lines);
+		}
+		lines.add(line);
+		return lines;
+	}
+
+	public SourceBuffer getSource() {
+		return source;
+	}
+
+	/**
+	 * @brief: Tells whether the line can be stored as offsets, i.e. it is a line of the same source.
+	 */
+	public boolean accepts(CharSequence line) {
+		return line instanceof SourceLine sourceLine && sourceLine.getSource() == source;
+	}
+
+	@Override
+	public boolean add(CharSequence line) {
+		if (!accepts(line)) {
+			throw new IllegalArgumentException("Only lines of the same SourceBuffer can be stored compactly.");
+		}
+		SourceLine sourceLine = (SourceLine) line;
+		if (2 * size + 2 > spans.length) {
+			spans = Arrays.copyOf(spans, spans.length * 2);
+		}
+		spans[2 * size] = sourceLine.getStart() | (sourceLine.isAscii() ? 0 : NON_ASCII);
+		spans[2 * size + 1] = sourceLine.getEnd();
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * @brief: Appends the line [start, end) of the source, without creating it; `ascii` as in SourceLine.of.
+	 */
+	public void addSpan(long start, long end, boolean ascii) {
+		if (2 * size + 2 > spans.length) {
+			spans = Arrays.copyOf(spans, spans.length * 2);
+		}
+		spans[2 * size] = start | (ascii ? 0 : NON_ASCII);
+		spans[2 * size + 1] = end;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public CharSequence get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		long start = spans[2 * index];
+		return SourceLine.of(source, start & ~NON_ASCII, spans[2 * index + 1], (start & NON_ASCII) == 0);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @brief: The number of lines the list can hold without growing, i.e. `size` once trimmed.
+	 */
+	public int capacity() {
+		return spans.length / 2;
+	}
+
+	/**
+	 * @brief: Releases the unused capacity, once the block is complete.
+	 */
+	public void trimToSize() {
+		if (spans.length > 2 * size) {
+			spans = Arrays.copyOf(spans, 2 * size);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * @file: LineSource.java
+ * @brief: Abstraction of a source of text lines, consumed by all the parse methods of the AST.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A forward-only sequence of lines, mirroring `BufferedReader.readLine()`.
+ *
+ * @note:
+ * Lines are handed out as `CharSequence`, which lets a byte-level source expose a line as a view over its buffer instead of copying it into a String.
+ * A line stays valid after the next call to `readLine()`, so it can be kept in the AST.
+ */
+@FunctionalInterface
+public interface LineSource {
+	/**
+	 * @brief: Reads the next line, without its terminator ("\n", "\r" or "\r\n").
+	 * @return: The line, or null at the end of the input.
+	 */
+	CharSequence readLine() throws IOException;
+
+	/**
+	 * @brief: Adapts a BufferedReader, for the existing reader-based entry points.
+	 */
+	static LineSource of(BufferedReader reader) {
+		return reader::readLine;
+	}
+
+	/**
+	 * @brief: Reads the lines of the UTF-8 encoded file directly from its bytes, memory-mapped if the file is large, see `SourceBuffer.open`.
+	 */
+	static LineSource open(Path file) throws IOException {
+		return new ByteLineSource(SourceBuffer.open(file));
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * @file: SourceBuffer.java
+ * @brief: Immutable, UTF-8 encoded source text, either memory-mapped from a file or wrapping a byte array.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @note:
+ * A single mapping is limited to 2 GiB, so the bytes are held in chunks of `CHUNK_SIZE`, addressed with a `long` position.
+ * The mapping outlives the channel it was created from; it is released when the buffer (and every line viewing it) is garbage collected.
+ * If another process truncates a mapped file, reading the lost pages does not fail with an IOException but with an `InternalError` (the JVM's answer to SIGBUS),
+ * possibly long after the parse, from a line viewing the mapping. Hence:
+ * - `open` only maps a file of at least `MAP_THRESHOLD` bytes, a smaller one is read into the heap, where mapping saves nothing;
+ * - the long-lived modes (watch, daemon and server) never map a file, they read it into the heap and `wrap` it, as the files they convert are being edited;
+ * - the entry points reading a mapping catch the `InternalError` and rethrow it as an IOException, see `truncated`.
+ */
+public final class SourceBuffer {
+	static final int CHUNK_BITS = 30;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	/** The size from which `open` maps a file. */
+	public static final long MAP_THRESHOLD = 1 << 20;
+
+	private final ByteBuffer[] chunks; // little-endian, so that 8 bytes can be inspected at once with `getLong`
+	private final long size;
+
+	private SourceBuffer(ByteBuffer[] chunks, long size) {
+		this.chunks = chunks;
+		this.size = size;
+	}
+
+	/**
+	 * @brief: Reads the whole file, memory-mapped if it has at least `MAP_THRESHOLD` bytes, else into the heap.
+	 */
+	public static SourceBuffer open(Path file) throws IOException {
+		if (Files.size(file) < MAP_THRESHOLD) {
+			return wrap(Files.readAllBytes(file));
+		}
+		return map(file);
+	}
+
+	/**
+	 * @brief: Memory-maps the whole file, read-only; see the note above about a file truncated while it is mapped.
+	 */
+	public static SourceBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			ByteBuffer[] chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS)];
+			for (int i = 0; i < chunks.length; i++) {
+				long position = (long) i << CHUNK_BITS;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position))
+					.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			return new SourceBuffer(chunks, size);
+		}
+	}
+
+	/**
+	 * @brief: Wraps UTF-8 encoded bytes already in memory; the array must not be modified afterwards.
+	 */
+	public static SourceBuffer wrap(byte[] bytes) {
+		ByteBuffer[] chunks = (bytes.length == 0) ? new ByteBuffer[0] : new ByteBuffer[] { ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN) };
+		return new SourceBuffer(chunks, bytes.length);
+	}
+
+	/**
+	 * @brief: The IOException to throw instead of the `InternalError` raised by reading a mapping whose file has been truncated.
+	 */
+	public static IOException truncated(Path file, InternalError e) {
+		return new IOException("[ERROR] The file was truncated while it was read: " + file, e);
+	}
+
+	/**
+	 * @brief: Tells whether the bytes are memory-mapped from a file, accessible only within the same package, for test.
+	 */
+	boolean isMapped() {
+		return chunks.length > 0 && chunks[0].isDirect();
+	}
+
+	/**
+	 * @brief: The size in bytes.
+	 */
+	public long size() {
+		return size;
+	}
+
+	public byte byteAt(long position) {
+		return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK));
+	}
+
+	/**
+	 * @brief: Decodes the bytes in [start, end) as UTF-8, malformed input being replaced like `InputStreamReader` does.
+	 */
+	public String decode(long start, long end) {
+		int length = (int) (end - start);
+		ByteBuffer chunk = chunkOf(start);
+		if (chunk != null && chunkOffset(start) + length <= chunk.limit()) {
+			ByteBuffer slice = chunk.slice(chunkOffset(start), length);
+			return StandardCharsets.UTF_8.decode(slice).toString();
+		}
+		// Straddles two chunks, copy it out first
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = byteAt(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	ByteBuffer chunkOf(long position) {
+		int index = (int) (position >>> CHUNK_BITS);
+		return (index < chunks.length) ? chunks[index] : null;
+	}
+
+	static int chunkOffset(long position) {
+		return (int) (position & CHUNK_MASK);
+	}
+}
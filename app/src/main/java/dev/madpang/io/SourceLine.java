@@ -0,0 +1,102 @@
+/**
+ * @file: SourceLine.java
+ * @brief: A line of a SourceBuffer, exposed as a CharSequence without copying it when it is pure ASCII.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @note:
+ * For a pure-ASCII line lying within one chunk, every byte is a char: the line is a view over the buffer and `charAt` reads the byte directly.
+ * Any other line is decoded once, when it is read, and backed by the decoded String.
+ */
+public final class SourceLine implements CharSequence {
+	private final SourceBuffer source;
+	private final long start;     // byte offset of the line in the source, inclusive
+	private final long end;       // byte offset of the line in the source, exclusive
+	private final ByteBuffer chunk; // null when decoded
+	private final int offset;     // offset of the line in the chunk
+	private final String decoded; // null for an ASCII view
+
+	private SourceLine(SourceBuffer source, long start, long end, ByteBuffer chunk, int offset, String decoded) {
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		this.chunk = chunk;
+		this.offset = offset;
+		this.decoded = decoded;
+	}
+
+	/**
+	 * @brief: Creates the line [start, end) of the source; `ascii` tells whether all its bytes are known to be below 0x80.
+	 */
+	public static SourceLine of(SourceBuffer source, long start, long end, boolean ascii) {
+		ByteBuffer chunk = source.chunkOf(start);
+		int offset = SourceBuffer.chunkOffset(start);
+		if (ascii && chunk != null && offset + (end - start) <= chunk.limit()) {
+			return new SourceLine(source, start, end, chunk, offset, null);
+		}
+		return new SourceLine(source, start, end, null, 0, source.decode(start, end));
+	}
+
+	public SourceBuffer getSource() {
+		return source;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @brief: Tells whether the line is a view over pure-ASCII bytes (rather than a decoded String).
+	 */
+	public boolean isAscii() {
+		return decoded == null;
+	}
+
+	@Override
+	public int length() {
+		return (decoded != null) ? decoded.length() : (int) (end - start);
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (decoded != null) {
+			return decoded.charAt(index);
+		}
+		if (index < 0 || index >= end - start) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return (char) chunk.get(offset + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int from, int to) {
+		if (decoded != null) {
+			return decoded.substring(from, to);
+		}
+		if (from < 0 || to > end - start || from > to) {
+			throw new IndexOutOfBoundsException("[" + from + ", " + to + ")");
+		}
+		return new SourceLine(source, start + from, start + to, chunk, offset + from, null);
+	}
+
+	@Override
+	public String toString() {
+		if (decoded != null) {
+			return decoded;
+		}
+		byte[] bytes = new byte[(int) (end - start)];
+		chunk.get(offset, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1); // ASCII, so each byte is its char
+	}
+}
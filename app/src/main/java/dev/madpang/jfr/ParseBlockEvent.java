@@ -0,0 +1,35 @@
+/**
+ * @file: ParseBlockEvent.java
+ * @brief: JFR event of a `BlockParser.tryParse`, whether the parser matched the line or not.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.madpang.ParseBlock")
+@Label("Parse Block")
+@Description("A registered block parser tried on a line")
+@Category({ "mmd2html", "Parse" })
+@Enabled(false)
+@StackTrace(false)
+public final class ParseBlockEvent extends jdk.jfr.Event {
+	@Label("Parser")
+	@Description("Trigger prefix of the parser, empty for a parser tried on every line")
+	public String parser;
+
+	@Label("Block Type")
+	@Description("Type of the block parsed, null when the parser did not match")
+	public String blockType;
+
+	@Label("Lines")
+	@Description("Lines read by the parser, after the first one")
+	public long lines;
+}
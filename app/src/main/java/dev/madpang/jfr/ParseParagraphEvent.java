@@ -0,0 +1,29 @@
+/**
+ * @file: ParseParagraphEvent.java
+ * @brief: JFR event of a `SemanticParagraph.parse`.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.madpang.ParseParagraph")
+@Label("Parse Semantic Paragraph")
+@Description("Parsing of a semantic paragraph, up to the blank line closing it")
+@Category({ "mmd2html", "Parse" })
+@Enabled(false)
+@StackTrace(false)
+public final class ParseParagraphEvent extends jdk.jfr.Event {
+	@Label("Lines")
+	public long lines;
+
+	@Label("Blocks")
+	public int blocks;
+}
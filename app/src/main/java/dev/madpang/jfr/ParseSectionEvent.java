@@ -0,0 +1,36 @@
+/**
+ * @file: ParseSectionEvent.java
+ * @brief: JFR event of a `MmdSection.parse`, with the sub-sections it builds.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.madpang.ParseSection")
+@Label("Parse Section")
+@Description("Parsing of a section and of its sub-sections")
+@Category({ "mmd2html", "Parse" })
+@Enabled(false)
+@StackTrace(false)
+public final class ParseSectionEvent extends jdk.jfr.Event {
+	@Label("Level")
+	public int level;
+
+	@Label("Heading")
+	public String heading;
+
+	@Label("Lines")
+	@Description("Lines read, from the heading up to the line closing the section")
+	public long lines;
+
+	@Label("Sub-sections")
+	public int subSections;
+}
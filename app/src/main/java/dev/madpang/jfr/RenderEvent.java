@@ -0,0 +1,35 @@
+/**
+ * @file: RenderEvent.java
+ * @brief: JFR event of a `toHTML`, of a section, a semantic paragraph or a block.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.madpang.Render")
+@Label("Render")
+@Description("Rendering of a node to HTML; the one of a section includes its sub-sections")
+@Category({ "mmd2html", "Render" })
+@Enabled(false)
+@StackTrace(false)
+public final class RenderEvent extends jdk.jfr.Event {
+	@Label("Node")
+	@Description("\"section\", \"semantic-paragraph\", or the type of the block")
+	public String node;
+
+	@Label("Level")
+	@Description("Level of a section, 0 otherwise")
+	public int level;
+
+	@Label("Lines")
+	@Description("Source lines held by the node, not counting the sub-sections of a section")
+	public long lines;
+}
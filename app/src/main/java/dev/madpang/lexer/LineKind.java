@@ -0,0 +1,24 @@
+/**
+ * @file: LineKind.java
+ * @brief: The lexical kinds of a line of a MMD document.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.lexer;
+
+/**
+ * @note:
+ * A kind only tells what the line looks like, not what it means in its context:
+ * e.g. a HEADING line inside a code block is still code, and a HEADER_META line outside of the header is still text.
+ * It is up to each parser to interpret the kind in its own context.
+ */
+public enum LineKind {
+	BLANK,         // empty, or only whitespace
+	HEADING,       // "# ...", "## ..." or "### ...", with the heading level
+	FUZZY_HEADING, // "=== ..." or "--- ...", with the level 1 or 2, relative to the preceding explicit HEADING
+	FENCE_OPEN,    // "``` tag", with the tag (e.g. "java", or "header")
+	FENCE_CLOSE,   // exactly "```"
+	HEADER_META,   // "@key:value", with the key in [a-z]+ and the value
+	TEXT           // anything else
+}
@@ -0,0 +1,53 @@
+/**
+ * @file: LineLexer.java
+ * @brief: The lexer stage in front of the parsers: reads each line once and tags it with its kind.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ * @see LineToken.java
+ */
+
+package dev.madpang.lexer;
+
+import java.io.IOException;
+
+import dev.madpang.io.LineSource;
+
+/**
+ * A LineSource handing out LineToken's, so every parser down the line reads the kind of a line instead of matching it again.
+ *
+ * @note:
+ * Every parse method wraps the source it is given with `LineLexer.of`, which is a no-op when the source is already a lexer;
+ * so the lines are classified once, by the outermost parser, whichever entry point is used.
+ */
+public final class LineLexer implements LineSource {
+	private final LineSource source;
+	private long lines; // lines read so far
+
+	private LineLexer(LineSource source) {
+		this.source = source;
+	}
+
+	/**
+	 * @brief: The lexer of the source, the source itself if it is one already.
+	 */
+	public static LineLexer of(LineSource source) {
+		return (source instanceof LineLexer lexer) ? lexer : new LineLexer(source);
+	}
+
+	@Override
+	public LineToken readLine() throws IOException {
+		CharSequence line = source.readLine();
+		if (line == null) {
+			return null;
+		}
+		lines++;
+		return LineToken.of(line);
+	}
+
+	/**
+	 * @brief: The number of lines read so far.
+	 */
+	public long lineCount() {
+		return lines;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * @file: LineToken.java
+ * @brief: A line of a MMD document, tagged with its lexical kind.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ * @see LineKind.java
+ */
+
+package dev.madpang.lexer;
+
+import dev.madpang.util.CommonUtil;
+
+/**
+ * A line together with its kind, classified in a single forward pass over the line.
+ *
+ * @details:
+ * The classification gives exactly the same answers as the patterns the parsers used to match on every line, without any backtracking:
+ * - heading:     `^(#{1,3}) (\S.*)$`
+ * - fuzzy:       `^(===|---) (\S.*)$`
+ * - fence open:  `^`{3} (\S.*)$`
+ * - header meta: `^@([a-z]+):(.*)$`
+ * Hence, as for `.` in a pattern, the title/tag/value of a line can not contain a line terminator ('\u0085', '\u2028' or '\u2029').
+ *
+ * @note:
+ * The token is a CharSequence of the line itself, so it can be handed to any method taking a line;
+ * but it should not be kept in the AST, keep the underlying `text` instead (see `textOf`).
+ */
+public final class LineToken implements CharSequence {
+	public final CharSequence text; // the line as read from the source
+	public final LineKind kind;
+	public final int level;         // level of a HEADING, relative level of a FUZZY_HEADING, 0 otherwise
+	private final int keyEnd;       // end of the key of a HEADER_META, which starts after '@'
+	private final int valueStart;   // start of the title of a (fuzzy) HEADING, the tag of a FENCE_OPEN, the value of a HEADER_META
+
+	private LineToken(CharSequence text, LineKind kind, int level, int keyEnd, int valueStart) {
+		this.text = text;
+		this.kind = kind;
+		this.level = level;
+		this.keyEnd = keyEnd;
+		this.valueStart = valueStart;
+	}
+
+	/**
+	 * @brief: Tags the line, unless it is already a token.
+	 * @return: The token of the line, or null for a null line.
+	 */
+	public static LineToken of(CharSequence line) {
+		if (line == null) {
+			return null;
+		}
+		if (line instanceof LineToken token) {
+			return token;
+		}
+		return classify(line);
+	}
+
+	/**
+	 * @brief: The underlying line of a token, or the line itself if it is not a token.
+	 */
+	public static CharSequence textOf(CharSequence line) {
+		return (line instanceof LineToken token) ? token.text : line;
+	}
+
+	/**
+	 * @brief: The title of a (fuzzy) HEADING, the tag of a FENCE_OPEN or the value of a HEADER_META, as a view of the line.
+	 */
+	public CharSequence value() {
+		return text.subSequence(valueStart, text.length());
+	}
+
+	/**
+	 * @brief: The key of a HEADER_META, e.g. "date" for "@date: ...".
+	 */
+	public String key() {
+		return text.subSequence(1, keyEnd).toString();
+	}
+
+	private static LineToken classify(CharSequence line) {
+		if (CommonUtil.isBlank(line)) {
+			return new LineToken(line, LineKind.BLANK, 0, 0, 0);
+		}
+		int n = line.length();
+		switch (line.charAt(0)) {
+			case '#': {
+				int level = 1;
+				while (level < n && line.charAt(level) == '#') {
+					level++;
+				}
+				if (level <= 3 && startsTitle(line, level)) {
+					return new LineToken(line, LineKind.HEADING, level, 0, level + 1);
+				}
+				break;
+			}
+			case '=':
+			case '-': {
+				// "===" is a major fuzzy heading, one level below the preceding explicit heading; "---" a minor one, two levels below
+				char c = line.charAt(0);
+				if (n >= 3 && line.charAt(1) == c && line.charAt(2) == c && startsTitle(line, 3)) {
+					return new LineToken(line, LineKind.FUZZY_HEADING, (c == '=') ? 1 : 2, 0, 4);
+				}
+				break;
+			}
+			case '`': {
+				if (n >= 3 && line.charAt(1) == '`' && line.charAt(2) == '`') {
+					if (n == 3) {
+						return new LineToken(line, LineKind.FENCE_CLOSE, 0, 0, 0);
+					}
+					if (startsTitle(line, 3)) {
+						return new LineToken(line, LineKind.FENCE_OPEN, 0, 0, 4);
+					}
+				}
+				break;
+			}
+			case '@': {
+				int keyEnd = 1;
+				while (keyEnd < n && line.charAt(keyEnd) >= 'a' && line.charAt(keyEnd) <= 'z') {
+					keyEnd++;
+				}
+				if (keyEnd > 1 && keyEnd < n && line.charAt(keyEnd) == ':' && !hasTerminator(line, keyEnd + 1)) {
+					return new LineToken(line, LineKind.HEADER_META, 0, keyEnd, keyEnd + 1);
+				}
+				break;
+			}
+			default:
+				break;
+		}
+		return new LineToken(line, LineKind.TEXT, 0, 0, 0);
+	}
+
+	/**
+	 * @brief: Whether the line continues at `i` with " " and a non-space character, i.e. `^.{i} (\S.*)$`.
+	 */
+	private static boolean startsTitle(CharSequence line, int i) {
+		if (i + 1 >= line.length() || line.charAt(i) != ' ') {
+			return false;
+		}
+		switch (line.charAt(i + 1)) {
+			case ' ', '\t', '\n', '\u000B', '\f', '\r':
+				return false;
+			default:
+				return !hasTerminator(line, i + 2);
+		}
+	}
+
+	/**
+	 * @brief: Whether there is any character that `.` does not match in a pattern, from `from` to the end of the line.
+	 */
+	private static boolean hasTerminator(CharSequence line, int from) {
+		for (int i = from; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/* CharSequence of the underlying line ---------------------------------- */
+	@Override
+	public int length() {
+		return text.length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return text.charAt(index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return text.subSequence(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return text.toString();
+	}
+}
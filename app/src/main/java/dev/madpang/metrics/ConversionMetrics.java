@@ -0,0 +1,294 @@
+/**
+ * @file: ConversionMetrics.java
+ * @brief: Counters and phase timers of the conversions run by this process, reported by `--stats` and scraped by the services.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.metrics;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.madpang.ast.MmdSection;
+import dev.madpang.ast.SemanticParagraph;
+import dev.madpang.ast.blocks.IBlock;
+
+/**
+ * Metrics of the conversions, aggregated over all the documents and threads.
+ *
+ * @details:
+ * A conversion goes through 4 phases: the header parse and the body parse (in MmdDocument.parse), then the rendering and the writing of the HTML (by the caller).
+ * The phases are timed with `start`, `lap` and `stop`, the shape of the documents is counted by `recordParsed`, and the totals of a document by `recordDocument`.
+ * `snapshot` gives all the values by name, for a long-running process to scrape.
+ *
+ * @note:
+ * The metrics are disabled by default, then every recording method is a single volatile read: `start` returns 0, which the others ignore.
+ * The allocated bytes are those of the thread running the conversion, the tasks of ParallelParser and ParallelRenderer are not included.
+ */
+public final class ConversionMetrics {
+	/**
+	 * The instance every conversion records into.
+	 */
+	public static final ConversionMetrics GLOBAL = new ConversionMetrics();
+
+	public enum Phase {
+		HEADER_PARSE, BODY_PARSE, RENDER, WRITE;
+
+		/**
+		 * @brief: The name of the phase in the reports, e.g. "header_parse".
+		 */
+		public String label() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private volatile boolean enabled;
+	private final LongAdder documents = new LongAdder();
+	private final LongAdder lines = new LongAdder();
+	private final LongAdder sections = new LongAdder();
+	private final LongAdder semanticParagraphs = new LongAdder();
+	private final Map<String, LongAdder> blocks = new ConcurrentHashMap<>(); // by IBlock.getType()
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+
+	public ConversionMetrics() {
+		for (Phase phase : Phase.values()) {
+			phaseNanos.put(phase, new LongAdder());
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @brief: Clears all the values.
+	 */
+	public void reset() {
+		documents.reset();
+		lines.reset();
+		sections.reset();
+		semanticParagraphs.reset();
+		blocks.clear();
+		bytesIn.reset();
+		bytesOut.reset();
+		allocatedBytes.reset();
+		phaseNanos.values().forEach(LongAdder::reset);
+	}
+
+	/* recording ------------------------------------------------------------ */
+	/**
+	 * @brief: Starts timing a phase.
+	 * @return: The start time, 0 when disabled.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * @brief: Ends the phase started at `start`.
+	 */
+	public void stop(Phase phase, long start) {
+		if (start != 0) {
+			phaseNanos.get(phase).add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @brief: Ends the phase started at `start`, and starts the next one.
+	 * @return: The start time of the next phase, 0 when disabled.
+	 */
+	public long lap(Phase phase, long start) {
+		if (start == 0) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		phaseNanos.get(phase).add(now - start);
+		return now;
+	}
+
+	/**
+	 * @brief: Counts the lines read for a document, and the sections, semantic paragraphs and blocks of its body.
+	 */
+	public void recordParsed(MmdSection body, long lineCount) {
+		if (!enabled) {
+			return;
+		}
+		lines.add(lineCount);
+		count(body);
+	}
+
+	private void count(MmdSection section) {
+		sections.increment();
+		for (SemanticParagraph para : section.sParagraphs) {
+			semanticParagraphs.increment();
+			for (IBlock block : para.getBlocks()) {
+				blocks.computeIfAbsent(block.getType(), type -> new LongAdder()).increment();
+			}
+		}
+		for (MmdSection sub : section.subSections) {
+			count(sub);
+		}
+	}
+
+	/**
+	 * @brief: Wraps the stream the HTML is written to, to measure the write phase; the stream itself when disabled.
+	 */
+	public OutputStream meter(OutputStream out) {
+		return enabled ? new MeteredOutputStream(out) : out;
+	}
+
+	/**
+	 * @brief: Ends the render phase started at `start`, once the HTML is written and `out` (from `meter`) is closed.
+	 *
+	 * @details: The time spent in the writes of the stream is the write phase, the rest is the render phase.
+	 */
+	public void recordOutput(long start, OutputStream out) {
+		if (start == 0 || !(out instanceof MeteredOutputStream metered)) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		phaseNanos.get(Phase.RENDER).add(elapsed - metered.nanos());
+		phaseNanos.get(Phase.WRITE).add(metered.nanos());
+		bytesOut.add(metered.bytes());
+	}
+
+	/**
+	 * @brief: Ends the render phase started at `start`, for HTML rendered in memory.
+	 */
+	public void recordOutput(long start, long outputBytes) {
+		if (start != 0) {
+			phaseNanos.get(Phase.RENDER).add(System.nanoTime() - start);
+			bytesOut.add(outputBytes);
+		}
+	}
+
+	/**
+	 * @brief: The bytes allocated so far by the current thread, to be handed to `recordDocument`; 0 when disabled.
+	 */
+	public long allocatedBytes() {
+		return enabled ? Allocation.currentThread() : 0;
+	}
+
+	/**
+	 * @brief: Counts a converted document, of `inputBytes` bytes, with the bytes allocated since `allocatedAtStart` (from `allocatedBytes`).
+	 */
+	public void recordDocument(long inputBytes, long allocatedAtStart) {
+		if (!enabled) {
+			return;
+		}
+		documents.increment();
+		bytesIn.add(inputBytes);
+		if (allocatedAtStart > 0) {
+			allocatedBytes.add(Allocation.currentThread() - allocatedAtStart);
+		}
+	}
+
+	/* reporting ------------------------------------------------------------ */
+	/**
+	 * @brief: All the values by name, in a stable order; the names follow the Prometheus conventions, e.g. `blocks_total{type="code"}`.
+	 */
+	public Map<String, Long> snapshot() {
+		Map<String, Long> values = new LinkedHashMap<>();
+		values.put("documents_total", documents.sum());
+		values.put("lines_total", lines.sum());
+		values.put("sections_total", sections.sum());
+		values.put("semantic_paragraphs_total", semanticParagraphs.sum());
+		for (Map.Entry<String, Long> entry : blockCounts().entrySet()) {
+			values.put("blocks_total{type=\"" + entry.getKey() + "\"}", entry.getValue());
+		}
+		values.put("bytes_in_total", bytesIn.sum());
+		values.put("bytes_out_total", bytesOut.sum());
+		values.put("allocated_bytes_total", allocatedBytes.sum());
+		for (Phase phase : Phase.values()) {
+			values.put("phase_nanoseconds_total{phase=\"" + phase.label() + "\"}", phaseNanos.get(phase).sum());
+		}
+		return values;
+	}
+
+	private Map<String, Long> blockCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		blocks.forEach((type, count) -> counts.put(type, count.sum()));
+		return counts;
+	}
+
+	/**
+	 * @brief: A human-readable report.
+	 */
+	public String toTable() {
+		long docs = documents.sum();
+		StringBuilder sb = new StringBuilder();
+		sb.append("===     Conversion stats    ===\n");
+		row(sb, "documents", docs);
+		row(sb, "lines", lines.sum());
+		row(sb, "sections", sections.sum());
+		row(sb, "semantic paragraphs", semanticParagraphs.sum());
+		blockCounts().forEach((type, count) -> row(sb, "blocks: " + type, count));
+		row(sb, "bytes in", bytesIn.sum());
+		row(sb, "bytes out", bytesOut.sum());
+		row(sb, "allocated bytes / doc", (docs == 0) ? 0 : allocatedBytes.sum() / docs);
+		sb.append(String.format(Locale.ROOT, "%-22s %12s %12s%n", "phase", "total ms", "ms / doc"));
+		for (Phase phase : Phase.values()) {
+			double millis = phaseNanos.get(phase).sum() / 1e6;
+			sb.append(String.format(Locale.ROOT, "%-22s %12.3f %12.3f%n", phase.label(), millis, (docs == 0) ? 0.0 : millis / docs));
+		}
+		sb.append("--------------------------------");
+		return sb.toString();
+	}
+
+	private static void row(StringBuilder sb, String name, long value) {
+		sb.append(String.format(Locale.ROOT, "%-22s %12d%n", name, value));
+	}
+
+	/**
+	 * @brief: The same report as JSON, the phases in nanoseconds.
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder("{");
+		sb.append("\"documents\":").append(documents.sum());
+		sb.append(",\"lines\":").append(lines.sum());
+		sb.append(",\"sections\":").append(sections.sum());
+		sb.append(",\"semanticParagraphs\":").append(semanticParagraphs.sum());
+		sb.append(",\"blocks\":{");
+		String separator = "";
+		for (Map.Entry<String, Long> entry : blockCounts().entrySet()) {
+			sb.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+			separator = ",";
+		}
+		sb.append("},\"bytesIn\":").append(bytesIn.sum());
+		sb.append(",\"bytesOut\":").append(bytesOut.sum());
+		sb.append(",\"allocatedBytes\":").append(allocatedBytes.sum());
+		sb.append(",\"phaseNanos\":{");
+		separator = "";
+		for (Phase phase : Phase.values()) {
+			sb.append(separator).append('"').append(phase.label()).append("\":").append(phaseNanos.get(phase).sum());
+			separator = ",";
+		}
+		return sb.append("}}").toString();
+	}
+
+	/**
+	 * @note: A holder, so that the management classes are only loaded once the metrics are enabled.
+	 */
+	private static final class Allocation {
+		private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		static long currentThread() {
+			return THREADS.getCurrentThreadAllocatedBytes();
+		}
+	}
+}
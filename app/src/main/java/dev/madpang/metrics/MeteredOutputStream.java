@@ -0,0 +1,55 @@
+/**
+ * @file: MeteredOutputStream.java
+ * @brief: An output stream counting the bytes written through it, and the time spent writing them.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @note: Meant to sit below a buffered writer, so that it is only called once per buffer and timing every call costs nothing noticeable.
+ */
+final class MeteredOutputStream extends FilterOutputStream {
+	private long bytes;
+	private long nanos;
+
+	MeteredOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	long bytes() {
+		return bytes;
+	}
+
+	long nanos() {
+		return nanos;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		long start = System.nanoTime();
+		out.write(b);
+		nanos += System.nanoTime() - start;
+		bytes++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		long start = System.nanoTime();
+		out.write(b, off, len);
+		nanos += System.nanoTime() - start;
+		bytes += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		long start = System.nanoTime();
+		out.flush();
+		nanos += System.nanoTime() - start;
+	}
+}
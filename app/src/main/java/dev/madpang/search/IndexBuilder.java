@@ -0,0 +1,230 @@
+/**
+ * @file: IndexBuilder.java
+ * @brief: Builds the inverted index of a corpus from the parsed documents, one builder per worker, merged at the end.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.madpang.ast.MmdSection;
+import dev.madpang.ast.SemanticParagraph;
+import dev.madpang.ast.blocks.IBlock;
+
+/**
+ * An in-memory inverted index: for every term, the sections it occurs in, with the number of occurrences.
+ *
+ * @details:
+ * The text of a section is its heading and the source lines of its blocks (IBlock.getLines), the same text the HTML is rendered from.
+ * The sections of a document are numbered in document order, the root section being 0: the number is the anchor of a hit.
+ * Documents are numbered in the order they are added, so the postings of a term are always sorted, and appending them is all there is to building the index.
+ *
+ * @note:
+ * A builder is not thread-safe: every worker fills its own, then they are merged with `merge`, which renumbers the documents of the merged builder after the ones already there.
+ */
+public final class IndexBuilder {
+	private final List<String> paths = new ArrayList<>();
+	private final List<List<String>> headings = new ArrayList<>(); // of the sections, by document
+	private final Map<String, Postings> postings = new HashMap<>();
+
+	/**
+	 * The postings of one term, as parallel arrays sorted by (document, section).
+	 */
+	private static final class Postings {
+		int[] documents = new int[4];
+		int[] sections = new int[4];
+		int[] counts = new int[4];
+		int size;
+
+		void add(int document, int section, int count) {
+			if (size > 0 && documents[size - 1] == document && sections[size - 1] == section) {
+				counts[size - 1] += count;
+				return;
+			}
+			if (size == documents.length) {
+				documents = Arrays.copyOf(documents, 2 * size);
+				sections = Arrays.copyOf(sections, 2 * size);
+				counts = Arrays.copyOf(counts, 2 * size);
+			}
+			documents[size] = document;
+			sections[size] = section;
+			counts[size] = count;
+			size++;
+		}
+	}
+
+	/**
+	 * @brief: Indexes the body of a document, `path` being what a hit refers to (e.g. the link to its HTML).
+	 */
+	public void addDocument(String path, MmdSection body) {
+		int document = paths.size();
+		List<String> sectionHeadings = new ArrayList<>();
+		paths.add(path);
+		headings.add(sectionHeadings);
+		addSection(document, body, sectionHeadings);
+	}
+
+	private void addSection(int document, MmdSection section, List<String> sectionHeadings) {
+		int ordinal = sectionHeadings.size();
+		String heading = (section.headLine == null) ? "" : section.headLine.toString();
+		sectionHeadings.add(heading);
+		Tokenizer.tokenize(heading, term -> add(term, document, ordinal));
+		for (SemanticParagraph para : section.sParagraphs) {
+			for (IBlock block : para.getBlocks()) {
+				List<? extends CharSequence> lines = block.getLines();
+				if (lines == null) {
+					continue;
+				}
+				for (CharSequence line : lines) {
+					Tokenizer.tokenize(line, term -> add(term, document, ordinal));
+				}
+			}
+		}
+		for (MmdSection sub : section.subSections) {
+			addSection(document, sub, sectionHeadings);
+		}
+	}
+
+	private void add(String term, int document, int section) {
+		postings.computeIfAbsent(term, t -> new Postings()).add(document, section, 1);
+	}
+
+	/**
+	 * @brief: Appends the documents of `other` to this index; `other` is left unchanged.
+	 */
+	public void merge(IndexBuilder other) {
+		int offset = paths.size();
+		paths.addAll(other.paths);
+		headings.addAll(other.headings);
+		for (Map.Entry<String, Postings> entry : other.postings.entrySet()) {
+			Postings from = entry.getValue();
+			Postings to = postings.computeIfAbsent(entry.getKey(), t -> new Postings());
+			for (int i = 0; i < from.size; i++) {
+				to.add(offset + from.documents[i], from.sections[i], from.counts[i]);
+			}
+		}
+	}
+
+	public int documentCount() {
+		return paths.size();
+	}
+
+	public int termCount() {
+		return postings.size();
+	}
+
+	/* serialization -------------------------------------------------------- */
+	/**
+	 * @brief: Writes the index in the format read by SearchIndex, atomically replacing the file.
+	 */
+	public void write(Path file) throws IOException {
+		Path target = file.toAbsolutePath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+				write(out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @brief: Writes the index to a stream (see SearchIndex for the format).
+	 */
+	public void write(OutputStream out) throws IOException {
+		out.write(SearchIndex.MAGIC);
+		out.write(SearchIndex.FORMAT_VERSION);
+		// [1] Documents, with the headings of their sections
+		VarInts.write(out, paths.size());
+		for (int d = 0; d < paths.size(); d++) {
+			VarInts.writeString(out, paths.get(d));
+			List<String> sectionHeadings = headings.get(d);
+			VarInts.write(out, sectionHeadings.size());
+			for (String heading : sectionHeadings) {
+				VarInts.writeString(out, heading);
+			}
+		}
+		// [2] Terms, sorted and front-coded, each followed by its postings
+		String[] terms = postings.keySet().toArray(new String[0]);
+		Arrays.sort(terms);
+		VarInts.write(out, terms.length);
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		String previous = "";
+		for (String term : terms) {
+			int shared = sharedPrefix(previous, term);
+			VarInts.write(out, shared);
+			VarInts.writeString(out, term.substring(shared));
+			previous = term;
+			Postings p = postings.get(term);
+			encoded.reset();
+			int document = 0;
+			int section = 0;
+			for (int i = 0; i < p.size; i++) {
+				// the section is relative to the previous posting within a document, absolute in a new one
+				int documentDelta = p.documents[i] - document;
+				VarInts.write(encoded, documentDelta);
+				VarInts.write(encoded, (documentDelta == 0) ? p.sections[i] - section : p.sections[i]);
+				VarInts.write(encoded, p.counts[i]);
+				document = p.documents[i];
+				section = p.sections[i];
+			}
+			VarInts.write(out, p.size);
+			VarInts.write(out, encoded.size());
+			encoded.writeTo(out);
+		}
+	}
+
+	/**
+	 * @brief: The length of the common prefix, never ending between the two chars of a surrogate pair, so that both parts encode to UTF-8.
+	 */
+	private static int sharedPrefix(String a, String b) {
+		int n = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < n && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Unsigned LEB128 integers and length-prefixed UTF-8 strings, shared with SearchIndex.
+	 */
+	static final class VarInts {
+		private VarInts() {
+		}
+
+		static void write(OutputStream out, int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write(value);
+		}
+
+		static void writeString(OutputStream out, String value) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			write(out, bytes.length);
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * @file: SearchIndex.java
+ * @brief: A full-text search index of a corpus, loaded from the file written by IndexBuilder, with a local query API.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class SearchIndex {
+	/**
+	 * @note:
+	 * The file is binary, integers are unsigned LEB128 varints and strings are UTF-8 prefixed by their byte length:
+	 * ----------------------------------------------------------------
+	 * | "MMDS" <format-version: 1 byte>                              |
+	 * | <document-count>                                             |
+	 * |   <path> <section-count> <heading>...                        | <- per document
+	 * | <term-count>                                                 |
+	 * |   <shared-prefix> <suffix> <posting-count> <byte-length>     | <- per term, sorted
+	 * |     (<document-delta> <section> <count>)...                  | <- its postings
+	 * ----------------------------------------------------------------
+	 * A term shares `shared-prefix` chars with the previous one (front coding).
+	 * In the postings, the section is relative to the previous posting when the document delta is 0, absolute otherwise.
+	 *
+	 * @details:
+	 * The whole file is loaded in memory, only the dictionary is decoded up front; the postings of a term are decoded when a query needs them.
+	 * The index is immutable once loaded, so it can be queried from any number of threads.
+	 */
+	public static final String DEFAULT_FILE_NAME = ".mmd2html-search";
+	static final byte[] MAGIC = { 'M', 'M', 'D', 'S' };
+	static final int FORMAT_VERSION = 1;
+
+	/**
+	 * A section matching a query: the document (as given to IndexBuilder.addDocument), the section number in document order, its heading, and the number of occurrences of the terms.
+	 */
+	public record Hit(String path, int section, String heading, int score) {
+	}
+
+	private final byte[] data;
+	private final String[] paths;
+	private final String[][] headings;
+	private final String[] terms;       // sorted
+	private final int[] postingCounts;  // by term
+	private final int[] postingOffsets; // by term, in `data`
+
+	private SearchIndex(byte[] data) throws IOException {
+		this.data = data;
+		Reader reader = new Reader(data);
+		if (data.length < MAGIC.length + 1 || !Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+			throw new IOException("[ERROR] Not a search index.");
+		}
+		reader.position = MAGIC.length;
+		int version = data[reader.position++];
+		if (version != FORMAT_VERSION) {
+			throw new IOException("[ERROR] Unsupported search index version: " + version);
+		}
+		int documents = reader.varint();
+		paths = new String[documents];
+		headings = new String[documents][];
+		for (int d = 0; d < documents; d++) {
+			paths[d] = reader.string();
+			headings[d] = new String[reader.varint()];
+			for (int s = 0; s < headings[d].length; s++) {
+				headings[d][s] = reader.string();
+			}
+		}
+		int count = reader.varint();
+		terms = new String[count];
+		postingCounts = new int[count];
+		postingOffsets = new int[count];
+		String previous = "";
+		for (int t = 0; t < count; t++) {
+			int shared = reader.varint();
+			terms[t] = previous.substring(0, shared) + reader.string();
+			previous = terms[t];
+			postingCounts[t] = reader.varint();
+			int length = reader.varint();
+			postingOffsets[t] = reader.position;
+			reader.position += length;
+		}
+		if (reader.position != data.length) {
+			throw new IOException("[ERROR] Corrupted search index.");
+		}
+	}
+
+	/**
+	 * @brief: Loads an index written by IndexBuilder.write.
+	 * @throws: IOException If the file cannot be read, or is not an index of this format version.
+	 */
+	public static SearchIndex load(Path file) throws IOException {
+		try {
+			return new SearchIndex(Files.readAllBytes(file));
+		} catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException("[ERROR] Truncated search index: " + file, e);
+		}
+	}
+
+	public int documentCount() {
+		return paths.length;
+	}
+
+	public int termCount() {
+		return terms.length;
+	}
+
+	/**
+	 * @brief: Finds the sections containing all the terms of the query, the highest scores first.
+	 *
+	 * @param[in]: query -- Free text, split into terms as the documents were (see Tokenizer).
+	 * @param[in]: limit -- The maximum number of hits.
+	 * @return: The hits, by decreasing score, then in corpus order; none for a query without terms.
+	 */
+	public List<Hit> search(String query, int limit) {
+		Set<String> queryTerms = new LinkedHashSet<>();
+		Tokenizer.tokenize(query, queryTerms::add);
+		// [1] Start from the rarest term, so that the candidates only shrink
+		List<Integer> found = new ArrayList<>();
+		for (String term : queryTerms) {
+			int t = Arrays.binarySearch(terms, term);
+			if (t < 0) {
+				return List.of();
+			}
+			found.add(t);
+		}
+		if (found.isEmpty()) {
+			return List.of();
+		}
+		found.sort(Comparator.comparingInt(t -> postingCounts[t]));
+		long[] keys = new long[postingCounts[found.get(0)]];
+		int[] scores = new int[keys.length];
+		int size = decode(found.get(0), keys, scores);
+		// [2] Intersect with the postings of the other terms, both sorted by (document, section)
+		for (int i = 1; i < found.size() && size > 0; i++) {
+			int t = found.get(i);
+			long[] otherKeys = new long[postingCounts[t]];
+			int[] otherScores = new int[otherKeys.length];
+			int otherSize = decode(t, otherKeys, otherScores);
+			int kept = 0;
+			for (int a = 0, b = 0; a < size && b < otherSize; ) {
+				if (keys[a] < otherKeys[b]) {
+					a++;
+				} else if (keys[a] > otherKeys[b]) {
+					b++;
+				} else {
+					keys[kept] = keys[a];
+					scores[kept++] = scores[a++] + otherScores[b++];
+				}
+			}
+			size = kept;
+		}
+		// [3] Rank
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> (scores[a] != scores[b]) ? Integer.compare(scores[b], scores[a]) : Long.compare(keys[a], keys[b]));
+		List<Hit> hits = new ArrayList<>(Math.min(size, limit));
+		for (int i = 0; i < size && i < limit; i++) {
+			long key = keys[order[i]];
+			int document = (int) (key >>> 32);
+			int section = (int) key;
+			hits.add(new Hit(paths[document], section, headings[document][section], scores[order[i]]));
+		}
+		return hits;
+	}
+
+	/**
+	 * @brief: Decodes the postings of a term into (document << 32 | section) keys, and their counts.
+	 * @return: The number of postings.
+	 */
+	private int decode(int term, long[] keys, int[] counts) {
+		Reader reader = new Reader(data);
+		reader.position = postingOffsets[term];
+		int document = 0;
+		int section = 0;
+		for (int i = 0; i < postingCounts[term]; i++) {
+			int documentDelta = reader.varint();
+			int value = reader.varint();
+			document += documentDelta;
+			section = (documentDelta == 0) ? section + value : value;
+			keys[i] = ((long) document << 32) | section;
+			counts[i] = reader.varint();
+		}
+		return postingCounts[term];
+	}
+
+	/**
+	 * A cursor over the bytes of the index.
+	 */
+	private static final class Reader {
+		final byte[] data;
+		int position;
+
+		Reader(byte[] data) {
+			this.data = data;
+		}
+
+		int varint() {
+			int value = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = data[position++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+		}
+
+		String string() {
+			int length = varint();
+			String value = new String(data, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+	}
+}
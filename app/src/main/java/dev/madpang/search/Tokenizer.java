@@ -0,0 +1,44 @@
+/**
+ * @file: Tokenizer.java
+ * @brief: Splits the text of the documents, and the queries, into search terms.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.search;
+
+import java.util.function.Consumer;
+
+/**
+ * A term is a maximal run of letters and digits, lower-cased; everything else separates terms.
+ * @note: Terms longer than `MAX_TERM_LENGTH` chars are cut, so that a base64 blob in a code block does not bloat the dictionary.
+ */
+public final class Tokenizer {
+	public static final int MAX_TERM_LENGTH = 64;
+
+	private Tokenizer() {
+	}
+
+	/**
+	 * @brief: Hands every term of the text to `sink`, in order, repeated terms included.
+	 */
+	public static void tokenize(CharSequence text, Consumer<String> sink) {
+		StringBuilder term = new StringBuilder(16);
+		int length = text.length();
+		for (int i = 0; i < length; ) {
+			int cp = Character.codePointAt(text, i);
+			i += Character.charCount(cp);
+			if (Character.isLetterOrDigit(cp)) {
+				if (term.length() < MAX_TERM_LENGTH) {
+					term.appendCodePoint(Character.toLowerCase(cp));
+				}
+			} else if (term.length() > 0) {
+				sink.accept(term.toString());
+				term.setLength(0);
+			}
+		}
+		if (term.length() > 0) {
+			sink.accept(term.toString());
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * @file: ConversionDaemon.java
+ * @brief: Resident converter, serving conversion requests over a Unix domain socket.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ * @see DaemonClient.java
+ */
+
+package dev.madpang.service;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.madpang.batch.BatchConverter;
+
+/**
+ * Keeps one warm JVM for build scripts which convert one file per call: each call only costs a round trip on a local socket.
+ *
+ * @details:
+ * The protocol is line based, in UTF-8, one request and one response per line, any number of them per connection:
+ * - "CONVERT\t<input>\t<output>" is answered by "OK\t<micros>", the time spent converting, or by "ERROR\t<message>";
+ * - "SHUTDOWN" is answered by "OK\t0" once the conversions in flight are done, then the daemon stops; a request coming meanwhile is answered by "ERROR".
+ * Paths are absolute, the client resolves them against its own working directory.
+ * Every connection is served on its own virtual thread, so concurrent clients convert in parallel.
+ * A line longer than `LineChannel.MAX_LINE_BYTES` drops the connection, so a stray client can not make the daemon buffer without bound.
+ * The daemon stops by itself once no request has come for the idle timeout, so a forgotten daemon does not linger.
+ */
+public final class ConversionDaemon implements AutoCloseable {
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	static final String CONVERT = "CONVERT";
+	static final String SHUTDOWN = "SHUTDOWN";
+	static final String OK = "OK";
+	static final String ERROR = "ERROR";
+	static final char SEPARATOR = '\t';
+
+	private final Path socketPath;
+	private final long idleTimeoutMillis;
+	private final ServerSocketChannel server;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile long lastActivity = System.nanoTime();
+	private volatile boolean stopping; // a client asked for SHUTDOWN, no more conversion is started
+	private volatile boolean closed;
+
+	/**
+	 * @brief: Binds the socket; a stale socket file left by a dead daemon is replaced, a live daemon is an error.
+	 * @param idleTimeoutMillis: stop after this long without any request, 0 to never stop.
+	 */
+	public ConversionDaemon(Path socketPath, long idleTimeoutMillis) throws IOException {
+		this.socketPath = socketPath;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		if (Files.exists(socketPath)) {
+			if (isListening(socketPath)) {
+				throw new IOException("[ERROR] A daemon is already listening on " + socketPath);
+			}
+			Files.delete(socketPath); // nobody is listening, the file is a leftover
+		}
+		this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		this.server.bind(UnixDomainSocketAddress.of(socketPath));
+		// Connecting needs the write permission: only the owner may, whatever the umask
+		if (socketPath.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+		}
+	}
+
+	private static boolean isListening(Path socketPath) {
+		try {
+			SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+			probe.close();
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @brief: The default socket, `<tmpdir>/mmd2html-<user>.sock`; it is made private to the user once bound (mode 0600), see the constructor.
+	 */
+	public static Path defaultSocketPath() {
+		return Path.of(System.getProperty("java.io.tmpdir"), "mmd2html-" + System.getProperty("user.name") + ".sock");
+	}
+
+	/**
+	 * @brief: Serves requests until the daemon is closed, shut down by a client, or idle for too long.
+	 */
+	public void run() throws IOException {
+		if (idleTimeoutMillis > 0) {
+			Thread.ofVirtual().name("mmd2html-idle-watchdog").start(this::watchIdle);
+		}
+		try {
+			while (!closed) {
+				SocketChannel channel;
+				try {
+					channel = server.accept();
+				} catch (ClosedChannelException e) {
+					break; // closed while waiting
+				}
+				Thread.ofVirtual().start(() -> serve(channel));
+			}
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * @brief: Stops accepting connections and removes the socket file; whoever calls it last returns only once both are done.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		server.close();
+		Files.deleteIfExists(socketPath);
+	}
+
+	/* connection handling -------------------------------------------------- */
+	private void serve(SocketChannel channel) {
+		try (LineChannel connection = new LineChannel(channel)) {
+			String request;
+			while ((request = connection.readLine()) != null) {
+				lastActivity = System.nanoTime();
+				if (request.equals(SHUTDOWN)) {
+					stopping = true;
+					awaitInFlight();
+					respond(connection, OK, "0");
+					close();
+					return;
+				}
+				// counted before `stopping` is read, so that the SHUTDOWN waits for it, or it is refused
+				inFlight.incrementAndGet();
+				try {
+					if (stopping) {
+						respond(connection, ERROR, "[ERROR] The daemon is shutting down.");
+					} else {
+						handle(request, connection);
+					}
+				} finally {
+					inFlight.decrementAndGet();
+					lastActivity = System.nanoTime();
+				}
+			}
+		} catch (IOException e) {
+			// the client went away, nothing to answer to
+		}
+	}
+
+	private void handle(String request, LineChannel out) throws IOException {
+		// [1] Parse "CONVERT\t<input>\t<output>"
+		String[] fields = request.split(String.valueOf(SEPARATOR), -1);
+		if (fields.length != 3 || !fields[0].equals(CONVERT)) {
+			respond(out, ERROR, "[ERROR] Malformed request: " + request);
+			return;
+		}
+		// [2] Convert, timing only the conversion itself
+		long start = System.nanoTime();
+		try {
+			BatchConverter.convert(Path.of(fields[1]), Path.of(fields[2]));
+		} catch (IOException | RuntimeException e) {
+			respond(out, ERROR, "[ERROR] " + fields[1] + ": " + e.getMessage());
+			return;
+		}
+		long micros = (System.nanoTime() - start) / 1_000;
+		respond(out, OK, Long.toString(micros));
+	}
+
+	private static void respond(LineChannel out, String status, String detail) throws IOException {
+		// a message never spans several lines, it would break the framing
+		out.writeLine(status + SEPARATOR + detail.replace('\n', ' ').replace('\r', ' '));
+	}
+
+	/**
+	 * @brief: Waits for the conversions in flight to be done, as `watchIdle` does before closing.
+	 */
+	private void awaitInFlight() throws IOException {
+		try {
+			while (inFlight.get() > 0) {
+				Thread.sleep(10);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("[ERROR] Interrupted while waiting for the conversions in flight.", e);
+		}
+	}
+
+	private void watchIdle() {
+		try {
+			while (!closed) {
+				long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+				if (inFlight.get() == 0 && idleMillis >= idleTimeoutMillis) {
+					System.out.println("[DAEMON] Idle for " + idleMillis + " ms, stopping.");
+					close();
+					return;
+				}
+				Thread.sleep(Math.max(1, Math.min(1000, idleTimeoutMillis - idleMillis)));
+			}
+		} catch (InterruptedException | IOException e) {
+			// stop watching
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * @file: DaemonClient.java
+ * @brief: Thin client of the conversion daemon, and its command line entry point.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ * @see ConversionDaemon.java
+ */
+
+package dev.madpang.service;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Forwards conversion requests to a running ConversionDaemon.
+ *
+ * @note:
+ * The entry point loads nothing of the parser: it only opens a socket, so its own start-up is what a build script pays per call.
+ * Usage: `java -cp ... dev.madpang.service.DaemonClient [--socket <path>] <input-file> <output-file> [<input-file> <output-file>]...`
+ */
+public final class DaemonClient implements AutoCloseable {
+	private final LineChannel connection;
+
+	public DaemonClient(Path socketPath) throws IOException {
+		this.connection = new LineChannel(SocketChannel.open(UnixDomainSocketAddress.of(socketPath)));
+	}
+
+	/**
+	 * @brief: Asks the daemon to convert a file; relative paths are resolved against the working directory of this process.
+	 * @return: The time the daemon spent converting, in microseconds.
+	 * @throws IOException: With the message of the daemon, if the conversion failed.
+	 */
+	public long convert(Path input, Path output) throws IOException {
+		String inputPath = input.toAbsolutePath().toString();
+		String outputPath = output.toAbsolutePath().toString();
+		if (hasControl(inputPath) || hasControl(outputPath)) {
+			throw new IOException("[ERROR] Paths with tabs or line breaks can not be sent to the daemon: " + input + ", " + output);
+		}
+		String response = request(ConversionDaemon.CONVERT + ConversionDaemon.SEPARATOR + inputPath + ConversionDaemon.SEPARATOR + outputPath);
+		return Long.parseLong(response);
+	}
+
+	/**
+	 * @brief: Stops the daemon.
+	 */
+	public void shutdown() throws IOException {
+		request(ConversionDaemon.SHUTDOWN);
+	}
+
+	@Override
+	public void close() throws IOException {
+		connection.close();
+	}
+
+	private String request(String line) throws IOException {
+		connection.writeLine(line);
+		String response = connection.readLine();
+		if (response == null) {
+			throw new IOException("[ERROR] The daemon closed the connection.");
+		}
+		int separator = response.indexOf(ConversionDaemon.SEPARATOR);
+		String status = (separator < 0) ? response : response.substring(0, separator);
+		String detail = (separator < 0) ? "" : response.substring(separator + 1);
+		if (!status.equals(ConversionDaemon.OK)) {
+			throw new IOException(detail);
+		}
+		return detail;
+	}
+
+	private static boolean hasControl(String path) {
+		return path.indexOf('\t') >= 0 || path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0;
+	}
+
+	public static void main(String[] args) {
+		Path socketPath = ConversionDaemon.defaultSocketPath();
+		int first = 0;
+		if (args.length >= 2 && args[0].equals("--socket")) {
+			socketPath = Path.of(args[1]);
+			first = 2;
+		}
+		if (args.length - first == 1 && args[first].equals("--shutdown")) {
+			try (DaemonClient client = new DaemonClient(socketPath)) {
+				client.shutdown();
+				return;
+			} catch (IOException e) {
+				System.err.println("[ERROR] No daemon to stop on " + socketPath + ": " + e.getMessage());
+				System.exit(2);
+			}
+		}
+		if (args.length == first || (args.length - first) % 2 != 0) {
+			System.err.println("Usage: java dev.madpang.service.DaemonClient [--socket <path>] <input-file> <output-file> [<input-file> <output-file>]...");
+			System.err.println("       java dev.madpang.service.DaemonClient [--socket <path>] --shutdown");
+			System.exit(1);
+		}
+		int failures = 0;
+		try (DaemonClient client = new DaemonClient(socketPath)) {
+			for (int i = first; i < args.length; i += 2) {
+				long start = System.nanoTime();
+				try {
+					long micros = client.convert(Path.of(args[i]), Path.of(args[i + 1]));
+					double roundTripMillis = (System.nanoTime() - start) / 1_000_000.0;
+					System.out.printf("[DAEMON] %s -> %s in %.3f ms (conversion %.3f ms)%n", args[i], args[i + 1], roundTripMillis, micros / 1000.0);
+				} catch (IOException e) {
+					System.err.println(e.getMessage()); // the daemon's message, "[ERROR] <input>: ..."
+					failures++;
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("[ERROR] No daemon listening on " + socketPath + ", start one with `MmdConverter --daemon`: " + e.getMessage());
+			System.exit(2);
+		}
+		System.exit(failures == 0 ? 0 : 1);
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * @file: LatencyHistogram.java
+ * @brief: A lock-free histogram of latencies, for percentiles over the whole life of the service.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies in microseconds into log-linear buckets, so that any percentile is known within 12.5%.
+ *
+ * @details:
+ * Below 16 µs every value has its own bucket; above, each power of two is split into 8 sub-buckets.
+ * Recording is one atomic increment and one LongAdder add, so request threads never contend on a lock; the memory is fixed (a few KB) whatever the number of requests.
+ * The exact total of the latencies is kept besides the buckets, for the average (the `_sum` of a Prometheus summary).
+ */
+public final class LatencyHistogram {
+	private static final int LINEAR = 16;    // values with their own bucket
+	private static final int SUB_BITS = 3;   // 2^3 sub-buckets per power of two
+	private static final int BUCKETS = LINEAR + (64 - 4) * (1 << SUB_BITS);
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder sum = new LongAdder();
+
+	public void record(long micros) {
+		long value = Math.max(0, micros);
+		counts.incrementAndGet(indexOf(value));
+		sum.add(value);
+	}
+
+	/**
+	 * @brief: The total of the recorded latencies, in microseconds.
+	 */
+	public long sum() {
+		return sum.sum();
+	}
+
+	public long count() {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * @brief: The latency that a fraction `q` (in [0, 1]) of the recorded ones do not exceed, as the upper bound of its bucket.
+	 * @return: The latency in microseconds, 0 if nothing was recorded.
+	 */
+	public long percentile(double q) {
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(q * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return upperBoundOf(i);
+			}
+		}
+		return upperBoundOf(BUCKETS - 1);
+	}
+
+	static int indexOf(long micros) {
+		if (micros < LINEAR) {
+			return (int) micros;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros); // >= 4
+		int sub = (int) (micros >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+		return LINEAR + ((exponent - 4) << SUB_BITS) + sub;
+	}
+
+	static long upperBoundOf(int index) {
+		if (index < LINEAR) {
+			return index;
+		}
+		int exponent = 4 + ((index - LINEAR) >> SUB_BITS);
+		long sub = (index - LINEAR) & ((1 << SUB_BITS) - 1);
+		long lower = (1L << exponent) + (sub << (exponent - SUB_BITS));
+		return lower + (1L << (exponent - SUB_BITS)) - 1;
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * @file: LineChannel.java
+ * @brief: Reads and writes the UTF-8 lines of the daemon protocol directly on a socket channel.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @note:
+ * The stream adapters of `Channels` (newReader, newInputStream...) block inside a monitor, which pins a virtual thread to its carrier:
+ * with a few idle connections, they could starve every other virtual thread of the daemon.
+ * Reading and writing the channel itself does not, so the lines are framed here instead.
+ */
+final class LineChannel implements AutoCloseable {
+	/**
+	 * @note: The longest line accepted, room enough for a request with two paths of PATH_MAX (4096 bytes) each.
+	 */
+	static final int MAX_LINE_BYTES = 16 * 1024;
+
+	private final SocketChannel channel;
+	private final ByteBuffer input = ByteBuffer.allocate(8192).flip(); // empty, in read mode
+	private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+	LineChannel(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * @brief: Reads the next line, without its "\n".
+	 * @return: The line, or null at the end of the stream.
+	 * @throws: IOException If the line is longer than `MAX_LINE_BYTES`.
+	 */
+	String readLine() throws IOException {
+		line.reset();
+		while (true) {
+			while (input.hasRemaining()) {
+				byte b = input.get();
+				if (b == '\n') {
+					return line.toString(StandardCharsets.UTF_8);
+				}
+				if (line.size() == MAX_LINE_BYTES) {
+					throw new IOException("[ERROR] Line longer than " + MAX_LINE_BYTES + " bytes.");
+				}
+				line.write(b);
+			}
+			input.clear();
+			int read = channel.read(input);
+			input.flip();
+			if (read < 0) {
+				return (line.size() > 0) ? line.toString(StandardCharsets.UTF_8) : null;
+			}
+		}
+	}
+
+	void writeLine(String text) throws IOException {
+		ByteBuffer output = ByteBuffer.wrap((text + "\n").getBytes(StandardCharsets.UTF_8));
+		while (output.hasRemaining()) {
+			channel.write(output);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * @file: RenderServer.java
+ * @brief: Embedded HTTP service rendering MMD documents to HTML, for callers that would otherwise fork one converter process per document.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.madpang.ast.FragmentCache;
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.batch.ConversionManifest;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.metrics.ConversionMetrics;
+import dev.madpang.util.LruCache;
+
+/**
+ * Serves `POST /render` (MMD in the request body, HTML in the response) and `GET /metrics`.
+ *
+ * @details:
+ * Every request runs on its own virtual thread, so slow clients or large documents never hold a platform thread.
+ * Rendered pages are kept in an LRU cache keyed by the SHA-256 of the request body, bounded by the total size of the pages:
+ * a CMS re-rendering unchanged documents is served without parsing them again.
+ * The metrics are plain text in the Prometheus exposition format: request latency percentiles, in-flight requests and the cache hit ratio;
+ * plus the conversion metrics (see ConversionMetrics) when they are enabled.
+ */
+public final class RenderServer implements AutoCloseable {
+	public static final int DEFAULT_PORT = 8080;
+	public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+	public static final int MAX_BODY_BYTES = 64 << 20;
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final LruCache<String, byte[]> cache;
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final long startNanos = System.nanoTime();
+
+	/**
+	 * @brief: Binds the server to the address (port 0 picks a free port); it does not serve until `start()`.
+	 */
+	public RenderServer(InetSocketAddress address, long cacheBytes) throws IOException {
+		this.cache = new LruCache<>(cacheBytes, page -> page.length);
+		this.server = HttpServer.create(address, 0);
+		this.server.setExecutor(executor);
+		this.server.createContext("/render", this::handleRender);
+		this.server.createContext("/metrics", this::handleMetrics);
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * @brief: Renders an MMD document to UTF-8 encoded HTML, from the cache when the same document was rendered before.
+	 * @throws IOException: If the document is not valid MMD.
+	 */
+	public byte[] render(byte[] source) throws IOException {
+		String key = ConversionManifest.hash(source);
+		byte[] page = cache.get(key);
+		if (page == null) {
+			ConversionMetrics metrics = ConversionMetrics.GLOBAL;
+			long allocated = metrics.allocatedBytes();
+			// @note: the document is parsed straight from the request bytes, without decoding it into a String first
+			MmdDocument doc = MmdDocument.parse(new ByteLineSource(SourceBuffer.wrap(source)));
+			long start = metrics.start();
+			StringWriter html = new StringWriter(source.length + (source.length >> 2));
+			doc.toHTML(html);
+			page = html.toString().getBytes(StandardCharsets.UTF_8);
+			metrics.recordOutput(start, page.length);
+			metrics.recordDocument(source.length, allocated);
+			cache.put(key, page);
+		}
+		return page;
+	}
+
+	/**
+	 * @brief: The current metrics, in the Prometheus text format: every family with its `# HELP` and `# TYPE` lines.
+	 */
+	public String metrics() {
+		StringBuilder sb = new StringBuilder();
+		metric(sb, "mmd2html_requests_total", COUNTER, "Render requests received.", requests.sum());
+		metric(sb, "mmd2html_request_failures_total", COUNTER, "Render requests answered with an error.", failures.sum());
+		metric(sb, "mmd2html_requests_in_flight", GAUGE, "Render requests being served.", inFlight.get());
+		family(sb, "mmd2html_request_latency_microseconds", "summary", "Latency of the render requests, over the life of the service.");
+		for (String q : new String[] { "0.5", "0.9", "0.99", "0.999" }) {
+			sample(sb, "mmd2html_request_latency_microseconds{quantile=\"" + q + "\"}", latency.percentile(Double.parseDouble(q)));
+		}
+		sample(sb, "mmd2html_request_latency_microseconds_sum", latency.sum());
+		sample(sb, "mmd2html_request_latency_microseconds_count", latency.count());
+		metric(sb, "mmd2html_cache_hits_total", COUNTER, "Requests served from the page cache.", cache.hits());
+		metric(sb, "mmd2html_cache_misses_total", COUNTER, "Requests rendered, not found in the page cache.", cache.misses());
+		metric(sb, "mmd2html_cache_evictions_total", COUNTER, "Pages evicted from the page cache.", cache.evictions());
+		family(sb, "mmd2html_cache_hit_ratio", GAUGE, "Fraction of the lookups served from the page cache.");
+		sb.append("mmd2html_cache_hit_ratio ").append(String.format(Locale.ROOT, "%.4f", cache.hitRatio())).append('\n');
+		metric(sb, "mmd2html_cache_entries", GAUGE, "Pages in the page cache.", cache.size());
+		metric(sb, "mmd2html_cache_bytes", GAUGE, "Bytes held by the page cache.", cache.weight());
+		metric(sb, "mmd2html_cache_max_bytes", GAUGE, "Bound of the page cache, in bytes.", cache.maxWeight());
+		metric(sb, "mmd2html_uptime_seconds", GAUGE, "Time since the service started.", (System.nanoTime() - startNanos) / 1_000_000_000L);
+		// The conversion metrics, when they are enabled (`--serve --stats`); a labelled family comes in consecutive samples
+		if (ConversionMetrics.GLOBAL.isEnabled()) {
+			String[] last = { null };
+			ConversionMetrics.GLOBAL.snapshot().forEach((name, value) -> {
+				String family = "mmd2html_" + ((name.indexOf('{') >= 0) ? name.substring(0, name.indexOf('{')) : name);
+				if (!family.equals(last[0])) {
+					family(sb, family, COUNTER, "Conversion metric, see ConversionMetrics.");
+					last[0] = family;
+				}
+				sample(sb, "mmd2html_" + name, value);
+			});
+		}
+		// The paragraphs shared by the documents, when the fragment cache is installed (`--serve --fragment-cache-mb <n>`)
+		FragmentCache fragments = FragmentCache.getShared();
+		if (fragments != null) {
+			metric(sb, "mmd2html_fragment_cache_hits_total", COUNTER, "Paragraphs served from the fragment cache.", fragments.hits());
+			metric(sb, "mmd2html_fragment_cache_misses_total", COUNTER, "Paragraphs rendered, not found in the fragment cache.", fragments.misses());
+			metric(sb, "mmd2html_fragment_cache_evictions_total", COUNTER, "Paragraphs evicted from the fragment cache.", fragments.evictions());
+			family(sb, "mmd2html_fragment_cache_hit_ratio", GAUGE, "Fraction of the lookups served from the fragment cache.");
+			sb.append("mmd2html_fragment_cache_hit_ratio ").append(String.format(Locale.ROOT, "%.4f", fragments.hitRatio())).append('\n');
+			metric(sb, "mmd2html_fragment_cache_entries", GAUGE, "Paragraphs in the fragment cache.", fragments.size());
+			metric(sb, "mmd2html_fragment_cache_bytes", GAUGE, "Bytes held by the fragment cache.", fragments.weight());
+			metric(sb, "mmd2html_fragment_cache_max_bytes", GAUGE, "Bound of the fragment cache, in bytes.", fragments.maxWeight());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @brief: Stops accepting requests, and waits for the ones in flight to complete.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.close();
+	}
+
+	/* handlers ------------------------------------------------------------- */
+	private void handleRender(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		inFlight.incrementAndGet();
+		requests.increment();
+		try (exchange) {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", "POST");
+				fail(exchange, 405, "[ERROR] Use POST, with the MMD document as the request body.");
+				return;
+			}
+			byte[] source;
+			try (InputStream body = exchange.getRequestBody()) {
+				source = body.readNBytes(MAX_BODY_BYTES + 1);
+			}
+			if (source.length > MAX_BODY_BYTES) {
+				fail(exchange, 413, "[ERROR] MMD document is larger than " + MAX_BODY_BYTES + " bytes.");
+				return;
+			}
+			byte[] page;
+			try {
+				page = render(source);
+			} catch (IOException e) {
+				fail(exchange, 400, e.getMessage());
+				return;
+			} catch (RuntimeException e) {
+				fail(exchange, 500, "[ERROR] " + e);
+				return;
+			}
+			send(exchange, 200, "text/html; charset=utf-8", page);
+		} finally {
+			inFlight.decrementAndGet();
+			latency.record((System.nanoTime() - start) / 1_000);
+		}
+	}
+
+	private void handleMetrics(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			send(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", metrics().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private void fail(HttpExchange exchange, int status, String message) throws IOException {
+		failures.increment();
+		send(exchange, status, "text/plain; charset=utf-8", (message + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static final String COUNTER = "counter";
+	private static final String GAUGE = "gauge";
+
+	/**
+	 * @brief: A metric family of a single sample, with its `# HELP` and `# TYPE` lines.
+	 */
+	private static void metric(StringBuilder sb, String name, String type, String help, long value) {
+		family(sb, name, type, help);
+		sample(sb, name, value);
+	}
+
+	private static void family(StringBuilder sb, String name, String type, String help) {
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder sb, String name, long value) {
+		sb.append(name).append(' ').append(value).append('\n');
+	}
+}
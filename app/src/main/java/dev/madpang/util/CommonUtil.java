@@ -4,26 +4,201 @@
  * @author: madpang
  * @date:
  * - created on 2025-06-29
- * - updated on 2025-06-29
+ * - updated on 2026-10-17
  */
 
 package dev.madpang.util;
 
 import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Utility class for parsing and conversion operations.
  */
 public class CommonUtil {
+	/**
+	 * Line separator used when rendering HTML lines into a sink.
+	 */
+	public static final String LINE_SEPARATOR = System.lineSeparator();
+
 	/**
 	 * Escapes HTML special characters in the given text.
+	 * @return: The input itself when there is nothing to escape, so the common case allocates nothing.
 	 */
-	public static String escapeHTML(String text) throws IOException{
+	public static String escapeHTML(String text) throws IOException {
+		return escape(text, false);
+	}
+
+	/**
+	 * @brief: Escapes HTML special characters, appending the result directly to the sink in a single scan.
+	 */
+	public static void escapeHTML(CharSequence text, Appendable sink) throws IOException {
+		escape(text, sink, false);
+	}
+
+	/**
+	 * @brief: Escapes text to be placed inside a quoted attribute value, e.g. the header metadata in `<meta content="...">`.
+	 * @details: On top of `&`, `<` and `>`, both quote characters are escaped, so the value is safe with either quoting style.
+	 */
+	public static String escapeAttribute(String text) throws IOException {
+		return escape(text, true);
+	}
+
+	/**
+	 * @brief: The attribute-context variant of `escapeHTML(CharSequence, Appendable)`.
+	 */
+	public static void escapeAttribute(CharSequence text, Appendable sink) throws IOException {
+		escape(text, sink, true);
+	}
+
+	private static String escape(String text, boolean attribute) throws IOException {
 		if (text == null) {
 			throw new IOException("Input text cannot be null.");
 		}
-		return text.replace("&", "&amp;")
-				   .replace("<", "&lt;")
-				   .replace(">", "&gt;");
+		int first = indexOfSpecial(text, 0, attribute);
+		if (first < 0) {
+			return text; // fast path, nothing to escape
+		}
+		StringBuilder sb = new StringBuilder(text.length() + 16);
+		sb.append(text, 0, first);
+		escape(text, first, sb, attribute);
+		return sb.toString();
+	}
+
+	private static final ThreadLocal<char[]> COPY_BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+	private static void escape(CharSequence text, Appendable sink, boolean attribute) throws IOException {
+		if (text == null) {
+			throw new IOException("Input text cannot be null.");
+		}
+		escape(text, 0, sink, attribute);
+	}
+
+	/**
+	 * @details: Copies the runs of plain characters in bulk, and only stops at the special ones.
+	 */
+	private static void escape(CharSequence text, int from, Appendable sink, boolean attribute) throws IOException {
+		int length = text.length();
+		int runStart = from;
+		for (int i = from; i < length; i++) {
+			String entity = entityOf(text.charAt(i), attribute);
+			if (entity != null) {
+				if (i > runStart) {
+					appendRange(sink, text, runStart, i);
+				}
+				sink.append(entity);
+				runStart = i + 1;
+			}
+		}
+		if (length > runStart) {
+			appendRange(sink, text, runStart, length);
+		}
+	}
+
+	/**
+	 * @details:
+	 * `Writer.append(csq, start, end)` goes through `subSequence(...).toString()`: a String range is written directly instead,
+	 * and the chars of any other CharSequence (a SourceLine, mostly) are copied through a small per-thread buffer.
+	 * A StringBuilder copies any range char by char already.
+	 */
+	private static void appendRange(Appendable sink, CharSequence text, int start, int end) throws IOException {
+		if (!(sink instanceof Writer writer)) {
+			sink.append(text, start, end);
+		} else if (text instanceof String string) {
+			writer.write(string, start, end - start);
+		} else {
+			char[] buffer = COPY_BUFFER.get();
+			while (start < end) {
+				int n = Math.min(buffer.length, end - start);
+				for (int i = 0; i < n; i++) {
+					buffer[i] = text.charAt(start + i);
+				}
+				writer.write(buffer, 0, n);
+				start += n;
+			}
+		}
+	}
+
+	private static int indexOfSpecial(CharSequence text, int from, boolean attribute) {
+		for (int i = from; i < text.length(); i++) {
+			if (entityOf(text.charAt(i), attribute) != null) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String entityOf(char c, boolean attribute) {
+		switch (c) {
+			case '&':
+				return "&amp;";
+			case '<':
+				return "&lt;";
+			case '>':
+				return "&gt;";
+			case '"':
+				return attribute ? "&quot;" : null;
+			case '\'':
+				return attribute ? "&#39;" : null;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @brief: Tells whether the line is empty or whitespace only, like `line.trim().isEmpty()` but without creating a String.
+	 */
+	public static boolean isBlank(CharSequence line) {
+		for (int i = 0; i < line.length(); i++) {
+			if (line.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @brief: `String.trim` for any CharSequence, returning a sub-sequence of the line.
+	 */
+	public static CharSequence trim(CharSequence line) {
+		int start = 0;
+		int end = line.length();
+		while (start < end && line.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return (start == 0 && end == line.length()) ? line : line.subSequence(start, end);
+	}
+
+	/**
+	 * @brief: `String.startsWith` for any CharSequence.
+	 */
+	public static boolean startsWith(CharSequence line, String prefix) {
+		if (line.length() < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (line.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Appends a single HTML line to the sink, followed by the line separator.
+	 */
+	public static void writeLine(Appendable sink, CharSequence line) throws IOException {
+		sink.append(line).append(LINE_SEPARATOR);
+	}
+
+	/**
+	 * @brief: Appends a single line of text to the sink, HTML-escaped, followed by the line separator.
+	 */
+	public static void writeEscapedLine(Appendable sink, CharSequence line) throws IOException {
+		escapeHTML(line, sink);
+		sink.append(LINE_SEPARATOR);
 	}
 }
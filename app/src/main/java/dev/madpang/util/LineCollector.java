@@ -0,0 +1,61 @@
+/**
+ * @file: LineCollector.java
+ * @brief: An `Appendable` sink that collects rendered output back into a list of lines.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.util;
+
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Adapter between the streaming render path and the list-returning `toHTML()` methods.
+ * @note: Lines are split on '\n', a trailing '\r' is dropped, so both "\n" and "\r\n" separators are accepted.
+ */
+public final class LineCollector implements Appendable {
+	private final List<String> lines = new ArrayList<>();
+	private final StringBuilder pending = new StringBuilder();
+
+	@Override
+	public Appendable append(CharSequence csq) {
+		CharSequence text = (csq == null) ? "null" : csq; // as required by Appendable
+		return append(text, 0, text.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) {
+		CharSequence text = (csq == null) ? "null" : csq;
+		for (int i = start; i < end; i++) {
+			append(text.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) {
+		if (c == '\n') {
+			int length = pending.length();
+			if (length > 0 && pending.charAt(length - 1) == '\r') {
+				pending.setLength(length - 1);
+			}
+			lines.add(pending.toString());
+			pending.setLength(0);
+		} else {
+			pending.append(c);
+		}
+		return this;
+	}
+
+	/**
+	 * @brief: Returns the collected lines, including a trailing unterminated line if any.
+	 */
+	public List<String> getLines() {
+		if (pending.length() > 0) {
+			lines.add(pending.toString());
+			pending.setLength(0);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * @file: LruCache.java
+ * @brief: A thread-safe least-recently-used cache, bounded by the total weight of its values.
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * @note:
+ * The bound is a weight (e.g. a number of bytes) rather than a number of entries, since cached documents vary in size by orders of magnitude.
+ * A value heavier than the whole bound is not cached at all.
+ * All the operations are O(1) under a single lock: the critical sections are a few map operations, far shorter than producing any value worth caching.
+ */
+public final class LruCache<K, V> {
+	private final long maxWeight;
+	private final ToLongFunction<V> weigher;
+	private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true); // access order, eldest first
+	private long weight;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public LruCache(long maxWeight, ToLongFunction<V> weigher) {
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("[ERROR] Cache weight bound must not be negative: " + maxWeight);
+		}
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	/**
+	 * @brief: Looks up a value, marking it as the most recently used.
+	 * @return: The value, or null if it is not cached.
+	 */
+	public synchronized V get(K key) {
+		V value = entries.get(key);
+		if (value != null) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return value;
+	}
+
+	/**
+	 * @brief: Caches a value, evicting the least recently used ones until the total weight fits the bound again.
+	 */
+	public synchronized void put(K key, V value) {
+		long valueWeight = weigher.applyAsLong(value);
+		V previous = entries.remove(key);
+		if (previous != null) {
+			weight -= weigher.applyAsLong(previous);
+		}
+		if (valueWeight > maxWeight) {
+			return;
+		}
+		entries.put(key, value);
+		weight += valueWeight;
+		Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+		while (weight > maxWeight && eldest.hasNext()) {
+			weight -= weigher.applyAsLong(eldest.next().getValue());
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public long maxWeight() {
+		return maxWeight;
+	}
+
+	public synchronized long hits() {
+		return hits;
+	}
+
+	public synchronized long misses() {
+		return misses;
+	}
+
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	/**
+	 * @brief: The fraction of lookups that found their value, 0 before any lookup.
+	 */
+	public synchronized double hitRatio() {
+		long lookups = hits + misses;
+		return (lookups == 0) ? 0.0 : (double) hits / lookups;
+	}
+}
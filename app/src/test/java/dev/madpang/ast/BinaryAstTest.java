@@ -0,0 +1,102 @@
+/**
+ * @file: BinaryAstTest.java
+ * @brief: Unit tests for BinaryAst class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+
+public class BinaryAstTest {
+	private static final String DOCUMENT = "``` header\n@file: a.txt\n@brief: Ünïcode brief\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n"
+		+ "# Root — ü\n\nIntro <b>\nsecond line\n\n## A\n\nText\n``` java\nString s = \"日本語\";\n\n  indented\n```\nafter\n\n"
+		+ "### A.1\n\nDeep\n\n## B\n\n``` sh\necho 1\n```\n";
+
+	private static String render(MmdDocument doc) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		doc.toHTML(sb);
+		return sb.toString();
+	}
+
+	private static byte[] write(MmdDocument doc) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryAst.write(doc, out);
+		return out.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Should read back the same header and HTML, from lines of a buffer or of a reader, with CRLF endings")
+	public void testRoundTrip() throws IOException {
+		for (String text : new String[] { DOCUMENT, DOCUMENT.replace("\n", "\r\n") }) {
+			MmdDocument fromBuffer = MmdDocument.parse(new ByteLineSource(SourceBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))));
+			MmdDocument fromReader = MmdDocument.parse(new BufferedReader(new StringReader(text)));
+			for (MmdDocument doc : new MmdDocument[] { fromBuffer, fromReader }) {
+				MmdDocument read = BinaryAst.read(SourceBuffer.wrap(write(doc)));
+				assertEquals(render(doc), render(read));
+				assertEquals(doc.frontMatter.metaInfo, read.frontMatter.metaInfo);
+				assertEquals(2, read.bodyContent.subSections.size());
+				assertEquals(3, read.bodyContent.subSections.get(0).subSections.get(0).sectionLevel);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should load a written file through a memory mapping")
+	public void testLoad(@TempDir Path dir) throws IOException {
+		MmdDocument doc = MmdDocument.parse(new BufferedReader(new StringReader(DOCUMENT)));
+		Path file = dir.resolve("doc" + BinaryAst.EXTENSION);
+		BinaryAst.write(doc, file);
+		MmdDocument loaded = BinaryAst.load(file);
+		assertEquals(render(doc), render(loaded));
+		assertEquals("Ünïcode brief", loaded.frontMatter.metaInfo.get("brief"));
+	}
+
+	@Test
+	@DisplayName("Should reject other files, other format versions and truncated files")
+	public void testRejects() throws IOException {
+		byte[] bytes = write(MmdDocument.parse(new BufferedReader(new StringReader(DOCUMENT))));
+
+		IOException e = assertThrows(IOException.class, () -> BinaryAst.read(SourceBuffer.wrap(DOCUMENT.getBytes(StandardCharsets.UTF_8))));
+		assertTrue(e.getMessage().contains("Not a binary MMD AST"));
+		byte[] newer = bytes.clone();
+		newer[BinaryAst.MAGIC.length] = BinaryAst.FORMAT_VERSION + 1;
+		e = assertThrows(IOException.class, () -> BinaryAst.read(SourceBuffer.wrap(newer)));
+		assertTrue(e.getMessage().contains("Unsupported binary MMD AST version"));
+		for (int length : new int[] { 3, 20, bytes.length / 2, bytes.length - 1 }) {
+			byte[] truncated = Arrays.copyOf(bytes, length);
+			assertThrows(IOException.class, () -> BinaryAst.read(SourceBuffer.wrap(truncated)));
+		}
+	}
+
+	@Test
+	@DisplayName("Should throw an IOException, not an InternalError, when the mapped file is truncated while it is read")
+	public void testTruncatedWhileMapped(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("doc" + BinaryAst.EXTENSION);
+		BinaryAst.write(MmdDocument.parse(new BufferedReader(new StringReader(DOCUMENT))), file);
+		SourceBuffer mapped = SourceBuffer.map(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(0);
+		}
+
+		IOException e = assertThrows(IOException.class, () -> BinaryAst.read(mapped));
+		assertTrue(e.getMessage().contains("changed while it was read"));
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * @file: FragmentCacheTest.java
+ * @brief: Unit tests for FragmentCache class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+public class FragmentCacheTest {
+	private static final String HEADER = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n";
+	private static final String BOILERPLATE = "Licensed under the MIT license,\nsee the LICENSE file\nat the root of the repository\nfor <details> & terms.\n\n";
+
+	@AfterEach
+	public void tearDown() {
+		FragmentCache.setShared(null);
+	}
+
+	private static String render(String body) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		MmdDocument.parse(new BufferedReader(new StringReader(HEADER + body))).toHTML(sb);
+		return sb.toString();
+	}
+
+	private static SemanticParagraph paragraph(String text) throws IOException {
+		BufferedReader reader = new BufferedReader(new StringReader(text));
+		return SemanticParagraph.parse(reader, reader.readLine());
+	}
+
+	@Test
+	@DisplayName("Should render the same HTML from the cache, hitting on the repeated paragraphs")
+	public void testSameOutput() throws IOException {
+		String body = "# Root\n\n" + BOILERPLATE + "## A\n\nShort\n\n" + BOILERPLATE + "## B\n\n" + BOILERPLATE
+			+ "Text\n``` java\nint a;\nint b;\n```\nmore\n\n";
+		String expected = render(body);
+		FragmentCache cache = new FragmentCache(1 << 20);
+		FragmentCache.setShared(cache);
+
+		assertEquals(expected, render(body));
+		assertEquals(2, cache.hits()); // "Short" is too small to be cached
+		assertEquals(2, cache.misses());
+		assertEquals(expected, render(body));
+		assertEquals(6, cache.hits());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	@DisplayName("Should key on the type and the boundaries of the blocks, not only on their lines")
+	public void testKeys() throws IOException {
+		SemanticParagraph prose = paragraph("a\nb\nc\nd\n\n");
+		assertEquals(FragmentCache.keyOf(prose), FragmentCache.keyOf(paragraph("a\nb\nc\nd\n\n")));
+		assertNotEquals(FragmentCache.keyOf(prose), FragmentCache.keyOf(paragraph("a\nb\nc\ne\n\n")));
+		assertNotEquals(FragmentCache.keyOf(prose), FragmentCache.keyOf(paragraph("a\nbc\nd\n\n")));
+		// The same lines, as a code block
+		SemanticParagraph code = paragraph("``` text\na\nb\nc\nd\n```\n\n");
+		assertNotNull(FragmentCache.keyOf(code));
+		assertNotEquals(FragmentCache.keyOf(prose), FragmentCache.keyOf(code));
+		assertNull(FragmentCache.keyOf(paragraph("a\nb\n\n")));
+	}
+
+	@Test
+	@DisplayName("Should not serve a paragraph rendered from another source under the same key")
+	public void testCollision() throws IOException {
+		FragmentCache cache = new FragmentCache(1 << 20);
+		SemanticParagraph first = paragraph("a\nb\nc\nd\n\n");
+		SemanticParagraph other = paragraph("a\nb\nc\ne\n\n");
+		FragmentCache.Key key = FragmentCache.keyOf(first);
+		StringBuilder expected = new StringBuilder();
+		first.writeBlocks(expected);
+		StringBuilder sb = new StringBuilder();
+		assertTrue(cache.render(first, key, sb));
+		assertEquals(expected.toString(), sb.toString());
+
+		// As if both hashes of `other` collided with those of `first`
+		sb.setLength(0);
+		assertFalse(cache.render(other, key, sb));
+		assertEquals("", sb.toString());
+		assertTrue(cache.render(paragraph("a\nb\nc\nd\n\n"), key, sb));
+		assertEquals(expected.toString(), sb.toString());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	@DisplayName("Should stay within its byte bound, evicting the least recently used paragraphs")
+	public void testBound() throws IOException {
+		StringBuilder body = new StringBuilder("# Root\n\n");
+		for (int i = 0; i < 100; i++) {
+			body.append("Paragraph ").append(i).append('\n').append(BOILERPLATE);
+		}
+		String expected = render(body.toString());
+		FragmentCache cache = new FragmentCache(4096);
+		FragmentCache.setShared(cache);
+
+		assertEquals(expected, render(body.toString()));
+		assertTrue(cache.weight() <= 4096);
+		assertTrue(cache.evictions() > 0);
+		assertEquals(100, cache.misses());
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * @file: MmdEventParserTest.java
+ * @brief: Unit tests for MmdEventParser and MmdTreeBuilder classes
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.madpang.ast.blocks.CodeBlock;
+import dev.madpang.ast.blocks.IBlock;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+
+public class MmdEventParserTest {
+	private static final String HEADER = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n";
+	private static final String BODY = "# Root\n\nIntro <b>\n``` java\nint a;\n```\nafter\nmore\n\n"
+		+ "## A\n\n=== Major\n\nText\n\n--- Minor\n\n``` sh\necho 1\n```\n\n### A.1\n\nDeep\n\n## B\n\nLast\n\n# Ignored\n\nNot in the body\n";
+
+	/**
+	 * Records the events as strings, one per call.
+	 */
+	private static final class Recorder implements MmdEventHandler {
+		final List<String> events = new ArrayList<>();
+
+		@Override
+		public void header(String key, String value) {
+			events.add(key + "=" + value);
+		}
+
+		@Override
+		public void startSection(int level, CharSequence headline) {
+			events.add("<" + level + " " + headline);
+		}
+
+		@Override
+		public void endSection(int level) {
+			events.add(level + ">");
+		}
+
+		@Override
+		public void startSemanticParagraph() {
+			events.add("<sp");
+		}
+
+		@Override
+		public void endSemanticParagraph() {
+			events.add("sp>");
+		}
+
+		@Override
+		public void paragraphLine(CharSequence line) {
+			events.add("p " + line);
+		}
+
+		@Override
+		public void codeBlock(String tag) {
+			events.add("<code " + tag);
+		}
+
+		@Override
+		public void codeLine(CharSequence line) {
+			events.add("c " + line);
+		}
+
+		@Override
+		public void endCodeBlock() {
+			events.add("code>");
+		}
+
+		@Override
+		public void endDocument() {
+			events.add("end");
+		}
+	}
+
+	private static String render(MmdDocument doc) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		doc.toHTML(sb);
+		return sb.toString();
+	}
+
+	@Test
+	@DisplayName("Should send the header fields, the nested sections and the blocks in document order")
+	public void testEvents() throws IOException {
+		Recorder recorder = new Recorder();
+		MmdEventParser.parse(new BufferedReader(new StringReader(HEADER + "# Root\n\nIntro\n``` java\nint a;\n```\nafter\n\n## A\n\n=== Major\n\nText\n")), recorder);
+		assertEquals(List.of("file=a.txt", "brief=b", "title=c", "author=d", "date-created=2025-01-01", "date-updated=2025-01-02", "version=1",
+			"<1 Root", "<sp", "p Intro", "<code java", "c int a;", "code>", "p after", "sp>",
+			"<2 A", "<3 Major", "<sp", "p Text", "sp>", "3>", "2>", "1>", "end"), recorder.events);
+	}
+
+	@Test
+	@DisplayName("Should build the same tree as the direct parse, from a buffer or from a reader")
+	public void testTreeBuilder() throws IOException {
+		String text = HEADER + BODY;
+		MmdDocument expected = MmdDocument.parse(new BufferedReader(new StringReader(text)));
+		MmdTreeBuilder fromReader = new MmdTreeBuilder();
+		MmdEventParser.parse(new BufferedReader(new StringReader(text)), fromReader);
+		MmdTreeBuilder fromBuffer = new MmdTreeBuilder();
+		MmdEventParser.parse(new ByteLineSource(SourceBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))), fromBuffer);
+
+		for (MmdTreeBuilder builder : new MmdTreeBuilder[] { fromReader, fromBuffer }) {
+			MmdDocument built = builder.getDocument();
+			assertEquals(render(expected), render(built));
+			assertEquals(expected.frontMatter.metaInfo, built.frontMatter.metaInfo);
+			assertEquals(expected.bodyContent.sParagraphs.get(0).getBlocks().size(), built.bodyContent.sParagraphs.get(0).getBlocks().size());
+		}
+	}
+
+	@Test
+	@DisplayName("Should read the blocks through the parsers registered in SemanticParagraph")
+	public void testRegisteredBlocks() {
+		// A new block type is read by both parsers, but MmdEventParser sends it whole (`MmdEventHandler.block`) unless it gets a streaming path like CodeBlock: review it when this list changes
+		assertEquals(List.of(CodeBlock.PARSER), SemanticParagraph.dispatcher().getParsers());
+	}
+
+	@Test
+	@DisplayName("Should build a block handed over whole into the open semantic paragraph")
+	public void testWholeBlock() throws IOException {
+		MmdTreeBuilder builder = new MmdTreeBuilder();
+		builder.startSection(1, "Root");
+		builder.startSemanticParagraph();
+		builder.paragraphLine("before");
+		builder.block(CodeBlock.of(List.of("int a;"), "java"));
+		builder.paragraphLine("after");
+		builder.endSemanticParagraph();
+		builder.endSection(1);
+		MmdDocument expected = MmdDocument.parse(new BufferedReader(new StringReader(HEADER + "# Root\n\nbefore\n``` java\nint a;\n```\nafter\n")));
+		List<IBlock> blocks = builder.getDocument().bodyContent.sParagraphs.get(0).getBlocks();
+		assertEquals(3, blocks.size());
+		assertEquals(expected.bodyContent.toHTML(), builder.getDocument().bodyContent.toHTML());
+	}
+
+	@Test
+	@DisplayName("Should stream a document of any length, and reject what the tree parser rejects")
+	public void testStreamingAndErrors() throws IOException {
+		// A code block of 200,000 lines, generated on the fly: the handler only counts them
+		int[] state = { 0 };
+		String[] head = (HEADER + "# Root\n\n``` text").split("\n", -1);
+		LineSource generated = () -> {
+			int i = state[0]++;
+			if (i < head.length) {
+				return head[i];
+			}
+			i -= head.length;
+			return (i < 200_000) ? "line " + i : (i == 200_000) ? "```" : null;
+		};
+		int[] codeLines = { 0 };
+		MmdEventParser.parse(generated, new MmdEventHandler() {
+			@Override
+			public void codeLine(CharSequence line) {
+				codeLines[0]++;
+			}
+		});
+		assertEquals(200_000, codeLines[0]);
+
+		// Every code line is sent before the next one is read, the block is never held whole
+		state[0] = 0;
+		MmdEventParser.parse(generated, new MmdEventHandler() {
+			int sent;
+
+			@Override
+			public void codeLine(CharSequence line) {
+				assertEquals(head.length + sent + 1, state[0]);
+				assertEquals("line " + sent++, line.toString());
+			}
+
+			@Override
+			public void endCodeBlock() {
+				assertEquals(200_000, sent);
+			}
+		});
+
+		for (String body : new String[] { "# Root\n\n``` java\nint a;\n", "# Root\n\n``` java\n```\n", "## Not a body\n" }) {
+			MmdEventHandler none = new MmdEventHandler() {
+			};
+			assertThrows(IOException.class, () -> MmdEventParser.parse(new BufferedReader(new StringReader(HEADER + body)), none));
+			assertThrows(IOException.class, () -> MmdDocument.parse(new BufferedReader(new StringReader(HEADER + body))));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * @file: MmdSectionTest.java
+ * @brief: Unit tests for MmdSection class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.IOException;
+import java.util.List;
+
+public class MmdSectionTest {
+
+	private static MmdSection parse(String body) throws IOException {
+		return MmdSection.parse(new BufferedReader(new StringReader(body)), null);
+	}
+
+	@Test
+	@DisplayName("Should nest explicit headings by level")
+	public void testExplicitLevels() throws IOException {
+		MmdSection root = parse("# Root\n\nIntro\n\n## A\n\n### A.1\n\nText\n\n## B\n\n### B.1\n");
+
+		assertEquals(1, root.sectionLevel);
+		assertEquals("Root", root.headLine.toString());
+		assertEquals(1, root.sParagraphs.size());
+		assertEquals(2, root.subSections.size());
+		assertEquals("A.1", root.subSections.get(0).subSections.get(0).headLine.toString());
+		assertEquals(1, root.subSections.get(0).subSections.get(0).sParagraphs.size());
+		assertEquals("B.1", root.subSections.get(1).subSections.get(0).headLine.toString());
+		assertNull(root.terminalLine);
+	}
+
+	@Test
+	@DisplayName("Should resolve fuzzy headings relative to the preceding explicit heading")
+	public void testFuzzyLevels() throws IOException {
+		MmdSection root = parse("# Root\n\n=== Major\n\n--- Minor\n\n## A\n\n=== Major A\n\n--- Minor A\n\n### A.1\n\n--- Minor A.1\n\n=== Major A.1\n");
+
+		MmdSection major = root.subSections.get(0);
+		assertEquals(2, major.sectionLevel);
+		assertEquals(3, major.subSections.get(0).sectionLevel);
+
+		MmdSection a = root.subSections.get(1);
+		assertEquals("A", a.headLine.toString());
+		MmdSection majorA = a.subSections.get(0);
+		assertEquals(3, majorA.sectionLevel);
+		assertEquals(4, majorA.subSections.get(0).sectionLevel);
+
+		MmdSection a1 = a.subSections.get(1);
+		assertEquals("A.1", a1.headLine.toString());
+		assertEquals(List.of(5, 4), List.of(a1.subSections.get(0).sectionLevel, a1.subSections.get(1).sectionLevel));
+		assertEquals(List.of("<h5>Minor A.1</h5>", "<h4>Major A.1</h4>"), a1.toHTML().subList(1, 3));
+	}
+
+	@Test
+	@DisplayName("Should stop at a heading of the same level, and hand it back as the terminal line")
+	public void testTerminalLine() throws IOException {
+		MmdSection section = parse("## A\n\n### A.1\n\n## B\n\nNot read\n");
+
+		assertEquals(1, section.subSections.size());
+		assertEquals("## B", section.terminalLine.toString());
+	}
+
+	@Test
+	@DisplayName("Should reject a section starting with a fuzzy heading")
+	public void testRejectsFuzzyStart() {
+		assertThrows(IOException.class, () -> parse("=== Major\n"));
+	}
+
+	@Test
+	@DisplayName("Should handle thousands of alternating headings in one pass")
+	public void testAlternatingHeadings() throws IOException {
+		StringBuilder body = new StringBuilder("# Root\n");
+		int pairs = 50_000;
+		for (int i = 0; i < pairs; i++) {
+			body.append("## H").append(i).append('\n').append("--- F").append(i).append('\n').append("### G").append(i).append('\n');
+		}
+		MmdSection root = parse(body.toString());
+
+		assertEquals(pairs, root.subSections.size());
+		MmdSection last = root.subSections.get(pairs - 1);
+		assertEquals(2, last.subSections.size());
+		assertEquals(4, last.subSections.get(0).sectionLevel);
+		assertEquals(3, last.subSections.get(1).sectionLevel);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * @file: ParallelParserTest.java
+ * @brief: Unit tests for ParallelParser class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.SourceBuffer;
+
+public class ParallelParserTest {
+	private static final String HEADER = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n";
+
+	private ForkJoinPool pool;
+
+	@BeforeEach
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		pool.shutdownNow();
+	}
+
+	private static SourceBuffer buffer(String text) {
+		return SourceBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @brief: The HTML of the sequential parser, or its error message.
+	 */
+	private static String sequential(String text) {
+		try {
+			return String.join("\n", MmdDocument.parse(new ByteLineSource(buffer(text))).toHTML());
+		} catch (IOException e) {
+			return "error: " + e.getMessage();
+		}
+	}
+
+	private String parallel(String text) {
+		try {
+			// 1 byte per slice at least, so that every level-2 section is a task of its own
+			return String.join("\n", new ParallelParser(pool, 1).parse(buffer(text)).toHTML());
+		} catch (IOException e) {
+			return "error: " + e.getMessage();
+		}
+	}
+
+	@Test
+	@DisplayName("Should only split at the level-2 headings the parser sees")
+	public void testScan() {
+		String body = "# Root\n\nIntro\n## Not a heading, in a paragraph\n\n``` text\n\n## Not a heading, in a fence\n```\n\n"
+			+ "## A\n\n### A.1\n\n=== Level 4\n\n## B\n\n=== Not level 2\n\n# Closes the body\n\n## Ignored\n";
+		SourceBuffer source = buffer(body);
+		long bodyStart = body.indexOf('\n') + 1;
+		ParallelParser.Outline outline = ParallelParser.scan(source, bodyStart);
+
+		assertArrayEquals(new long[] { body.indexOf("## A"), body.indexOf("## B") }, outline.sections());
+		assertEquals(body.indexOf("# Closes"), outline.end());
+		// "===" right below the level-1 heading opens a level-2 section as well
+		body = "# Root\n=== A\n--- A.1\n## B\n";
+		outline = ParallelParser.scan(buffer(body), body.indexOf('\n') + 1);
+		assertArrayEquals(new long[] { body.indexOf("=== A"), body.indexOf("## B") }, outline.sections());
+		assertEquals(body.length(), outline.end());
+	}
+
+	@Test
+	@DisplayName("Should give the same document as the sequential parser")
+	public void testSameAsSequential() throws IOException {
+		String text = HEADER + "# Root\n\nIntro\n\n=== Major\n\n--- Minor\n\nText\n\n## A\n\nText of A\n``` java\n## in code\n\n```\nAfter\n\n"
+			+ "### A.1\n\n--- Minor A.1\n\n=== Major A.1\n\n## B\n\n=== Major B\n\n# Terminal\n\n## Ignored\n";
+		MmdDocument doc = new ParallelParser(pool, 1).parse(buffer(text));
+
+		assertEquals(sequential(text), parallel(text));
+		assertEquals(List.of("Major", "A", "B"), doc.bodyContent.subSections.stream().map(s -> s.headLine.toString()).toList());
+		assertEquals("# Terminal", doc.bodyContent.terminalLine.toString());
+		assertEquals("c", doc.frontMatter.metaInfo.get("title"));
+	}
+
+	@Test
+	@DisplayName("Should match the sequential parser on random documents, errors included")
+	public void testRandomDocuments() {
+		String[] lines = {
+			"Some text", "Other <text> & more", "", "", "## Two", "### Three", "# One", "=== Major", "--- Minor",
+			"``` java", "```", "café ## not a heading", "\t## indented", "##no space", "-- dash",
+		};
+		Random random = new Random(11);
+		int failures = 0;
+		for (int doc = 0; doc < 2000; doc++) {
+			StringBuilder text = new StringBuilder(HEADER).append("# Root\n");
+			int count = random.nextInt(60);
+			for (int i = 0; i < count; i++) {
+				text.append(lines[random.nextInt(lines.length)]).append(random.nextInt(8) == 0 ? "\r\n" : "\n");
+			}
+			String expected = sequential(text.toString());
+			failures += expected.startsWith("error: ") ? 1 : 0;
+			assertEquals(expected, parallel(text.toString()), text.toString());
+		}
+		// both the valid and the invalid documents are covered
+		assertTrue(failures > 100 && failures < 1900, "failures: " + failures);
+	}
+}
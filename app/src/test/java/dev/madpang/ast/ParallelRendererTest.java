@@ -0,0 +1,98 @@
+/**
+ * @file: ParallelRendererTest.java
+ * @brief: Unit tests for ParallelRenderer class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelRendererTest {
+	private static final String HEADER = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n";
+
+	private ForkJoinPool pool;
+
+	@BeforeEach
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * @brief: A document of nested sections, with semantic paragraphs of random sizes, some of them holding code blocks.
+	 */
+	private static MmdDocument document(long seed) throws IOException {
+		Random random = new Random(seed);
+		StringBuilder text = new StringBuilder(HEADER).append("# Root\n\n");
+		String[] headings = { "## ", "### ", "=== ", "--- " };
+		for (int s = 0; s < 40; s++) {
+			for (int p = random.nextInt(4); p > 0; p--) {
+				for (int l = 1 + random.nextInt(30); l > 0; l--) {
+					text.append("Line <").append(l).append("> & more\n");
+				}
+				if (random.nextBoolean()) {
+					text.append("``` java\n");
+					for (int l = 1 + random.nextInt(30); l > 0; l--) {
+						text.append("if (a < b) { return \"").append(l).append("\"; }\n");
+					}
+					text.append("```\nAfter the code\n");
+				}
+				text.append('\n');
+			}
+			text.append(headings[random.nextInt(headings.length)]).append("Section ").append(s).append("\n\n");
+		}
+		return MmdDocument.parse(new BufferedReader(new StringReader(text.toString())));
+	}
+
+	private String render(MmdDocument doc, int thresholdLines) throws IOException {
+		StringBuilder html = new StringBuilder();
+		new ParallelRenderer(pool, thresholdLines).render(doc, html);
+		return html.toString();
+	}
+
+	@Test
+	@DisplayName("Should write the same HTML as the sequential path, whatever the threshold")
+	public void testSameAsSequential() throws IOException {
+		for (long seed = 0; seed < 20; seed++) {
+			MmdDocument doc = document(seed);
+			StringBuilder expected = new StringBuilder();
+			doc.toHTML(expected);
+			for (int threshold : new int[] { 1, 7, 64, 1000, ParallelRenderer.DEFAULT_THRESHOLD_LINES }) {
+				assertEquals(expected.toString(), render(doc, threshold), "seed " + seed + ", threshold " + threshold);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should report the first error in document order, after the output before it")
+	public void testFirstErrorInOrder() throws IOException {
+		MmdDocument doc = document(3);
+		// Semantic paragraphs without any block can not be rendered
+		MmdSection last = doc.bodyContent.subSections.get(doc.bodyContent.subSections.size() - 1);
+		doc.bodyContent.subSections.get(1).sParagraphs.add(0, new SemanticParagraph());
+		last.sParagraphs.add(new SemanticParagraph());
+		StringBuilder expected = new StringBuilder();
+		IOException sequential = assertThrows(IOException.class, () -> doc.toHTML(expected));
+
+		StringBuilder html = new StringBuilder();
+		IOException parallel = assertThrows(IOException.class, () -> new ParallelRenderer(pool, 1).render(doc, html));
+		assertEquals(sequential.getMessage(), parallel.getMessage());
+		assertEquals(expected.toString(), html.toString());
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * @file: BlockDispatcherTest.java
+ * @brief: Unit tests for BlockDispatcher class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.ast.blocks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import dev.madpang.io.LineSource;
+
+public class BlockDispatcherTest {
+
+	private static final LineSource EMPTY = () -> null;
+
+	/**
+	 * A parser that records the lines it was offered, and accepts all of them.
+	 */
+	private static BlockParser recording(String prefix, List<String> offered) {
+		return BlockParser.withPrefix(prefix, (source, line) -> {
+			offered.add(prefix + "|" + line);
+			ParagraphBlock block = new ParagraphBlock();
+			block.addLine(line);
+			return Optional.of(block);
+		});
+	}
+
+	@Test
+	@DisplayName("Should only offer a line to the parsers whose prefix it starts with")
+	public void testRoutesByPrefix() throws IOException {
+		List<String> offered = new ArrayList<>();
+		BlockDispatcher dispatcher = new BlockDispatcher(List.of(
+			recording("$$ ", offered),
+			recording("- ", offered),
+			recording("| ", offered)
+		));
+
+		assertTrue(dispatcher.tryParse(EMPTY, "- item").isPresent());
+		assertTrue(dispatcher.tryParse(EMPTY, "plain prose").isEmpty());
+		assertTrue(dispatcher.tryParse(EMPTY, "-no space").isEmpty());
+		assertTrue(dispatcher.tryParse(EMPTY, "").isEmpty());
+		assertTrue(dispatcher.tryParse(EMPTY, "ünicode").isEmpty());
+		assertEquals(List.of("- |- item"), offered);
+	}
+
+	@Test
+	@DisplayName("Should keep the registration order, including parsers without a prefix")
+	public void testKeepsRegistrationOrder() throws IOException {
+		List<String> offered = new ArrayList<>();
+		BlockParser rejectAll = (source, line) -> {
+			offered.add("any|" + line);
+			return Optional.empty();
+		};
+		BlockDispatcher dispatcher = new BlockDispatcher(List.of(rejectAll, recording("``` ", offered)));
+
+		assertTrue(dispatcher.tryParse(EMPTY, "``` java").isPresent());
+		assertTrue(dispatcher.tryParse(EMPTY, "ünicode").isEmpty());
+		assertEquals(List.of("any|``` java", "``` |``` java", "any|ünicode"), offered);
+	}
+
+	@Test
+	@DisplayName("Should dispatch a fenced line to the code block parser")
+	public void testDispatchesCodeBlock() throws IOException {
+		BlockDispatcher dispatcher = new BlockDispatcher(List.of(CodeBlock.PARSER));
+		List<CharSequence> rest = new ArrayList<>(List.of("int x = 42;", "```"));
+		LineSource source = () -> rest.isEmpty() ? null : rest.remove(0);
+
+		Optional<IBlock> block = dispatcher.tryParse(source, "``` java");
+
+		assertTrue(block.isPresent());
+		assertEquals("java", ((CodeBlock) block.get()).getCodeType());
+		assertTrue(dispatcher.tryParse(source, "```java").isEmpty());
+	}
+}
@@ -17,8 +17,15 @@ import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import dev.madpang.ast.SemanticParagraph;
+import dev.madpang.io.ByteLineSource;
+import dev.madpang.io.CompactLines;
+import dev.madpang.io.LineSource;
+import dev.madpang.io.SourceBuffer;
+
 public class ParagraphBlockTest {
 
 	private ParagraphBlock paragraphBlock;
@@ -196,4 +203,23 @@ public class ParagraphBlockTest {
 		assertEquals("Fourth line", htmlLines.get(4));
 		assertEquals("</p>", htmlLines.get(5));
 	}
+
+	@Test
+	@DisplayName("Should keep the lines of a source as trimmed offsets, and the other lines as they are")
+	public void testCompactStorage() throws IOException {
+		String text = "one\ntwo\nthree\nfour\nfive\n``` java\nint a;\n```\nsix\n\n";
+		LineSource source = new ByteLineSource(SourceBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+		List<IBlock> blocks = SemanticParagraph.parse(source, source.readLine()).getBlocks();
+
+		assertEquals(3, blocks.size());
+		List<CharSequence> first = ((ParagraphBlock) blocks.get(0)).getSentenceLines();
+		assertTrue(first instanceof CompactLines);
+		CompactLines compact = (CompactLines) first;
+		assertEquals(5, compact.size());
+		assertEquals(5, compact.capacity()); // no spare span left once the paragraph is closed
+		assertEquals(1, ((CompactLines) ((ParagraphBlock) blocks.get(2)).getSentenceLines()).capacity());
+
+		paragraphBlock.addLine("a String line");
+		assertFalse(paragraphBlock.getSentenceLines() instanceof CompactLines);
+	}
 }
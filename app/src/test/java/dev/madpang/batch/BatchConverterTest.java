@@ -0,0 +1,88 @@
+/**
+ * @file: BatchConverterTest.java
+ * @brief: Unit tests for BatchConverter class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchConverterTest {
+
+	private static final String VALID_DOC = "``` header\n" +
+		"@file: batch.txt\n" +
+		"@brief: A document for batch testing\n" +
+		"@title: Batch\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n" +
+		"\n" +
+		"# Batch Heading\n" +
+		"\n" +
+		"Some <content> here.\n";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("Should map input tree to html files under the output root, larger files first")
+	public void testPlan() throws IOException {
+		Path input = Files.createDirectories(tempDir.resolve("in/sub"));
+		Files.writeString(input.resolve("small.txt"), VALID_DOC);
+		Files.writeString(input.getParent().resolve("large.txt"), VALID_DOC + "\nMore content.\n");
+		Files.writeString(input.resolve("ignored.md"), VALID_DOC);
+
+		BatchConverter converter = new BatchConverter(tempDir.resolve("out"), 2);
+		List<BatchConverter.Job> jobs = converter.plan(List.of(tempDir.resolve("in")));
+
+		assertEquals(2, jobs.size());
+		assertEquals(tempDir.resolve("out/large.html"), jobs.get(0).output);
+		assertEquals(tempDir.resolve("out/sub/small.html"), jobs.get(1).output);
+	}
+
+	@Test
+	@DisplayName("Should reject the inputs mapping onto the site pages")
+	public void testPlanReserved() throws IOException {
+		BatchConverter converter = new BatchConverter(tempDir.resolve("out"), 2);
+		Path listing = Files.createDirectories(tempDir.resolve("a")).resolve("_index.txt");
+		Files.writeString(listing, VALID_DOC);
+		assertThrows(IOException.class, () -> converter.plan(List.of(tempDir.resolve("a"))));
+		Path author = Files.createDirectories(tempDir.resolve("b/_authors")).resolve("ann.txt");
+		Files.writeString(author, VALID_DOC);
+		assertThrows(IOException.class, () -> converter.plan(List.of(tempDir.resolve("b"))));
+
+		// Only at the top of the output root
+		Files.delete(author);
+		Files.writeString(Files.createDirectories(tempDir.resolve("b/sub")).resolve("_index.txt"), VALID_DOC);
+		assertEquals(tempDir.resolve("out/sub/_index.html"), converter.plan(List.of(tempDir.resolve("b"))).get(0).output);
+	}
+
+	@Test
+	@DisplayName("Should report a failing document without aborting the batch")
+	public void testRunWithFailure() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Files.writeString(input.resolve("good.txt"), VALID_DOC);
+		Files.writeString(input.resolve("bad.txt"), "not a mmd document\n");
+
+		BatchConverter converter = new BatchConverter(tempDir.resolve("out"), 2);
+		BatchConverter.Summary summary = converter.run(converter.plan(List.of(input)));
+
+		assertEquals(1, summary.converted);
+		assertEquals(1, summary.failures.size());
+		assertEquals(input.resolve("bad.txt"), summary.failures.get(0).input);
+		String html = Files.readString(tempDir.resolve("out/good.html"));
+		assertTrue(html.contains("<h1>Batch Heading</h1>"));
+		assertTrue(html.contains("Some &lt;content&gt; here."));
+	}
+}
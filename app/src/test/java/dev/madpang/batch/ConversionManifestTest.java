@@ -0,0 +1,107 @@
+/**
+ * @file: ConversionManifestTest.java
+ * @brief: Unit tests for ConversionManifest class, and the incremental batch runs built on it
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ConversionManifestTest {
+
+	private static final String VALID_DOC = "``` header\n" +
+		"@file: manifest.txt\n" +
+		"@brief: A document for manifest testing\n" +
+		"@title: Manifest\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n" +
+		"\n" +
+		"# Manifest Heading\n" +
+		"\n" +
+		"Some content here.\n";
+
+	@TempDir
+	Path tempDir;
+
+	private BatchConverter.Summary runIncremental(Path input, Path output) throws Exception {
+		BatchConverter converter = new BatchConverter(output, 2);
+		converter.setManifest(ConversionManifest.load(output.resolve(ConversionManifest.DEFAULT_FILE_NAME)));
+		List<Path> inputs = List.of(input);
+		return converter.run(inputs, converter.plan(inputs));
+	}
+
+	@Test
+	@DisplayName("Should round-trip entries through save and load")
+	public void testSaveAndLoad() throws IOException {
+		Path file = tempDir.resolve("manifest");
+		ConversionManifest manifest = ConversionManifest.load(file);
+		Path output = Files.writeString(tempDir.resolve("a.html"), "<h1>a</h1>");
+		manifest.put(tempDir.resolve("a.txt"), new ConversionManifest.Entry("abc", output, "1.0"));
+		manifest.save();
+
+		ConversionManifest reloaded = ConversionManifest.load(file);
+
+		assertTrue(reloaded.isUpToDate(tempDir.resolve("a.txt"), "abc", output, "1.0"));
+		assertFalse(reloaded.isUpToDate(tempDir.resolve("a.txt"), "abd", output, "1.0"));
+		assertFalse(reloaded.isUpToDate(tempDir.resolve("a.txt"), "abc", output, "2.0"));
+	}
+
+	@Test
+	@DisplayName("Should not consider an entry up to date once its output is gone")
+	public void testMissingOutput() throws IOException {
+		ConversionManifest manifest = ConversionManifest.load(tempDir.resolve("manifest"));
+		Path output = tempDir.resolve("missing.html");
+		manifest.put(tempDir.resolve("a.txt"), new ConversionManifest.Entry("abc", output, "1.0"));
+
+		assertFalse(manifest.isUpToDate(tempDir.resolve("a.txt"), "abc", output, "1.0"));
+	}
+
+	@Test
+	@DisplayName("Should skip unchanged documents and reconvert changed ones")
+	public void testIncrementalRun() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("one.txt"), VALID_DOC);
+		Files.writeString(input.resolve("two.txt"), VALID_DOC);
+
+		BatchConverter.Summary first = runIncremental(input, output);
+		assertEquals(2, first.converted);
+
+		Files.writeString(input.resolve("two.txt"), VALID_DOC + "\nAn edit.\n");
+		BatchConverter.Summary second = runIncremental(input, output);
+
+		assertEquals(1, second.converted);
+		assertEquals(1, second.skipped);
+		assertTrue(Files.readString(output.resolve("two.html")).contains("An edit."));
+	}
+
+	@Test
+	@DisplayName("Should delete the stale output of a deleted input")
+	public void testDeletedInput() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("keep.txt"), VALID_DOC);
+		Files.writeString(input.resolve("gone.txt"), VALID_DOC);
+		runIncremental(input, output);
+		assertTrue(Files.exists(output.resolve("gone.html")));
+
+		Files.delete(input.resolve("gone.txt"));
+		BatchConverter.Summary summary = runIncremental(input, output);
+
+		assertEquals(1, summary.removed);
+		assertFalse(Files.exists(output.resolve("gone.html")));
+		assertTrue(Files.exists(output.resolve("keep.html")));
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * @file: DocumentWatcherTest.java
+ * @brief: Unit tests for DocumentWatcher class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+public class DocumentWatcherTest {
+
+	private static final String DOC = "``` header\n" +
+		"@file: watched.txt\n" +
+		"@brief: A document for watch testing\n" +
+		"@title: Watched\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n" +
+		"\n" +
+		"# Watched Heading\n" +
+		"\n";
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * @brief: Waits for the condition, checked every 20 ms, for 10 s at most.
+	 */
+	private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				fail("Timed out waiting for: " + what);
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	private static String read(Path file) {
+		try {
+			return Files.exists(file) ? Files.readString(file) : "";
+		} catch (IOException e) {
+			return ""; // being replaced, retry
+		}
+	}
+
+	private static ConversionManifest.Entry recorded(Path manifestFile, Path input) {
+		try {
+			return Files.exists(manifestFile) ? ConversionManifest.load(manifestFile).get(input) : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@Test
+	@DisplayName("Should convert created and modified sources, remove the outputs of deleted ones, and keep the manifest in step")
+	public void testWatchTree() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path outputRoot = tempDir.resolve("out");
+		Path manifestFile = outputRoot.resolve(ConversionManifest.DEFAULT_FILE_NAME);
+		BatchConverter converter = new BatchConverter(outputRoot, 1);
+		converter.setManifest(ConversionManifest.load(manifestFile));
+		Path source = input.resolve("doc.txt");
+		Path output = outputRoot.resolve("doc.html");
+
+		try (DocumentWatcher watcher = new DocumentWatcher(converter, 20)) {
+			watcher.watch(List.of(input));
+			Thread thread = new Thread(() -> {
+				try {
+					watcher.run();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			thread.start();
+
+			Files.writeString(source, DOC + "First version.\n");
+			await(() -> read(output).contains("First version."), "the output of the new source");
+			await(() -> recorded(manifestFile, source) != null, "the manifest entry");
+			String firstHash = recorded(manifestFile, source).contentHash;
+
+			Files.writeString(source, DOC + "Second version.\n");
+			await(() -> read(output).contains("Second version."), "the output of the modified source");
+			await(() -> { ConversionManifest.Entry e = recorded(manifestFile, source); return e != null && !e.contentHash.equals(firstHash); }, "the updated manifest entry");
+
+			Files.delete(source);
+			await(() -> !Files.exists(output), "the removal of the output");
+			await(() -> Files.exists(manifestFile) && recorded(manifestFile, source) == null, "the removal of the manifest entry");
+
+			watcher.close();
+			thread.join(5000);
+		}
+	}
+
+	@Test
+	@DisplayName("Should remove the outputs of a sub-directory moved out of the tree")
+	public void testRemoveDirectory() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path sub = Files.createDirectories(input.resolve("sub/deeper"));
+		Files.writeString(sub.resolve("a.txt"), DOC + "A.\n");
+		Files.writeString(input.resolve("sub/b.txt"), DOC + "B.\n");
+		Path outputRoot = tempDir.resolve("out");
+		Path manifestFile = outputRoot.resolve(ConversionManifest.DEFAULT_FILE_NAME);
+		BatchConverter converter = new BatchConverter(outputRoot, 1);
+		converter.setManifest(ConversionManifest.load(manifestFile));
+		converter.run(List.of(input), converter.plan(List.of(input)));
+		assertTrue(Files.exists(outputRoot.resolve("sub/deeper/a.html")) && Files.exists(outputRoot.resolve("sub/b.html")));
+
+		try (DocumentWatcher watcher = new DocumentWatcher(converter, 20)) {
+			watcher.watch(List.of(input));
+			Thread thread = new Thread(() -> {
+				try {
+					watcher.run();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			thread.start();
+
+			// A move fires no event for the files it holds, only ENTRY_DELETE for the directory itself
+			Files.move(input.resolve("sub"), tempDir.resolve("moved"));
+			await(() -> !Files.exists(outputRoot.resolve("sub/deeper/a.html")) && !Files.exists(outputRoot.resolve("sub/b.html")), "the removal of the outputs");
+			await(() -> recorded(manifestFile, input.resolve("sub/b.txt").toAbsolutePath()) == null, "the removal of the manifest entries");
+
+			watcher.close();
+			thread.join(5000);
+		}
+	}
+
+	@Test
+	@DisplayName("Should watch an input given as a file, and only that file of its directory")
+	public void testWatchFile() throws Exception {
+		Path dir = Files.createDirectories(tempDir.resolve("in"));
+		Path source = dir.resolve("single.mmd"); // any name, as given
+		Files.writeString(source, DOC + "First version.\n");
+		Path outputRoot = tempDir.resolve("out");
+		BatchConverter converter = new BatchConverter(outputRoot, 1);
+		converter.run(List.of(source), converter.plan(List.of(source)));
+
+		try (DocumentWatcher watcher = new DocumentWatcher(converter, 20)) {
+			watcher.watch(List.of(source));
+			Thread thread = new Thread(() -> {
+				try {
+					watcher.run();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			thread.start();
+
+			Files.writeString(dir.resolve("sibling.txt"), DOC + "Not an input.\n");
+			Files.writeString(source, DOC + "Second version.\n");
+			await(() -> read(outputRoot.resolve("single.mmd.html")).contains("Second version."), "the output of the modified file");
+			assertFalse(Files.exists(outputRoot.resolve("sibling.html")));
+
+			watcher.close();
+			thread.join(5000);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * @file: HeaderScannerTest.java
+ * @brief: Unit tests for HeaderScanner class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import dev.madpang.ast.MmdDocument;
+
+public class HeaderScannerTest {
+	private static final String HEADER = "``` header\n" +
+		"@file: scan.txt\n" +
+		"@brief: A document, for \"scan\" testing\n" +
+		"@title: Scan\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("Should read the same metadata as a full parse")
+	public void testSameAsParse() throws IOException {
+		StringBuilder body = new StringBuilder("\n# Heading\n\n");
+		for (int i = 0; i < 2000; i++) {
+			body.append("Line ").append(i).append(" of a body much longer than the first read.\n");
+		}
+		Path file = Files.writeString(tempDir.resolve("a.txt"), HEADER + body);
+		Map<String, String> expected = MmdDocument.parse(Files.newBufferedReader(file)).frontMatter.metaInfo;
+
+		assertEquals(expected, HeaderScanner.readHeader(file).metaInfo);
+		// CRLF line endings and a BOM
+		Path crlf = tempDir.resolve("b.txt");
+		Files.write(crlf, ("\uFEFF" + (HEADER + body).replace("\n", "\r\n")).getBytes(StandardCharsets.UTF_8));
+		assertEquals(expected, HeaderScanner.readHeader(crlf).metaInfo);
+		// Lone CR line endings, as the full parser reads them too
+		Path cr = tempDir.resolve("c.txt");
+		Files.write(cr, (HEADER + body).replace("\n", "\r").getBytes(StandardCharsets.UTF_8));
+		assertEquals(expected, MmdDocument.parse(cr).frontMatter.metaInfo);
+		assertEquals(expected, HeaderScanner.readHeader(cr).metaInfo);
+	}
+
+	@Test
+	@DisplayName("Should never parse the body, and read long headers up to the bound")
+	public void testHeaderOnly() throws IOException {
+		// A body the full parser rejects (no level-1 heading)
+		Path file = Files.writeString(tempDir.resolve("a.txt"), HEADER + "\nNo heading here.\n");
+		assertEquals("Scan", HeaderScanner.readHeader(file).metaInfo.get("title"));
+
+		String longBrief = "x".repeat(3 * HeaderScanner.INITIAL_READ_BYTES);
+		Path longHeader = Files.writeString(tempDir.resolve("b.txt"), HEADER.replace("A document", longBrief) + "\n# H\n");
+		assertTrue(HeaderScanner.readHeader(longHeader).metaInfo.get("brief").startsWith(longBrief));
+
+		Path unclosed = Files.writeString(tempDir.resolve("c.txt"), HEADER.replace("```\n", "") + "x\n".repeat(HeaderScanner.MAX_HEADER_BYTES));
+		IOException e = assertThrows(IOException.class, () -> HeaderScanner.readHeader(unclosed));
+		assertTrue(e.getMessage().contains("not closed"));
+		Path noHeader = Files.writeString(tempDir.resolve("d.txt"), "# Heading\n");
+		assertThrows(IOException.class, () -> HeaderScanner.readHeader(noHeader));
+		Path empty = Files.writeString(tempDir.resolve("e.txt"), "");
+		assertThrows(IOException.class, () -> HeaderScanner.readHeader(empty));
+	}
+
+	@Test
+	@DisplayName("Should scan directory trees into sorted CSV and JSON rows, with the failures")
+	public void testScan() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in").resolve("sub"));
+		Files.writeString(input.resolve("b.txt"), HEADER);
+		Files.writeString(input.resolve("a.txt"), HEADER.replace("@title: Scan", "@title: Scan, again"));
+		Files.writeString(input.resolve("bad.txt"), "no header\n");
+		Files.writeString(input.resolve("notes.md"), "ignored\n");
+
+		List<HeaderScanner.Row> rows = new HeaderScanner(2).scan(List.of(tempDir.resolve("in")));
+
+		assertEquals(List.of("a.txt", "b.txt", "bad.txt"), rows.stream().map(row -> row.file().getFileName().toString()).toList());
+		assertNotNull(rows.get(2).error());
+		StringBuilder csv = new StringBuilder();
+		HeaderScanner.writeCsv(rows, csv);
+		String[] lines = csv.toString().split("\r\n");
+		assertEquals("path,title,author,date-created,date-updated,version,brief,file,error", lines[0]);
+		assertEquals(input.resolve("a.txt") + ",\"Scan, again\",tester,2025-01-01,2025-01-02,1.0.0,\"A document, for \"\"scan\"\" testing\",scan.txt,", lines[1]);
+		StringBuilder json = new StringBuilder();
+		HeaderScanner.writeJson(rows, json);
+		assertTrue(json.toString().split("\n")[1].endsWith(",\"brief\":\"A document, for \\\"scan\\\" testing\",\"file\":\"scan.txt\"}"));
+		assertTrue(json.toString().split("\n")[2].contains("\"error\":"));
+	}
+}
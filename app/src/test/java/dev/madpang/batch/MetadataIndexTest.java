@@ -0,0 +1,152 @@
+/**
+ * @file: MetadataIndexTest.java
+ * @brief: Unit tests for MetadataIndex class, and the site pages generated from it by the batch runs
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class MetadataIndexTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static String document(String title, String author, String created, String updated) {
+		return "``` header\n" +
+			"@file: doc.txt\n" +
+			"@brief: About " + title + "\n" +
+			"@title: " + title + "\n" +
+			"@author: " + author + "\n" +
+			"@date: [created: " + created + ", updated: " + updated + "]\n" +
+			"@version: 1.0.0\n" +
+			"```\n" +
+			"\n" +
+			"# " + title + "\n" +
+			"\n" +
+			"Some content here.\n";
+	}
+
+	private BatchConverter.Summary run(Path input, Path output) throws Exception {
+		BatchConverter converter = new BatchConverter(output, 2);
+		converter.setManifest(ConversionManifest.load(output.resolve(ConversionManifest.DEFAULT_FILE_NAME)));
+		converter.setIndex(MetadataIndex.load(output.resolve(MetadataIndex.DEFAULT_FILE_NAME)));
+		List<Path> inputs = List.of(input);
+		return converter.run(inputs, converter.plan(inputs));
+	}
+
+	@Test
+	@DisplayName("Should index every document, and generate the listing, the feed and the author pages")
+	public void testPages() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("a.txt"), document("Alpha", "Ann Lee", "2025-01-01", "2025-03-01"));
+		Files.createDirectories(input.resolve("sub"));
+		Files.writeString(input.resolve("sub/b.txt"), document("Beta & co", "Bob", "2025-02-01", "2025-02-01"));
+		Files.writeString(input.resolve("c.txt"), document("Gamma", "Ann Lee", "2024-12-01", "2025-01-15"));
+		run(input, output);
+
+		List<MetadataIndex.Entry> entries = MetadataIndex.load(output.resolve(MetadataIndex.DEFAULT_FILE_NAME)).entries();
+		assertEquals(List.of("a.html", "c.html", "sub/b.html"), entries.stream().map(MetadataIndex.Entry::path).toList());
+		assertEquals(new MetadataIndex.Entry("sub/b.html", entries.get(2).hash(), "Beta & co", "Bob", "2025-02-01", "2025-02-01", "1.0.0", "About Beta & co"), entries.get(2));
+
+		String listing = Files.readString(output.resolve(SitePages.LISTING_FILE));
+		assertTrue(listing.indexOf("sub/b.html") < listing.indexOf("a.html") && listing.indexOf("a.html") < listing.indexOf("c.html")); // latest created first
+		assertTrue(listing.contains("<a href=\"sub/b.html\">Beta &amp; co</a> by <a href=\"_authors/bob.html\">Bob</a>"));
+		String feed = Files.readString(output.resolve(SitePages.FEED_FILE));
+		assertTrue(feed.indexOf("<link href=\"a.html\"/>") < feed.indexOf("<link href=\"sub/b.html\"/>")); // latest updated first
+		assertTrue(feed.contains("<updated>2025-03-01T00:00:00Z</updated>"));
+		String ann = Files.readString(output.resolve(SitePages.AUTHORS_DIR).resolve("ann-lee.html"));
+		assertTrue(ann.startsWith("<h1>Ann Lee</h1>"));
+		assertTrue(ann.contains("href=\"../a.html\"") && ann.contains("href=\"../c.html\"") && !ann.contains("b.html"));
+	}
+
+	@Test
+	@DisplayName("Should sort by the real dates, and give every feed entry exactly one valid <updated>")
+	public void testInvalidDate() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("a.txt"), document("Alpha", "Ann", "2025-01-01", "2025-02-30"));
+		Files.writeString(input.resolve("b.txt"), document("Beta", "Bob", "2025-01-15", "2025-02-01"));
+		Files.writeString(input.resolve("c.txt"), document("Gamma", "Cid", "2025-99-99", "2025-99-99"));
+		run(input, output);
+
+		String feed = Files.readString(output.resolve(SitePages.FEED_FILE));
+		assertFalse(feed.contains("2025-02-30") || feed.contains("2025-99-99"));
+		// b, then a (updated as created), then c (the epoch)
+		assertTrue(feed.indexOf("b.html") < feed.indexOf("a.html") && feed.indexOf("a.html") < feed.indexOf("c.html"));
+		assertTrue(feed.indexOf("<updated>2025-02-01T00:00:00Z</updated>") < feed.indexOf("<entry>")); // the latest one
+		String[] entries = feed.split("<entry>", -1);
+		assertEquals(4, entries.length);
+		for (int e = 1; e < entries.length; e++) {
+			assertEquals(1, entries[e].split("<updated>", -1).length - 1);
+		}
+		assertTrue(entries[2].contains("<published>2025-01-01T00:00:00Z</published>") && entries[2].contains("<updated>2025-01-01T00:00:00Z</updated>"));
+		assertFalse(entries[3].contains("<published>"));
+		assertTrue(entries[3].contains("<updated>1970-01-01T00:00:00Z</updated>"));
+	}
+
+	@Test
+	@DisplayName("Should only rebuild the pages of the authors whose documents changed")
+	public void testIncremental() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("a.txt"), document("Alpha", "Ann", "2025-01-01", "2025-01-01"));
+		Files.writeString(input.resolve("b.txt"), document("Beta", "Bob", "2025-01-01", "2025-01-01"));
+		Files.writeString(input.resolve("c.txt"), document("Gamma", "Cid", "2025-01-01", "2025-01-01"));
+		run(input, output);
+		Path authors = output.resolve(SitePages.AUTHORS_DIR);
+		Files.delete(authors.resolve("cid.html")); // not rebuilt unless Cid's documents change
+
+		// Bob hands his document over to Ann
+		Files.writeString(input.resolve("b.txt"), document("Beta", "Ann", "2025-01-01", "2025-02-01"));
+		BatchConverter.Summary summary = run(input, output);
+
+		assertEquals(1, summary.converted);
+		assertEquals(2, summary.skipped);
+		assertTrue(Files.readString(authors.resolve("ann.html")).contains("b.html"));
+		assertFalse(Files.exists(authors.resolve("bob.html")));
+		assertFalse(Files.exists(authors.resolve("cid.html")));
+
+		// A deleted document leaves the index
+		Files.delete(input.resolve("a.txt"));
+		run(input, output);
+		assertFalse(Files.readString(output.resolve(SitePages.LISTING_FILE)).contains("a.html"));
+		assertFalse(Files.readString(authors.resolve("ann.html")).contains("a.html"));
+	}
+
+	@Test
+	@DisplayName("Should fill in a lost index from the headers, without reconverting up-to-date documents")
+	public void testRebuildsLostIndex() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("a.txt"), document("Alpha", "Ann", "2025-01-01", "2025-01-01"));
+		run(input, output);
+		Files.delete(output.resolve(MetadataIndex.DEFAULT_FILE_NAME));
+
+		BatchConverter.Summary summary = run(input, output);
+
+		assertEquals(1, summary.skipped);
+		MetadataIndex index = MetadataIndex.load(output.resolve(MetadataIndex.DEFAULT_FILE_NAME));
+		assertEquals("Alpha", index.get(output.resolve("a.html")).title());
+		assertFalse(index.isChanged());
+	}
+
+	@Test
+	@DisplayName("Should make author slugs out of letters and digits")
+	public void testSlug() throws IOException {
+		assertEquals("ann-lee", SitePages.slug(" Ann  Lee "));
+		assertEquals("o-brien-2", SitePages.slug("O'Brien #2"));
+		assertEquals("anonymous", SitePages.slug(""));
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * @file: ByteLineSourceTest.java
+ * @brief: Unit tests for ByteLineSource class, and the lines it hands out
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ByteLineSourceTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static List<String> readAll(LineSource source) throws IOException {
+		List<String> lines = new ArrayList<>();
+		CharSequence line;
+		while ((line = source.readLine()) != null) {
+			lines.add(line.toString());
+		}
+		return lines;
+	}
+
+	private static LineSource sourceOf(String text) {
+		return new ByteLineSource(SourceBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	@DisplayName("Should split lines exactly like BufferedReader.readLine")
+	public void testTerminators() throws IOException {
+		String text = "first line\nsecond\r\nthird\rfourth\n\n\r\nlast without terminator";
+
+		List<String> expected = readAll(LineSource.of(new BufferedReader(new StringReader(text))));
+
+		assertEquals(expected, readAll(sourceOf(text)));
+		assertEquals(7, expected.size());
+	}
+
+	@Test
+	@DisplayName("Should not produce an extra empty line after a final terminator")
+	public void testFinalTerminator() throws IOException {
+		assertEquals(List.of("a", "b"), readAll(sourceOf("a\nb\n")));
+		assertEquals(List.of(), readAll(sourceOf("")));
+	}
+
+	@Test
+	@DisplayName("Should decode non-ASCII lines as UTF-8")
+	public void testUtf8() throws IOException {
+		String text = "plain ascii line, longer than eight bytes\nUnicode test: 你好 🌟 café naïve\n";
+
+		List<String> lines = readAll(sourceOf(text));
+
+		assertEquals("plain ascii line, longer than eight bytes", lines.get(0));
+		assertEquals("Unicode test: 你好 🌟 café naïve", lines.get(1));
+	}
+
+	@Test
+	@DisplayName("Should skip a leading byte order mark")
+	public void testByteOrderMark() throws IOException {
+		assertEquals(List.of("``` header"), readAll(sourceOf("﻿``` header\n")));
+	}
+
+	@Test
+	@DisplayName("Should expose ASCII lines as views with working CharSequence methods")
+	public void testAsciiView() throws IOException {
+		SourceLine line = (SourceLine) sourceOf("skip\n## A heading\n").readLine();
+		line = (SourceLine) new ByteLineSource(line.getSource(), 5, line.getSource().size()).readLine();
+
+		assertEquals(5, line.getStart());
+		assertEquals(17, line.getEnd());
+		assertEquals(12, line.length());
+		assertEquals('#', line.charAt(0));
+		assertEquals("A heading", line.subSequence(3, 12).toString());
+		assertTrue("## A heading".contentEquals(line));
+		assertThrows(IndexOutOfBoundsException.class, () -> sourceOf("abc").readLine().charAt(3));
+	}
+
+	@Test
+	@DisplayName("Should read lines from a memory-mapped file")
+	public void testMappedFile() throws IOException {
+		Path file = tempDir.resolve("mapped.txt");
+		Files.writeString(file, "# Heading\r\n\r\nSome <content> é\r\n", StandardCharsets.UTF_8);
+
+		assertEquals(List.of("# Heading", "", "Some <content> é"), readAll(new ByteLineSource(SourceBuffer.map(file))));
+	}
+
+	@Test
+	@DisplayName("Should read a small file into the heap and map a large one, with the same lines")
+	public void testOpen() throws IOException {
+		Path small = tempDir.resolve("small.txt");
+		Files.writeString(small, "# Heading\r\n\r\nSome <content> é\r\n", StandardCharsets.UTF_8);
+		assertFalse(SourceBuffer.open(small).isMapped());
+		assertEquals(List.of("# Heading", "", "Some <content> é"), readAll(LineSource.open(small)));
+
+		Path large = tempDir.resolve("large.txt");
+		String line = "line é".repeat(100);
+		Files.writeString(large, (line + "\n").repeat((int) (SourceBuffer.MAP_THRESHOLD / line.length())), StandardCharsets.UTF_8);
+		SourceBuffer mapped = SourceBuffer.open(large);
+		assertTrue(mapped.isMapped());
+		assertEquals(readAll(new ByteLineSource(SourceBuffer.wrap(Files.readAllBytes(large)))), readAll(new ByteLineSource(mapped)));
+	}
+}
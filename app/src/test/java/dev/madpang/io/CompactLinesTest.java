@@ -0,0 +1,52 @@
+/**
+ * @file: CompactLinesTest.java
+ * @brief: Unit tests for CompactLines class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompactLinesTest {
+
+	@Test
+	@DisplayName("Should store the lines of one source as spans, and release the spare ones when trimmed")
+	public void testSpans() {
+		SourceBuffer source = SourceBuffer.wrap("ab\ncd\nef\nü\n".getBytes(StandardCharsets.UTF_8));
+		CompactLines lines = new CompactLines(source);
+		lines.add(SourceLine.of(source, 0, 2, true));
+		lines.add(SourceLine.of(source, 3, 5, true));
+		lines.addSpan(6, 8, true);
+		lines.addSpan(9, 11, false);
+
+		assertEquals(4, lines.size());
+		assertEquals(4, lines.capacity()); // the initial capacity
+		lines.addSpan(0, 1, true);
+		assertEquals(8, lines.capacity());
+		lines.trimToSize();
+		assertEquals(5, lines.capacity());
+		assertEquals(List.of("ab", "cd", "ef", "ü", "a"), lines.stream().map(CharSequence::toString).toList());
+	}
+
+	@Test
+	@DisplayName("Should fall back to a plain list for a line of another source")
+	public void testAppendFallback() {
+		SourceBuffer source = SourceBuffer.wrap("ab\n".getBytes(StandardCharsets.UTF_8));
+		SourceBuffer other = SourceBuffer.wrap("cd\n".getBytes(StandardCharsets.UTF_8));
+		List<CharSequence> lines = CompactLines.append(new ArrayList<>(), SourceLine.of(source, 0, 2, true));
+		assertTrue(lines instanceof CompactLines);
+		lines = CompactLines.append(lines, SourceLine.of(other, 0, 2, true));
+		assertFalse(lines instanceof CompactLines);
+		assertEquals("ab", lines.get(0).toString());
+		assertEquals("cd", lines.get(1).toString());
+		assertThrows(IllegalArgumentException.class, () -> new CompactLines(source).add("a String"));
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * @file: JfrEventsTest.java
+ * @brief: Unit tests for the JFR events of the parsers and renderers
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import dev.madpang.ast.MmdDocument;
+
+public class JfrEventsTest {
+	private static final String DOCUMENT = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n"
+		+ "# Root\n\nIntro\n\n## A\n\nText\n``` java\nint a;\n```\n\n=== B\n\nMore text\n";
+	private static final String[] EVENTS = { "dev.madpang.ParseSection", "dev.madpang.ParseParagraph", "dev.madpang.ParseBlock", "dev.madpang.Render" };
+
+	private static MmdDocument convert() throws IOException {
+		MmdDocument doc = MmdDocument.parse(new BufferedReader(new StringReader(DOCUMENT)));
+		doc.toHTML(new StringBuilder());
+		return doc;
+	}
+
+	@Test
+	@DisplayName("Should record the parse and render events, with their fields")
+	public void testEvents() throws IOException {
+		Path file = Files.createTempFile("events", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String event : EVENTS) {
+				recording.enable(event).withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			convert();
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+			RecordedEvent section = events.stream().filter(e -> e.getEventType().getName().equals(EVENTS[0])).findFirst().orElseThrow();
+			assertEquals(1, section.getInt("level"));
+			assertEquals("Root", section.getString("heading"));
+			assertEquals(14, section.getLong("lines"));
+			assertEquals(2, section.getInt("subSections"));
+			assertEquals(3, events.stream().filter(e -> e.getEventType().getName().equals(EVENTS[1])).count());
+			RecordedEvent block = events.stream().filter(e -> e.getEventType().getName().equals(EVENTS[2])).findFirst().orElseThrow();
+			assertEquals("code", block.getString("blockType"));
+			assertEquals(2, block.getLong("lines"));
+			// 3 sections, 3 semantic paragraphs, 4 blocks
+			assertEquals(10, events.stream().filter(e -> e.getEventType().getName().equals(EVENTS[3])).count());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	@DisplayName("Should be disabled by default")
+	public void testDisabledByDefault() throws IOException {
+		convert(); // registers the event types
+		for (EventType type : FlightRecorder.getFlightRecorder().getEventTypes()) {
+			if (type.getName().startsWith("dev.madpang.")) {
+				assertFalse(type.isEnabled(), type.getName());
+			}
+		}
+	}
+}
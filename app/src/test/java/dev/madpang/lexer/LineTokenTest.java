@@ -0,0 +1,117 @@
+/**
+ * @file: LineTokenTest.java
+ * @brief: Unit tests for LineToken and LineLexer classes
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.lexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import dev.madpang.io.LineSource;
+
+public class LineTokenTest {
+
+	// The patterns the parsers used to match every line against
+	private static final Pattern HEADING = Pattern.compile("^(#{1,3}) (\\S.*)$");
+	private static final Pattern FUZZY_HEADING = Pattern.compile("^(===|---) (\\S.*)$");
+	private static final Pattern FENCE_OPEN = Pattern.compile("^`{3} (\\S.*)$");
+	private static final Pattern HEADER_META = Pattern.compile("^@([a-z]+):(.*)$");
+
+	@Test
+	@DisplayName("Should tag each kind of line")
+	public void testKinds() {
+		assertEquals(LineKind.BLANK, LineToken.of("").kind);
+		assertEquals(LineKind.BLANK, LineToken.of(" \t ").kind);
+		assertEquals(LineKind.FENCE_CLOSE, LineToken.of("```").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("```java").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("#### Too deep").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("@Date: 2025").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("Plain prose").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("---").kind);
+		assertEquals(LineKind.TEXT, LineToken.of("---- Too long").kind);
+		assertEquals(LineKind.FUZZY_HEADING, LineToken.of("=== Major").kind);
+		assertEquals(2, LineToken.of("--- Minor").level);
+
+		LineToken heading = LineToken.of("## Level 2 heading ");
+		assertEquals(LineKind.HEADING, heading.kind);
+		assertEquals(2, heading.level);
+		assertEquals("Level 2 heading ", heading.value().toString());
+
+		LineToken fence = LineToken.of("``` java");
+		assertEquals(LineKind.FENCE_OPEN, fence.kind);
+		assertEquals("java", fence.value().toString());
+
+		LineToken meta = LineToken.of("@date: [created: 2025-05-11, updated: 2025-05-17]");
+		assertEquals(LineKind.HEADER_META, meta.kind);
+		assertEquals("date", meta.key());
+		assertEquals(" [created: 2025-05-11, updated: 2025-05-17]", meta.value().toString());
+	}
+
+	@Test
+	@DisplayName("Should classify lines exactly as the heading, fence and meta patterns do")
+	public void testAgreesWithPatterns() {
+		char[] alphabet = {'#', '`', '@', '=', '-', ' ', '\t', ':', 'a', 'z', 'A', '1', '\u000B', '\u0085', '\u2028', '\u00E9'};
+		Random random = new Random(42);
+		for (int n = 0; n < 200_000; n++) {
+			char[] chars = new char[random.nextInt(8)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+			String line = new String(chars);
+			LineToken token = LineToken.of(line);
+
+			Matcher heading = HEADING.matcher(line);
+			Matcher fuzzy = FUZZY_HEADING.matcher(line);
+			Matcher fence = FENCE_OPEN.matcher(line);
+			Matcher meta = HEADER_META.matcher(line);
+			if (line.trim().isEmpty()) {
+				assertEquals(LineKind.BLANK, token.kind, line);
+			} else if (heading.matches()) {
+				assertEquals(LineKind.HEADING, token.kind, line);
+				assertEquals(heading.group(1).length(), token.level, line);
+				assertEquals(heading.group(2), token.value().toString(), line);
+			} else if (fuzzy.matches()) {
+				assertEquals(LineKind.FUZZY_HEADING, token.kind, line);
+				assertEquals(fuzzy.group(1).equals("===") ? 1 : 2, token.level, line);
+				assertEquals(fuzzy.group(2), token.value().toString(), line);
+			} else if (fence.matches()) {
+				assertEquals(LineKind.FENCE_OPEN, token.kind, line);
+				assertEquals(fence.group(1), token.value().toString(), line);
+			} else if (line.equals("```")) {
+				assertEquals(LineKind.FENCE_CLOSE, token.kind, line);
+			} else if (meta.matches()) {
+				assertEquals(LineKind.HEADER_META, token.kind, line);
+				assertEquals(meta.group(1), token.key(), line);
+				assertEquals(meta.group(2), token.value().toString(), line);
+			} else {
+				assertEquals(LineKind.TEXT, token.kind, line);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should tag the lines of a source only once")
+	public void testLexerIsIdempotent() throws IOException {
+		LineSource source = LineSource.of(new BufferedReader(new StringReader("# Title\n\nText\n")));
+		LineLexer lexer = LineLexer.of(source);
+
+		assertSame(lexer, LineLexer.of(lexer));
+		LineToken first = lexer.readLine();
+		assertSame(first, LineToken.of(first));
+		assertEquals("# Title", LineToken.textOf(first));
+		assertEquals(LineKind.BLANK, lexer.readLine().kind);
+		assertEquals(LineKind.TEXT, lexer.readLine().kind);
+		assertNull(lexer.readLine());
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * @file: ConversionMetricsTest.java
+ * @brief: Unit tests for ConversionMetrics class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import dev.madpang.batch.BatchConverter;
+
+public class ConversionMetricsTest {
+	private static final String DOCUMENT = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n"
+		+ "# Root\n\nIntro\n\n## A\n\nText\n``` java\nint a;\n```\n\n=== B\n\nMore text\n";
+
+	private final ConversionMetrics metrics = ConversionMetrics.GLOBAL;
+	private Path dir;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("metrics");
+		metrics.reset();
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		metrics.setEnabled(false);
+		metrics.reset();
+		try (var files = Files.list(dir)) {
+			for (Path file : files.toList()) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(dir);
+	}
+
+	@Test
+	@DisplayName("Should count the documents, their shape and their bytes, and time every phase")
+	public void testRecordsConversion() throws IOException {
+		metrics.setEnabled(true);
+		Path output = dir.resolve("a.html");
+		BatchConverter.convert(DOCUMENT.getBytes(StandardCharsets.UTF_8), output);
+		BatchConverter.convert(DOCUMENT.getBytes(StandardCharsets.UTF_8), output);
+
+		Map<String, Long> values = metrics.snapshot();
+		assertEquals(2, (long) values.get("documents_total"));
+		assertEquals(2 * DOCUMENT.split("\n", -1).length - 2, (long) values.get("lines_total")); // without the empty string after the last "\n"
+		assertEquals(6, (long) values.get("sections_total"));
+		assertEquals(6, (long) values.get("semantic_paragraphs_total"));
+		assertEquals(2, (long) values.get("blocks_total{type=\"code\"}"));
+		assertEquals(6, (long) values.get("blocks_total{type=\"paragraph\"}"));
+		assertEquals(2L * DOCUMENT.length(), (long) values.get("bytes_in_total"));
+		assertEquals(2 * Files.size(output), (long) values.get("bytes_out_total"));
+		assertTrue((long) values.get("allocated_bytes_total") > 0);
+		for (ConversionMetrics.Phase phase : ConversionMetrics.Phase.values()) {
+			assertTrue((long) values.get("phase_nanoseconds_total{phase=\"" + phase.label() + "\"}") > 0, phase.label());
+		}
+		assertTrue(metrics.toJson().startsWith("{\"documents\":2,"));
+		assertTrue(metrics.toJson().contains("\"blocks\":{\"code\":2,\"paragraph\":6}"));
+		assertTrue(metrics.toTable().contains("blocks: code"));
+	}
+
+	@Test
+	@DisplayName("Should record nothing while disabled")
+	public void testDisabled() throws IOException {
+		BatchConverter.convert(DOCUMENT.getBytes(StandardCharsets.UTF_8), dir.resolve("a.html"));
+
+		assertEquals(0, metrics.start());
+		assertTrue(metrics.snapshot().values().stream().allMatch(value -> value == 0));
+	}
+}
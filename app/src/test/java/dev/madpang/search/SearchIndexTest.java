@@ -0,0 +1,139 @@
+/**
+ * @file: SearchIndexTest.java
+ * @brief: Unit tests for IndexBuilder and SearchIndex classes, and the search index written by the batch runs
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.madpang.ast.MmdDocument;
+import dev.madpang.batch.BatchConverter;
+import dev.madpang.batch.ConversionManifest;
+
+public class SearchIndexTest {
+	private static final String HEADER = "``` header\n@file: a.txt\n@brief: b\n@title: c\n@author: d\n@date: [created: 2025-01-01, updated: 2025-01-02]\n@version: 1\n```\n\n";
+	private static final String FIRST = "# Caching Guide\n\nThe cache keeps rendered pages.\n\n## Eviction\n\nThe LRU cache evicts old pages,\nthe cache is bounded.\n``` java\ncache.put(key, page);\n```\n\n## Hashing\n\nKeys are SHA-256 hashes.\n";
+	private static final String SECOND = "# Parser Notes\n\nThe parser never caches.\n\n=== Lexer\n\nEvery line is classified once, no cache here: the cache is elsewhere.\n";
+
+	@TempDir
+	Path tempDir;
+
+	private static MmdDocument parse(String body) throws IOException {
+		return MmdDocument.parse(new BufferedReader(new StringReader(HEADER + body)));
+	}
+
+	private static SearchIndex roundTrip(IndexBuilder builder) throws IOException {
+		Path file = Files.createTempFile("search", ".idx");
+		try {
+			builder.write(file);
+			return SearchIndex.load(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	@DisplayName("Should tokenize into lower-case runs of letters and digits")
+	public void testTokenizer() {
+		List<String> terms = new ArrayList<>();
+		Tokenizer.tokenize("SHA-256 hashes, Élan_vital & 日本語!", terms::add);
+		assertEquals(List.of("sha", "256", "hashes", "élan", "vital", "日本語"), terms);
+	}
+
+	@Test
+	@DisplayName("Should find the sections holding all the terms, the most occurrences first")
+	public void testSearch() throws IOException {
+		IndexBuilder builder = new IndexBuilder();
+		builder.addDocument("first.html", parse(FIRST).bodyContent);
+		builder.addDocument("second.html", parse(SECOND).bodyContent);
+		SearchIndex index = roundTrip(builder);
+
+		assertEquals(2, index.documentCount());
+		List<SearchIndex.Hit> hits = index.search("Cache", 10);
+		assertEquals(List.of(
+			new SearchIndex.Hit("first.html", 1, "Eviction", 3),
+			new SearchIndex.Hit("second.html", 1, "Lexer", 2),
+			new SearchIndex.Hit("first.html", 0, "Caching Guide", 1)), hits);
+		assertEquals(List.of(
+			new SearchIndex.Hit("first.html", 1, "Eviction", 6),
+			new SearchIndex.Hit("first.html", 0, "Caching Guide", 3)), index.search("the CACHE pages", 10));
+		assertEquals(List.of(new SearchIndex.Hit("first.html", 2, "Hashing", 1)), index.search("hashing", 10)); // from the heading
+		assertEquals(1, index.search("cache", 1).size());
+		assertTrue(index.search("cache nowhere", 10).isEmpty());
+		assertTrue(index.search(" -- ", 10).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should give the same index from merged builders as from a single one")
+	public void testMerge() throws IOException {
+		IndexBuilder single = new IndexBuilder();
+		single.addDocument("first.html", parse(FIRST).bodyContent);
+		single.addDocument("second.html", parse(SECOND).bodyContent);
+		single.addDocument("third.html", parse(FIRST).bodyContent);
+		IndexBuilder a = new IndexBuilder();
+		a.addDocument("first.html", parse(FIRST).bodyContent);
+		IndexBuilder b = new IndexBuilder();
+		b.addDocument("second.html", parse(SECOND).bodyContent);
+		b.addDocument("third.html", parse(FIRST).bodyContent);
+		IndexBuilder merged = new IndexBuilder();
+		merged.merge(a);
+		merged.merge(b);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		single.write(expected);
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		merged.write(actual);
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+		assertEquals(single.termCount(), merged.termCount());
+	}
+
+	@Test
+	@DisplayName("Should reject files that are not search indexes")
+	public void testRejectsOtherFiles() throws IOException {
+		Path notIndex = Files.writeString(tempDir.resolve("a.idx"), "hello");
+		assertThrows(IOException.class, () -> SearchIndex.load(notIndex));
+		IndexBuilder builder = new IndexBuilder();
+		builder.addDocument("first.html", parse(FIRST).bodyContent);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		builder.write(out);
+		byte[] bytes = out.toByteArray();
+		Path truncated = Files.write(tempDir.resolve("b.idx"), java.util.Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> SearchIndex.load(truncated));
+	}
+
+	@Test
+	@DisplayName("Should write the index of the whole batch, up-to-date documents included")
+	public void testBatch() throws Exception {
+		Path input = Files.createDirectories(tempDir.resolve("in").resolve("sub"));
+		Path output = tempDir.resolve("out");
+		Files.writeString(input.resolve("first.txt"), HEADER + FIRST);
+		Files.writeString(input.resolve("second.txt"), HEADER + SECOND);
+		for (int run = 0; run < 2; run++) {
+			BatchConverter converter = new BatchConverter(output, 2);
+			converter.setManifest(ConversionManifest.load(output.resolve(ConversionManifest.DEFAULT_FILE_NAME)));
+			converter.setSearchIndex(output.resolve(SearchIndex.DEFAULT_FILE_NAME));
+			List<Path> inputs = List.of(tempDir.resolve("in"));
+			BatchConverter.Summary summary = converter.run(inputs, converter.plan(inputs));
+			assertEquals(2 * run, summary.skipped);
+
+			SearchIndex index = SearchIndex.load(output.resolve(SearchIndex.DEFAULT_FILE_NAME));
+			assertEquals(2, index.documentCount());
+			assertEquals("sub/second.html", index.search("lexer", 10).get(0).path());
+		}
+	}
+}
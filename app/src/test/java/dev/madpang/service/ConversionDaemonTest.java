@@ -0,0 +1,158 @@
+/**
+ * @file: ConversionDaemonTest.java
+ * @brief: Unit tests for ConversionDaemon and DaemonClient classes
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dev.madpang.batch.BatchConverter;
+
+public class ConversionDaemonTest {
+
+	private static final String VALID_DOC = "``` header\n" +
+		"@file: daemon.txt\n" +
+		"@brief: A document for daemon testing\n" +
+		"@title: Daemon\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n" +
+		"\n" +
+		"# Daemon Heading\n" +
+		"\n" +
+		"Some <content> here.\n";
+
+	@TempDir
+	Path tempDir;
+
+	private Thread start(ConversionDaemon daemon) {
+		return Thread.ofVirtual().start(() -> {
+			try {
+				daemon.run();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	@DisplayName("Should convert files sent by concurrent clients, as the batch converter does")
+	public void testConcurrentConversions() throws Exception {
+		Path socket = tempDir.resolve("d.sock");
+		Path expected = tempDir.resolve("expected.html");
+		List<Path> inputs = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			Path input = tempDir.resolve("in" + i + ".txt");
+			Files.writeString(input, VALID_DOC);
+			inputs.add(input);
+		}
+		BatchConverter.convert(inputs.get(0), expected);
+
+		ConversionDaemon daemon = new ConversionDaemon(socket, 0);
+		Thread server = start(daemon);
+		try (ExecutorService clients = Executors.newFixedThreadPool(4)) {
+			List<Future<Long>> results = new ArrayList<>();
+			for (Path input : inputs) {
+				results.add(clients.submit(() -> {
+					try (DaemonClient client = new DaemonClient(socket)) {
+						return client.convert(input, input.resolveSibling(input.getFileName() + ".html"));
+					}
+				}));
+			}
+			for (Future<Long> result : results) {
+				assertTrue(result.get() >= 0);
+			}
+		}
+		for (Path input : inputs) {
+			assertEquals(Files.readString(expected), Files.readString(input.resolveSibling(input.getFileName() + ".html")));
+		}
+
+		try (DaemonClient client = new DaemonClient(socket)) {
+			client.shutdown();
+		}
+		server.join(5_000);
+		assertFalse(server.isAlive());
+		assertFalse(Files.exists(socket));
+	}
+
+	@Test
+	@DisplayName("Should report a failed conversion, and keep serving on the same connection")
+	public void testFailure() throws Exception {
+		Path socket = tempDir.resolve("d.sock");
+		Path bad = tempDir.resolve("bad.txt");
+		Path good = tempDir.resolve("good.txt");
+		Files.writeString(bad, "not a MMD document\n");
+		Files.writeString(good, VALID_DOC);
+
+		try (ConversionDaemon daemon = new ConversionDaemon(socket, 0)) {
+			start(daemon);
+			try (DaemonClient client = new DaemonClient(socket)) {
+				IOException e = assertThrows(IOException.class, () -> client.convert(bad, tempDir.resolve("bad.html")));
+				assertTrue(e.getMessage().startsWith("[ERROR] " + bad.toAbsolutePath()));
+				client.convert(good, tempDir.resolve("good.html"));
+			}
+			assertTrue(Files.exists(tempDir.resolve("good.html")));
+			assertThrows(IOException.class, () -> new ConversionDaemon(socket, 0)); // already listening
+		}
+	}
+
+	@Test
+	@DisplayName("Should make the socket private to its owner, whatever the umask")
+	public void testSocketPermissions() throws Exception {
+		Path socket = tempDir.resolve("d.sock");
+		try (ConversionDaemon daemon = new ConversionDaemon(socket, 0)) {
+			assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(socket));
+		}
+	}
+
+	@Test
+	@DisplayName("Should drop a connection sending an overlong line, and keep serving the others")
+	public void testOverlongLine() throws Exception {
+		Path socket = tempDir.resolve("d.sock");
+		Path good = tempDir.resolve("good.txt");
+		Files.writeString(good, VALID_DOC);
+
+		try (ConversionDaemon daemon = new ConversionDaemon(socket, 0)) {
+			start(daemon);
+			try (LineChannel raw = new LineChannel(SocketChannel.open(UnixDomainSocketAddress.of(socket)))) {
+				raw.writeLine(ConversionDaemon.CONVERT + ConversionDaemon.SEPARATOR + "x".repeat(LineChannel.MAX_LINE_BYTES));
+				assertNull(raw.readLine());
+			}
+			try (DaemonClient client = new DaemonClient(socket)) {
+				assertTrue(client.convert(good, tempDir.resolve("good.html")) >= 0);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should stop by itself once idle for the timeout")
+	public void testIdleTimeout() throws Exception {
+		Path socket = tempDir.resolve("d.sock");
+		Files.createFile(socket); // a stale socket file, left by a dead daemon
+
+		Thread server = start(new ConversionDaemon(socket, 200));
+		server.join(5_000);
+
+		assertFalse(server.isAlive());
+		assertFalse(Files.exists(socket));
+	}
+}
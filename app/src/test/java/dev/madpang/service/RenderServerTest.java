@@ -0,0 +1,123 @@
+/**
+ * @file: RenderServerTest.java
+ * @brief: Unit tests for RenderServer class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class RenderServerTest {
+
+	private static final String VALID_DOC = "``` header\n" +
+		"@file: service.txt\n" +
+		"@brief: A document for service testing\n" +
+		"@title: Service\n" +
+		"@author: tester\n" +
+		"@date: [created: 2025-01-01, updated: 2025-01-02]\n" +
+		"@version: 1.0.0\n" +
+		"```\n" +
+		"\n" +
+		"# Service Heading\n" +
+		"\n" +
+		"Some <content> here.\n";
+
+	private RenderServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = new RenderServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1 << 20);
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.close();
+	}
+
+	private HttpResponse<String> post(String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri("/render")).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getPort() + path);
+	}
+
+	@Test
+	@DisplayName("Should render a posted document, and serve it again from the cache")
+	public void testRender() throws Exception {
+		HttpResponse<String> first = post(VALID_DOC);
+		HttpResponse<String> second = post(VALID_DOC);
+
+		assertEquals(200, first.statusCode());
+		assertTrue(first.headers().firstValue("Content-Type").orElse("").startsWith("text/html"));
+		assertTrue(first.body().contains("<h1>Service Heading</h1>"));
+		assertTrue(first.body().contains("Some &lt;content&gt; here."));
+		assertEquals(first.body(), second.body());
+
+		String metrics = client.send(HttpRequest.newBuilder(uri("/metrics")).build(), HttpResponse.BodyHandlers.ofString()).body();
+		assertTrue(metrics.contains("mmd2html_requests_total 2\n"));
+		assertTrue(metrics.contains("mmd2html_cache_hits_total 1\n"));
+		assertTrue(metrics.contains("mmd2html_cache_hit_ratio 0.5000\n"));
+		// the latency and in-flight count of a request are settled just after its response is sent, so only check they are exposed
+		assertTrue(metrics.contains("mmd2html_requests_in_flight "));
+		assertTrue(metrics.contains("mmd2html_request_latency_microseconds{quantile=\"0.99\"} "));
+		assertTrue(metrics.contains("# TYPE mmd2html_request_latency_microseconds summary\n"));
+		assertTrue(metrics.contains("mmd2html_request_latency_microseconds_sum "));
+		assertTrue(metrics.contains("# TYPE mmd2html_requests_total counter\n"));
+		// Every family is typed: each sample follows the `# TYPE` of its family
+		String family = null;
+		for (String line : metrics.split("\n")) {
+			if (line.startsWith("# TYPE ")) {
+				family = line.split(" ")[2];
+			} else if (!line.startsWith("#")) {
+				assertNotNull(family, line);
+				assertTrue(line.startsWith(family), line);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should answer 400 to an invalid document, and 405 to anything but POST")
+	public void testErrors() throws Exception {
+		HttpResponse<String> invalid = post("not a MMD document\n");
+		assertEquals(400, invalid.statusCode());
+		assertTrue(invalid.body().contains("<HEADER>"));
+
+		HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri("/render")).build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(405, get.statusCode());
+		assertTrue(server.metrics().contains("mmd2html_request_failures_total 2\n"));
+	}
+
+	@Test
+	@DisplayName("Should report latency percentiles within a bucket")
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.percentile(0.5));
+		for (long micros = 1; micros <= 1000; micros++) {
+			histogram.record(micros);
+		}
+		long median = histogram.percentile(0.5);
+		assertTrue(median >= 500 && median <= 500 * 1.125, "median " + median);
+		assertTrue(histogram.percentile(1.0) >= 1000);
+		assertEquals(1000, histogram.count());
+		assertEquals(500_500, histogram.sum());
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * @file: CommonUtilTest.java
+ * @brief: Unit tests for CommonUtil class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import dev.madpang.io.SourceBuffer;
+import dev.madpang.io.SourceLine;
+
+public class CommonUtilTest {
+
+	@Test
+	@DisplayName("Should return the very same string when there is nothing to escape")
+	public void testEscapeFastPath() throws IOException {
+		String plain = "Nothing special in \"this\" line.";
+
+		assertSame(plain, CommonUtil.escapeHTML(plain));
+	}
+
+	@Test
+	@DisplayName("Should escape ampersand and angle brackets")
+	public void testEscapeHTML() throws IOException {
+		assertEquals("&lt;a href=\"x\"&gt;Tom &amp; Jerry&lt;/a&gt;", CommonUtil.escapeHTML("<a href=\"x\">Tom & Jerry</a>"));
+		assertEquals("&amp;amp;", CommonUtil.escapeHTML("&amp;"));
+		assertEquals("", CommonUtil.escapeHTML(""));
+	}
+
+	@Test
+	@DisplayName("Should escape into an appendable sink")
+	public void testEscapeIntoSink() throws IOException {
+		StringBuilder sink = new StringBuilder("prefix:");
+
+		CommonUtil.escapeHTML("1 < 2 && 3 > 2", sink);
+
+		assertEquals("prefix:1 &lt; 2 &amp;&amp; 3 &gt; 2", sink.toString());
+	}
+
+	@Test
+	@DisplayName("Should escape quotes in attribute context")
+	public void testEscapeAttribute() throws IOException {
+		assertEquals("Tom&#39;s &quot;best&quot; &amp; &lt;worst&gt;", CommonUtil.escapeAttribute("Tom's \"best\" & <worst>"));
+
+		StringBuilder sink = new StringBuilder();
+		CommonUtil.escapeAttribute("a\"b", sink);
+		assertEquals("a&quot;b", sink.toString());
+	}
+
+	@Test
+	@DisplayName("Should throw exception for null input")
+	public void testEscapeNull() {
+		assertThrows(IOException.class, () -> CommonUtil.escapeHTML(null));
+		assertThrows(IOException.class, () -> CommonUtil.escapeHTML(null, new StringBuilder()));
+	}
+
+	@Test
+	@DisplayName("Should write the same escaped text into a Writer, from a String or from a view of a source")
+	public void testEscapeIntoWriter() throws IOException {
+		String[] lines = {
+			"if (a < b && b > c) { return \"<tag>\"; }",
+			"A plain sentence with no special characters at all.",
+			"Tom & Jerry <3",
+			"x".repeat(600) + "<" + "y".repeat(300), // longer than the copy buffer
+		};
+		for (String line : lines) {
+			byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+			CharSequence view = SourceLine.of(SourceBuffer.wrap(bytes), 0, bytes.length, true);
+			StringWriter fromString = new StringWriter();
+			StringWriter fromView = new StringWriter();
+			CommonUtil.escapeHTML(line, fromString);
+			CommonUtil.escapeHTML(view, fromView);
+			assertEquals(chainedReplace(line), fromString.toString());
+			assertEquals(chainedReplace(line), fromView.toString());
+		}
+	}
+
+	// The escaping as it used to be done, kept as the reference output
+	private static String chainedReplace(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * @file: LineCollectorTest.java
+ * @brief: Unit tests for LineCollector class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+
+public class LineCollectorTest {
+
+	@Test
+	@DisplayName("Should split on \"\\n\" and \"\\r\\n\", keeping a trailing partial line")
+	public void testSeparators() throws IOException {
+		LineCollector collector = new LineCollector();
+		collector.append("first\r\nsecond\n").append('\n').append("thi").append("rd\r\n").append("partial");
+		assertEquals(List.of("first", "second", "", "third", "partial"), collector.getLines());
+	}
+
+	@Test
+	@DisplayName("Should append only the given range, with a separator split across calls")
+	public void testRange() throws IOException {
+		LineCollector collector = new LineCollector();
+		collector.append("<<one\r", 2, 6).append("\ntwo>>", 0, 4);
+		assertEquals(List.of("one", "two"), collector.getLines());
+	}
+
+	@Test
+	@DisplayName("Should append \"null\" for a null sequence, as Appendable requires")
+	public void testNull() throws IOException {
+		LineCollector collector = new LineCollector();
+		collector.append(null).append('\n').append(null, 1, 3);
+		assertEquals(List.of("null", "ul"), collector.getLines());
+	}
+}
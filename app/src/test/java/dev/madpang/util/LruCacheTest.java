@@ -0,0 +1,59 @@
+/**
+ * @file: LruCacheTest.java
+ * @brief: Unit tests for LruCache class
+ * @author: madpang
+ * @date: [created: 2026-10-17, updated: 2026-10-17]
+ */
+
+package dev.madpang.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+	@Test
+	@DisplayName("Should evict the least recently used values once over the weight bound")
+	public void testEvictsByWeight() {
+		LruCache<String, String> cache = new LruCache<>(10, String::length);
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		assertEquals("aaaa", cache.get("a")); // "b" is now the least recently used
+		cache.put("c", "cccc");
+
+		assertNull(cache.get("b"));
+		assertEquals("aaaa", cache.get("a"));
+		assertEquals("cccc", cache.get("c"));
+		assertEquals(8, cache.weight());
+		assertEquals(1, cache.evictions());
+	}
+
+	@Test
+	@DisplayName("Should not cache a value heavier than the whole bound, and replace values in place")
+	public void testOversizedAndReplaced() {
+		LruCache<String, String> cache = new LruCache<>(4, String::length);
+		cache.put("big", "too heavy");
+		assertEquals(0, cache.size());
+
+		cache.put("k", "12");
+		cache.put("k", "123");
+		assertEquals(1, cache.size());
+		assertEquals(3, cache.weight());
+	}
+
+	@Test
+	@DisplayName("Should count hits and misses")
+	public void testHitRatio() {
+		LruCache<String, String> cache = new LruCache<>(100, String::length);
+		assertEquals(0.0, cache.hitRatio());
+		cache.get("x");
+		cache.put("x", "value");
+		cache.get("x");
+		cache.get("x");
+
+		assertEquals(2, cache.hits());
+		assertEquals(1, cache.misses());
+		assertEquals(2.0 / 3.0, cache.hitRatio(), 1e-9);
+	}
+}
@@ -0,0 +1,70 @@
+#!/bin/sh
+# @file: startup-bench.sh
+# @brief: Measures the wall time and peak RSS of a cold conversion, with and without class data sharing.
+# @author: madpang
+# @date: [created: 2026-10-17, updated: 2026-10-17]
+#
+# Usage: scripts/startup-bench.sh [<runs>] [<input-file>]
+# Run `./gradlew appCdsArchive` first: the benchmark runs the runtime image in app/build/image.
+# Every run is appended to app/build/startup-bench.csv, so the numbers can be tracked across changes.
+#
+# The variants are
+# - no-cds:      -Xshare:off, every class is loaded and verified from the jars/jimage
+# - jdk-cds:     the default archive of the JDK classes only
+# - app-cds:     the AppCDS archive, from the training run of `appCdsArchive`
+
+set -eu
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+IMAGE="$ROOT/app/build/image"
+RUNS="${1:-10}"
+INPUT="${2:-$ROOT/example-mmd-doc.txt}"
+OUTPUT="$(mktemp -d)/out.html"
+CSV="$ROOT/app/build/startup-bench.csv"
+
+if [ ! -f "$IMAGE/lib/mmd2html.jsa" ]; then
+	echo "[ERROR] No AppCDS archive in $IMAGE, run \`./gradlew appCdsArchive\` first." >&2
+	exit 1
+fi
+if [ -x /usr/bin/time ]; then
+	TIMER=/usr/bin/time
+else
+	TIMER=""
+	echo "[WARNING] GNU time not found at /usr/bin/time, the peak RSS is not measured." >&2
+fi
+[ -f "$CSV" ] || echo "timestamp,variant,run,wall_ms,max_rss_kb" > "$CSV"
+STAMP="$(date -u +%Y-%m-%dT%H:%M:%SZ)"
+
+# [1] Runs one cold conversion, prints "<wall_ms> <max_rss_kb>"
+measure() {
+	if [ -n "$TIMER" ]; then
+		"$TIMER" -f "%e %M" -o "$OUTPUT.time" "$IMAGE/bin/java" "$@" -cp "$IMAGE/lib/mmd2html.jar" MmdConverter "$INPUT" "$OUTPUT" > /dev/null
+		awk '{ printf "%d %d\n", $1 * 1000, $2 }' "$OUTPUT.time"
+	else
+		start=$(date +%s%N)
+		"$IMAGE/bin/java" "$@" -cp "$IMAGE/lib/mmd2html.jar" MmdConverter "$INPUT" "$OUTPUT" > /dev/null
+		end=$(date +%s%N)
+		echo "$(( (end - start) / 1000000 )) -1"
+	fi
+}
+
+# [2] Runs every variant, interleaved so that a drift of the machine affects them all alike
+for run in $(seq 1 "$RUNS"); do
+	for variant in no-cds jdk-cds app-cds; do
+		case "$variant" in
+			no-cds)  set -- -Xshare:off ;;
+			jdk-cds) set -- -Xshare:auto ;;
+			app-cds) set -- -Xshare:auto "-XX:SharedArchiveFile=$IMAGE/lib/mmd2html.jsa" ;;
+		esac
+		set -- $(measure "$@")
+		echo "$STAMP,$variant,$run,$1,$2" >> "$CSV"
+	done
+done
+
+# [3] Summarizes this session: median wall time and RSS per variant
+echo "variant   median_wall_ms  median_max_rss_kb  (runs: $RUNS, input: $INPUT)"
+for variant in no-cds jdk-cds app-cds; do
+	wall=$(grep "^$STAMP,$variant," "$CSV" | cut -d, -f4 | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+	rss=$(grep "^$STAMP,$variant," "$CSV" | cut -d, -f5 | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+	printf "%-9s %14s  %17s\n" "$variant" "$wall" "$rss"
+done